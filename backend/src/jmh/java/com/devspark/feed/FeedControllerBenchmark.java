@@ -0,0 +1,111 @@
+package com.devspark.feed;
+
+import java.util.concurrent.TimeUnit;
+
+import com.devspark.auth.UserSessions;
+import com.devspark.ingestion.ArticleContentFetcher;
+import com.devspark.ingestion.ArticleKey;
+import com.devspark.ingestion.ArticlePins;
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ArticleScorer;
+import com.devspark.ingestion.FeedRefreshEngine;
+import com.devspark.ingestion.Fixtures;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.IngestionMetrics;
+import com.devspark.ingestion.NearDuplicateIndex;
+import com.devspark.ingestion.PollScheduler;
+import com.devspark.ingestion.RssFetcher;
+import com.devspark.storage.ArticleLogStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link FeedController#listArticles} without the HTTP layer. The
+ * {@code uncached} benchmarks measure page lookup, cursor encoding and the
+ * record-to-{@link ArticleSummary} mapping; the others are served by
+ * {@link ArticleListCache}, as repeated polls are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeedControllerBenchmark {
+
+    private static final String[] SOURCES = {"Hacker News", "The Verge", "Wired", "TechCrunch"};
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    @Param({"50", "200"})
+    public int limit;
+
+    private FeedController controller;
+    private String cursor;
+    private ArticleKey after;
+
+    @Setup
+    public void fill() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        NearDuplicateIndex nearDuplicates = new NearDuplicateIndex(repository);
+        IngestionMetrics metrics = new IngestionMetrics(repository);
+        RssFetcher fetcher = new RssFetcher(repository, new ArticleContentFetcher(metrics), null, nearDuplicates, metrics);
+        FeedRefreshEngine refreshEngine = new FeedRefreshEngine(fetcher, 32, 2, 240);
+        ArticleLogStore noStorage = new ArticleLogStore(repository, fetcher, null, null, null, false, "data", 1 << 26, 10);
+        FeedService service = new FeedService(fetcher, repository, refreshEngine,
+            noStorage, nearDuplicates, metrics, new ArticlePins(),
+            new PollScheduler(refreshEngine, fetcher, repository, false, 2, 360, 5), new SubscriptionRegistry(),
+            new ArticleScorer(repository, nearDuplicates, 200, 24, ""));
+        for (int i = 0; i < size; i++) {
+            ArticleRecord record = Fixtures.article(i, SOURCES[i % SOURCES.length]);
+            repository.save(record);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        controller = new FeedController(service, new ArticleListCache(objectMapper, 512),
+            new ArticleEventStream(repository, nearDuplicates, objectMapper, 1024, 10, 20, 30), new UserSessions());
+        after = ArticleKey.of(repository.findPage(null, null, limit).get(limit - 1));
+        cursor = ArticleCursor.encode(after);
+    }
+
+    @Benchmark
+    public ArticleListResponse firstPageUncached() {
+        return controller.articlePage(null, null, limit, false);
+    }
+
+    @Benchmark
+    public ArticleListResponse secondPageUncached() {
+        return controller.articlePage(null, after, limit, false);
+    }
+
+    @Benchmark
+    public ArticleListResponse firstPageOfSourceUncached() {
+        return controller.articlePage("Wired", null, limit, false);
+    }
+
+    @Benchmark
+    public ArticleListResponse firstPageCollapsedUncached() {
+        return controller.articlePage(null, null, limit, true);
+    }
+
+    @Benchmark
+    public ArticleListResponse rankedPageUncached() {
+        return controller.rankedPage(null, null, limit);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> firstPage() {
+        return controller.listArticles(null, null, limit, false, "newest", null, null, "gzip");
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> secondPage() {
+        return controller.listArticles(null, cursor, limit, false, "newest", null, null, "gzip");
+    }
+}
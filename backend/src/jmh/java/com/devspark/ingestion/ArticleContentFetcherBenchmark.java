@@ -0,0 +1,44 @@
+package com.devspark.ingestion;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The CPU side of {@link ArticleContentFetcher#fetchFullContent}: parse a
+ * saved page, strip boilerplate and sanitise the main content. The network
+ * round trip is left out on purpose.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArticleContentFetcherBenchmark {
+
+    /** {@code article} hits the first strategy, {@code blog} falls through to the largest-div heuristic. */
+    @Param({"article", "blog"})
+    public String page;
+
+    private String html;
+    private final ArticleContentFetcher contentFetcher = new ArticleContentFetcher();
+
+    @Setup
+    public void load() {
+        html = Fixtures.text(page + "-page.html");
+        if (contentFetcher.extractContent(Jsoup.parse(html, "https://example.com/")) == null) {
+            throw new IllegalStateException("Fixture " + page + " has no extractable content");
+        }
+    }
+
+    @Benchmark
+    public String extractContent() {
+        return contentFetcher.extractContent(Jsoup.parse(html, "https://example.com/"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.devspark.ingestion;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Per-item helpers that run for every new feed entry. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArticleHtmlBenchmark {
+
+    /** The date shapes seen in real feeds: RFC 1123, ISO-8601 and the ones only the fallbacks understand. */
+    private static final String[] DATES = {
+        "Mon, 03 Jun 2024 14:22:10 +0000",
+        "Mon, 3 Jun 2024 14:22:10 GMT",
+        "2024-06-03T14:22:10Z",
+        "2024-06-03T14:22:10+08:00",
+        "2024-06-03T14:22:10.123Z",
+        "Mon, 03 Jun 2024 14:22:10 PDT",
+    };
+
+    @Param({"short", "html-heavy"})
+    public String content;
+
+    private String html;
+    private final ArticleContentFetcher contentFetcher = new ArticleContentFetcher();
+
+    @Setup
+    public void load() {
+        html = switch (content) {
+            case "short" -> "<p>Apple unveils the M4 chip. <a href=\"https://news.ycombinator.com/item?id=1\">Comments</a></p>";
+            case "html-heavy" -> Fixtures.text("article-page.html");
+            default -> throw new IllegalArgumentException(content);
+        };
+    }
+
+    /** Everything the ingest path needs from one item's HTML, in one parse. */
+    @Benchmark
+    public ArticleHtml.Analysis analyze() {
+        return ArticleHtml.analyze(html);
+    }
+
+    @Benchmark
+    public String stripToSummary() {
+        return ArticleHtml.stripToSummary(html);
+    }
+
+    @Benchmark
+    public String extractImage() {
+        return ArticleHtml.extractImage(html);
+    }
+
+    @Benchmark
+    public boolean needsFullContent() {
+        return contentFetcher.needsFullContent(html);
+    }
+
+    @Benchmark
+    public void parseDate(Blackhole blackhole) {
+        for (String date : DATES) {
+            Instant parsed = RssFetcher.parseDate(date);
+            blackhole.consume(parsed);
+        }
+    }
+}
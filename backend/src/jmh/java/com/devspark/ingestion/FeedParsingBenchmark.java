@@ -0,0 +1,51 @@
+package com.devspark.ingestion;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link RssFetcher#parseAndSave} on a cold repository: streaming parse,
+ * date and summary extraction, MinHash signing and the save itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeedParsingBenchmark {
+
+    @Param({"small-rss", "large-atom", "html-heavy"})
+    public String feed;
+
+    private byte[] body;
+    private RssFetcher fetcher;
+
+    @Setup(Level.Trial)
+    public void loadFeed() {
+        body = switch (feed) {
+            case "small-rss" -> Fixtures.resource("small-rss.xml");
+            case "large-atom" -> Fixtures.largeAtom(5 * 1024 * 1024);
+            case "html-heavy" -> Fixtures.htmlHeavyRss(50);
+            default -> throw new IllegalArgumentException(feed);
+        };
+    }
+
+    /** Every invocation sees all items as new, like the first fetch of a source. */
+    @Setup(Level.Invocation)
+    public void freshRepository() {
+        fetcher = new RssFetcher(new InMemoryArticleRepository());
+    }
+
+    @Benchmark
+    public Set<String> parseAndSave() {
+        return fetcher.parseAndSave(body, "Bench", Set.of());
+    }
+}
@@ -0,0 +1,115 @@
+package com.devspark.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Benchmark inputs. Small fixtures are checked in under {@code fixtures/};
+ * the large feeds are generated from a fixed seed so every run parses the
+ * same bytes.
+ */
+public final class Fixtures {
+
+    public static final Instant EPOCH = Instant.parse("2024-06-01T00:00:00Z");
+
+    private static final String[] WORDS = {
+        "kernel", "scheduler", "latency", "compiler", "database", "index", "cluster", "release",
+        "security", "patch", "browser", "engine", "model", "training", "inference", "GPU",
+        "network", "protocol", "storage", "cache", "query", "runtime", "garbage", "collector",
+        "thread", "async", "benchmark", "startup", "funding", "acquisition", "open", "source",
+        "developer", "platform", "cloud", "edge", "chip", "battery", "display", "camera"
+    };
+
+    private Fixtures() {}
+
+    public static byte[] resource(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IllegalArgumentException("No fixture " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String text(String name) {
+        return new String(resource(name), StandardCharsets.UTF_8);
+    }
+
+    /** Atom feed of roughly {@code targetBytes}, with HTML summaries and full content. */
+    public static byte[] largeAtom(int targetBytes) {
+        Random random = new Random(42);
+        StringBuilder xml = new StringBuilder(targetBytes + 4096);
+        xml.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n")
+            .append("<feed xmlns=\"http://www.w3.org/2005/Atom\">\n")
+            .append("<title>Generated Atom</title><id>urn:devspark:bench</id>\n");
+        for (int i = 0; xml.length() < targetBytes; i++) {
+            String updated = DateTimeFormatter.ISO_INSTANT.format(EPOCH.minusSeconds(i * 60L));
+            xml.append("<entry>\n")
+                .append("<title>").append(sentence(random, 8)).append("</title>\n")
+                .append("<link rel=\"alternate\" href=\"https://atom.example.com/posts/").append(i).append("\"/>\n")
+                .append("<id>urn:devspark:bench:").append(i).append("</id>\n")
+                .append("<updated>").append(updated).append("</updated>\n")
+                .append("<summary type=\"html\">&lt;p&gt;").append(sentence(random, 30)).append("&lt;/p&gt;</summary>\n")
+                .append("<content type=\"html\">");
+            for (int p = 0; p < 6; p++) {
+                xml.append("&lt;p&gt;").append(sentence(random, 60)).append("&lt;/p&gt;");
+            }
+            xml.append("</content>\n</entry>\n");
+        }
+        return xml.append("</feed>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** RSS feed whose items carry whole articles, images included, in {@code content:encoded}. */
+    public static byte[] htmlHeavyRss(int items) {
+        Random random = new Random(7);
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<rss version=\"2.0\" xmlns:content=\"http://purl.org/rss/1.0/modules/content/\">\n")
+            .append("<channel><title>Generated RSS</title><link>https://rss.example.com/</link>\n");
+        for (int i = 0; i < items; i++) {
+            String pubDate = DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(EPOCH.minusSeconds(i * 600L).atOffset(ZoneOffset.UTC));
+            xml.append("<item>\n")
+                .append("<title>").append(sentence(random, 9)).append("</title>\n")
+                .append("<link>https://rss.example.com/").append(i).append("</link>\n")
+                .append("<guid>https://rss.example.com/").append(i).append("</guid>\n")
+                .append("<pubDate>").append(pubDate).append("</pubDate>\n")
+                .append("<description><![CDATA[<p>").append(sentence(random, 25)).append("</p>]]></description>\n")
+                .append("<content:encoded><![CDATA[")
+                .append("<figure><img src=\"https://cdn.example.com/img/").append(i)
+                .append(".jpg\" width=\"1200\" height=\"630\" alt=\"\"></figure>");
+            for (int p = 0; p < 20; p++) {
+                xml.append("<p>").append(sentence(random, 40))
+                    .append(" <a href=\"https://example.com/ref/").append(p).append("\">reference</a>")
+                    .append(" <strong>").append(sentence(random, 4)).append("</strong></p>");
+                if (p % 5 == 4) xml.append("<pre><code>for (int i = 0; i &lt; n; i++) sum += a[i];</code></pre>");
+            }
+            xml.append("]]></content:encoded>\n</item>\n");
+        }
+        return xml.append("</channel></rss>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Article as it would be stored after ingestion, newest first as {@code i} grows older. */
+    public static ArticleRecord article(int i, String source) {
+        String link = "https://" + source.toLowerCase().replace(' ', '-') + ".example.com/" + i;
+        String summary = "<p>Summary of story " + i + " about " + WORDS[i % WORDS.length] + ".</p>";
+        String content = summary + "<p>" + WORDS[(i * 7) % WORDS.length] + " body text.</p>";
+        return new ArticleRecord("Story " + i + " " + WORDS[(i * 3) % WORDS.length], link, source,
+            EPOCH.minusSeconds(i * 30L), summary, content, "https://cdn.example.com/" + i + ".jpg");
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) text.append(' ');
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.devspark.ingestion;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** {@link InMemoryArticleRepository} reads and writes at growing sizes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RepositoryBenchmark {
+
+    static final String[] SOURCES = {"Hacker News", "The Verge", "Wired", "TechCrunch"};
+    static final Set<String> SUBSCRIBED = Set.of("Hacker News", "Wired", "TechCrunch");
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private InMemoryArticleRepository repository;
+    private String[] links;
+    private ArticleKey deepCursor;
+    private int next;
+
+    @Setup
+    public void fill() {
+        repository = new InMemoryArticleRepository();
+        links = new String[size];
+        for (int i = 0; i < size; i++) {
+            ArticleRecord record = Fixtures.article(i, SOURCES[i % SOURCES.length]);
+            links[i] = record.link();
+            repository.save(record);
+        }
+        deepCursor = ArticleKey.of(repository.findByUrl(links[size / 2]).orElseThrow());
+    }
+
+    private String nextLink() {
+        int i = next++;
+        if (next == size) next = 0;
+        return links[i];
+    }
+
+    @Benchmark
+    public boolean existsByUrl() {
+        return repository.existsByUrl(nextLink());
+    }
+
+    @Benchmark
+    public boolean existsByUrlMiss() {
+        return repository.existsByUrl("https://unknown.example.com/" + next++);
+    }
+
+    @Benchmark
+    public Optional<ArticleRecord> findByUrl() {
+        return repository.findByUrl(nextLink());
+    }
+
+    @Benchmark
+    public List<ArticleRecord> firstPage() {
+        return repository.findPage(null, null, 51);
+    }
+
+    @Benchmark
+    public List<ArticleRecord> deepPage() {
+        return repository.findPage(null, deepCursor, 51);
+    }
+
+    @Benchmark
+    public List<ArticleRecord> firstPageOfSource() {
+        return repository.findPage("Wired", null, 51);
+    }
+
+    /** A reader subscribed to three of the four sources, merged from their own indexes. */
+    @Benchmark
+    public List<ArticleRecord> firstPageOfSubscriptions() {
+        return repository.findPageOfSources(SUBSCRIBED, null, 51, record -> true);
+    }
+
+    @Benchmark
+    public int newestFirstOfSource() {
+        return repository.newestFirst("Wired").size();
+    }
+
+    /** Full snapshot, as the legacy list endpoint and recovery paths take it; slow at 1M by design. */
+    @Benchmark
+    public List<ArticleRecord> findAll() {
+        return repository.findAll();
+    }
+
+    /** Replaces an existing record, which moves it between the URL map and the ordered index. */
+    @Benchmark
+    public void saveReplace() {
+        ArticleRecord current = repository.findByUrl(nextLink()).orElseThrow();
+        repository.save(current.withEnrichment(EnrichmentStatus.NOT_NEEDED));
+    }
+}
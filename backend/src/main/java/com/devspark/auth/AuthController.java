@@ -1,25 +1,40 @@
 package com.devspark.auth;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    private final UserSessions sessions;
+
+    public AuthController(UserSessions sessions) {
+        this.sessions = sessions;
+    }
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
-        UserDto user = new UserDto("user-1", request.email());
-        AuthResponse response = new AuthResponse("dev-token-" + System.currentTimeMillis(), user);
-        return ResponseEntity.ok(response);
+        return signIn(request);
     }
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@RequestBody RegisterRequest request) {
-        UserDto user = new UserDto("user-1", request.email());
-        AuthResponse response = new AuthResponse("dev-token-" + System.currentTimeMillis(), user);
-        return ResponseEntity.ok(response);
+        return signIn(request);
+    }
+
+    /** Ends the session of the token in the Authorization header; 404 if it is not signed in. */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return sessions.signOut(authorization) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<AuthResponse> signIn(RegisterRequest request) {
+        if (request.email() == null || request.email().isBlank()) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(sessions.signIn(request.email()));
     }
 }
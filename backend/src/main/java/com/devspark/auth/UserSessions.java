@@ -0,0 +1,123 @@
+package com.devspark.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Development sign-in. A user is identified by email, with an id derived
+ * from it so the same person keeps their subscriptions across restarts;
+ * tokens are random and only held in memory, so a restart signs everyone out.
+ *
+ * A token is good for {@code devspark.auth.session-ttl-hours} from sign-in or
+ * until it is signed out. At most {@code devspark.auth.max-sessions} are
+ * kept: when that many are, expired ones are dropped, and if that does not
+ * free a quarter of them, the ones closest to expiry are signed out early.
+ */
+@Component
+public class UserSessions {
+
+    private static final String BEARER = "Bearer ";
+
+    private record Session(UserDto user, long expiresAtMillis) {}
+
+    private final long ttlMillis;
+    private final int maxSessions;
+    private final Clock clock;
+    private final Map<String, Session> sessionsByToken = new ConcurrentHashMap<>();
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public UserSessions(@Value("${devspark.auth.session-ttl-hours:168}") long ttlHours,
+                        @Value("${devspark.auth.max-sessions:10000}") int maxSessions) {
+        this(Duration.ofHours(ttlHours), maxSessions, Clock.systemUTC());
+    }
+
+    /** Sessions with the default limits, for code built outside Spring. */
+    public UserSessions() {
+        this(168, 10_000);
+    }
+
+    UserSessions(Duration ttl, int maxSessions, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSessions = maxSessions;
+        this.clock = clock;
+    }
+
+    /** Signs {@code email} in and returns a fresh token for it. */
+    public AuthResponse signIn(String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        UserDto user = new UserDto(idFor(normalized), normalized);
+        String token = "dev-token-" + UUID.randomUUID();
+        long now = clock.millis();
+        if (sessionsByToken.size() >= maxSessions) evict(now);
+        sessionsByToken.put(token, new Session(user, now + ttlMillis));
+        return new AuthResponse(token, user);
+    }
+
+    /**
+     * Signs out the token in an {@code Authorization} header, or a bare token;
+     * false if it was not signed in.
+     */
+    public boolean signOut(String authorization) {
+        String token = token(authorization);
+        return token != null && sessionsByToken.remove(token) != null;
+    }
+
+    /**
+     * Id of the user an {@code Authorization} header, or a bare token, belongs
+     * to; null if there is none or the token is unknown or expired.
+     */
+    public String userId(String authorization) {
+        String token = token(authorization);
+        Session session = token != null ? sessionsByToken.get(token) : null;
+        if (session == null) return null;
+        if (session.expiresAtMillis() - clock.millis() <= 0) {
+            sessionsByToken.remove(token, session);
+            return null;
+        }
+        return session.user().id();
+    }
+
+    int sessionCount() {
+        return sessionsByToken.size();
+    }
+
+    private synchronized void evict(long now) {
+        if (sessionsByToken.size() < maxSessions) return;
+        sessionsByToken.values().removeIf(session -> session.expiresAtMillis() - now <= 0);
+        int target = maxSessions - maxSessions / 4;
+        int excess = sessionsByToken.size() - target;
+        if (excess <= 0) return;
+        sessionsByToken.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()))
+            .limit(excess)
+            .toList()
+            .forEach(entry -> sessionsByToken.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static String token(String authorization) {
+        if (authorization == null) return null;
+        String token = authorization.startsWith(BEARER) ? authorization.substring(BEARER.length()) : authorization;
+        return token.trim();
+    }
+
+    private static String idFor(String email) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(email.getBytes(StandardCharsets.UTF_8));
+            return "user-" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.devspark.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admission control for the source and sign-in endpoints. Requests that
+ * change sources are rate limited per IP address, and so are sign-ins, each
+ * with an allowance of their own. Anyone can sign in as anyone, so a token
+ * says nothing about who is asking and limiting by user would let a client
+ * mint itself fresh allowances. Requests that fetch a feed on the request
+ * thread (validating, adding and refreshing a source) also need one of a few
+ * shared slots, so a script or a retrying client cannot tie up every servlet
+ * thread with remote fetches. Requests over either limit are answered 429
+ * with a Retry-After header.
+ */
+final class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String SOURCES = "/api/sources";
+    private static final String AUTH = "/api/auth";
+
+    private final RateLimiter rateLimiter;
+    private final Semaphore outboundSlots;
+
+    AdmissionFilter(RateLimiter rateLimiter, int maxOutbound) {
+        this.rateLimiter = rateLimiter;
+        this.outboundSlots = new Semaphore(maxOutbound);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")
+            || !(isUnder(path, SOURCES) || isUnder(path, AUTH));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long wait = rateLimiter.acquire(client(request), System.nanoTime());
+        if (wait > 0) {
+            reject(response, wait, "Too many requests, try again later");
+            return;
+        }
+        if (!fetchesOutbound(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!outboundSlots.tryAcquire()) {
+            reject(response, TimeUnit.SECONDS.toNanos(1), "Too many feed fetches in progress, try again later");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            outboundSlots.release();
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        return (isUnder(request.getRequestURI(), AUTH) ? "auth:" : "sources:") + request.getRemoteAddr();
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
+    }
+
+    private static boolean fetchesOutbound(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return request.getMethod().equals("POST")
+            && (path.equals(SOURCES) || path.equals(SOURCES + "/validate") || path.endsWith("/refresh"));
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos, String error) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"error\":\"" + error + "\"}");
+    }
+}
@@ -0,0 +1,63 @@
+package com.devspark.config;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request rate limit per client using the generic cell rate algorithm: a
+ * client is a single timestamp, the time its next request would be due at the
+ * steady rate, and a request is admitted if that time is less than
+ * {@code burst} intervals ahead of now. Admitting moves the timestamp one
+ * interval on with a compare-and-set, so checking a request takes no lock.
+ *
+ * At most {@code maxClients} clients are kept. When that many are, clients
+ * whose allowance has fully refilled are forgotten, which changes nothing
+ * for them; if that does not free a quarter of the map, arbitrary clients
+ * are too, and they start over with a full allowance.
+ */
+final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final Map<String, AtomicLong> clients = new ConcurrentHashMap<>();
+
+    RateLimiter(double perSecond, int burst, int maxClients) {
+        this.intervalNanos = (long) (1e9 / perSecond);
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.maxClients = maxClients;
+    }
+
+    /** Admits a request from {@code client}: 0 if admitted, otherwise how many nanoseconds until it would be. */
+    long acquire(String client, long now) {
+        AtomicLong due = clients.get(client);
+        if (due == null) {
+            if (clients.size() >= maxClients) evict(now);
+            due = clients.computeIfAbsent(client, c -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = due.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) return wait;
+            if (due.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    int clientCount() {
+        return clients.size();
+    }
+
+    private synchronized void evict(long now) {
+        if (clients.size() < maxClients) return;
+        clients.values().removeIf(due -> due.get() - now <= 0);
+        int target = maxClients - maxClients / 4;
+        Iterator<AtomicLong> it = clients.values().iterator();
+        while (clients.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.devspark.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.filter.CorsFilter;
 
 @Configuration
 public class SecurityConfig {
+    /**
+     * The API is open, so the source endpoints that fetch feeds and the sign-in
+     * endpoints are guarded by {@link AdmissionFilter} instead, right after CORS
+     * so rejections can be read by the browser.
+     */
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                            @Value("${devspark.admission.requests-per-minute:30}") int requestsPerMinute,
+                                            @Value("${devspark.admission.burst:10}") int burst,
+                                            @Value("${devspark.admission.max-clients:10000}") int maxClients,
+                                            @Value("${devspark.admission.max-outbound-requests:8}") int maxOutbound) throws Exception {
+        AdmissionFilter admission = new AdmissionFilter(
+            new RateLimiter(requestsPerMinute / 60.0, burst, maxClients), maxOutbound);
         return http
             .cors(Customizer.withDefaults())
             .csrf(csrf -> csrf.disable())
+            .addFilterAfter(admission, CorsFilter.class)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/sources/import-opml").permitAll()
@@ -0,0 +1,86 @@
+package com.devspark.drafts;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/drafts")
+public class DraftController {
+
+    private final DraftStore store;
+    private final DraftExportService exportService;
+
+    public DraftController(DraftStore store, DraftExportService exportService) {
+        this.store = store;
+        this.exportService = exportService;
+    }
+
+    /** Every draft without its body, oldest first. */
+    @GetMapping
+    public ResponseEntity<List<DraftSummary>> listDrafts() {
+        return ResponseEntity.ok(store.list());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Draft> getDraft(@PathVariable String id) {
+        return store.find(id)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Stores a new draft; any id in the body is ignored. */
+    @PostMapping
+    public ResponseEntity<?> createDraft(@RequestBody Draft draft) {
+        if (draft.title() == null || draft.title().isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Title is required"));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(store.create(draft.title(), draft.body(), draft.sourceUrl()));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateDraft(@PathVariable String id, @RequestBody Draft draft) {
+        if (draft.title() == null || draft.title().isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Title is required"));
+        }
+        Draft updated = new Draft(id, draft.title(), draft.body(), draft.sourceUrl());
+        return store.update(updated) ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteDraft(@PathVariable String id) {
+        return store.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Downloads the drafts with the given ids, or every draft, in one file of
+     * the given format: {@code markdown}, {@code html} or {@code obsidian}
+     * (a zipped vault). The file is written as the drafts are read.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDrafts(@RequestParam(defaultValue = "markdown") String format,
+                                                              @RequestParam(required = false) List<String> ids) {
+        return exportService.renderer(format)
+            .map(renderer -> ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(renderer.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"devspark-drafts." + renderer.fileExtension() + "\"")
+                .<StreamingResponseBody>body(out -> exportService.export(renderer, ids, out)))
+            .orElseGet(() -> ResponseEntity.badRequest().build());
+    }
+
+    /** Downloads one draft, like {@link #exportDrafts}. */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportDraft(@PathVariable String id,
+                                                             @RequestParam(defaultValue = "markdown") String format) {
+        if (!store.contains(id)) return ResponseEntity.notFound().build();
+        return exportDrafts(format, List.of(id));
+    }
+}
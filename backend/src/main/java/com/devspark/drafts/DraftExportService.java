@@ -1,9 +1,62 @@
 package com.devspark.drafts;
 
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Exports drafts in every format a {@link DraftRenderer} bean provides.
+ * Batch exports stream: drafts are read from the {@link DraftStore} one at a
+ * time and written straight to the output, so their number does not bound
+ * memory.
+ */
+@Service
 public class DraftExportService {
+
+    private final DraftStore store;
+    private final Map<String, DraftRenderer> renderers = new LinkedHashMap<>();
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public DraftExportService(DraftStore store, List<DraftRenderer> renderers) {
+        this.store = store;
+        for (DraftRenderer renderer : renderers) this.renderers.put(renderer.format(), renderer);
+    }
+
+    /** Service that only exports single drafts given to it. */
+    DraftExportService() {
+        this.store = null;
+    }
+
     public ExportResponse export(Draft draft) {
-        String content = "# " + draft.title() + "\n\n" + draft.body()
-            + "\n\n[source](" + draft.sourceUrl() + ")\n";
-        return new ExportResponse(content);
+        StringWriter content = new StringWriter();
+        try {
+            MarkdownDraftRenderer.write(draft, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ExportResponse(content.toString());
+    }
+
+    /** Names of the formats drafts can be exported in. */
+    public Set<String> formats() {
+        return renderers.keySet();
+    }
+
+    public Optional<DraftRenderer> renderer(String format) {
+        return Optional.ofNullable(format != null ? renderers.get(format) : null);
+    }
+
+    /** Writes the drafts with the given ids, or every draft if null, to {@code out}. */
+    public void export(DraftRenderer renderer, Collection<String> ids, OutputStream out) throws IOException {
+        renderer.render(store.drafts(ids), out);
     }
 }
@@ -0,0 +1,27 @@
+package com.devspark.drafts;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One export format. Every renderer bean is offered by
+ * {@link DraftExportService} under its {@link #format()} name, so adding a
+ * format takes a new bean and nothing else.
+ */
+public interface DraftRenderer {
+
+    /** The name the format is asked for by, e.g. {@code markdown}. */
+    String format();
+
+    String contentType();
+
+    /** Extension of the exported file, without the dot. */
+    String fileExtension();
+
+    /**
+     * Writes {@code drafts} to {@code out} in order, taking each draft only
+     * when it is written so that none has to be held after it. Flushes but
+     * does not close {@code out}.
+     */
+    void render(Iterable<Draft> drafts, OutputStream out) throws IOException;
+}
@@ -0,0 +1,211 @@
+package com.devspark.drafts;
+
+import com.devspark.ingestion.ArticlePins;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drafts kept on local disk, one JSON file per draft.
+ *
+ * Only the id, title and source of every draft stay in memory; bodies are
+ * read from disk when a draft is asked for, so an export walks the drafts one
+ * file at a time however many there are. Each save replaces the draft's file
+ * atomically, so a reader sees either the old or the new draft, and a draft
+ * deleted while it is being exported is skipped.
+ *
+ * The article a draft was written from is held in {@link ArticlePins} for as
+ * long as the draft exists, so retention does not remove it.
+ */
+@Component
+public class DraftStore {
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    /** Ids this store hands out: creation time in hex milliseconds, then a sequence number. */
+    private static final Pattern STAMPED_ID = Pattern.compile("([0-9a-f]{11})-([0-9a-f]{4})");
+    private static final String SUFFIX = ".json";
+
+    private final ObjectMapper objectMapper;
+    private final ArticlePins pins;
+    private final Path dir;
+    private final Clock clock;
+    /** Ids are ordered by creation time, so listings and exports run oldest first. */
+    private final NavigableMap<String, DraftSummary> index = new ConcurrentSkipListMap<>();
+    private long lastStamp;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public DraftStore(ObjectMapper objectMapper, ArticlePins pins,
+                      @Value("${devspark.drafts.dir:data/drafts}") String dir) {
+        this(objectMapper, pins, Path.of(dir), Clock.systemUTC());
+    }
+
+    DraftStore(ObjectMapper objectMapper, ArticlePins pins, Path dir, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.pins = pins;
+        this.dir = dir;
+        this.clock = clock;
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+                for (Path file : files) {
+                    read(file)
+                        .filter(draft -> file.getFileName().toString().equals(draft.id() + SUFFIX))
+                        .ifPresent(draft -> {
+                            index.put(draft.id(), DraftSummary.of(draft));
+                            hold(draft.sourceUrl());
+                            // New ids follow the stored ones even if the clock is behind them now
+                            lastStamp = Math.max(lastStamp, stampOf(draft.id()));
+                        });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open drafts in " + dir, e);
+        }
+    }
+
+    /** Every draft without its body, oldest first. */
+    public List<DraftSummary> list() {
+        return new ArrayList<>(index.values());
+    }
+
+    public int count() {
+        return index.size();
+    }
+
+    public boolean contains(String id) {
+        return id != null && index.containsKey(id);
+    }
+
+    public Optional<Draft> find(String id) {
+        if (!contains(id)) return Optional.empty();
+        return read(file(id));
+    }
+
+    /** Stores a new draft under a fresh id, which sorts after every id this store handed out before. */
+    public synchronized Draft create(String title, String body, String sourceUrl) {
+        String id;
+        do {
+            // Creation time in milliseconds, then a sequence number for drafts created within the same one
+            lastStamp = Math.max(clock.millis() << 16, lastStamp + 1);
+            id = String.format("%011x-%04x", lastStamp >>> 16, lastStamp & 0xffff);
+        } while (index.containsKey(id));
+        Draft draft = new Draft(id, title, body, sourceUrl);
+        write(draft);
+        hold(sourceUrl);
+        return draft;
+    }
+
+    /** Replaces a stored draft; false if there is none with its id. */
+    public synchronized boolean update(Draft draft) {
+        DraftSummary previous = draft.id() != null ? index.get(draft.id()) : null;
+        if (previous == null) return false;
+        write(draft);
+        hold(draft.sourceUrl());
+        release(previous.sourceUrl());
+        return true;
+    }
+
+    public synchronized boolean delete(String id) {
+        DraftSummary removed = index.remove(id);
+        if (removed == null) return false;
+        try {
+            Files.deleteIfExists(file(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete draft " + id, e);
+        }
+        release(removed.sourceUrl());
+        return true;
+    }
+
+    /**
+     * The drafts with the given ids, or every draft if null, read from disk one
+     * at a time as the iteration reaches them. Unknown ids are skipped.
+     */
+    public Iterable<Draft> drafts(Collection<String> ids) {
+        Iterable<String> keys = ids != null ? ids : index.keySet();
+        return () -> new Iterator<>() {
+            private final Iterator<String> it = keys.iterator();
+            private Draft next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && it.hasNext()) next = find(it.next()).orElse(null);
+                return next != null;
+            }
+
+            @Override
+            public Draft next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Draft draft = next;
+                next = null;
+                return draft;
+            }
+        };
+    }
+
+    private void write(Draft draft) {
+        Path file = file(draft.id());
+        Path temp = dir.resolve(draft.id() + SUFFIX + ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), draft);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save draft " + draft.id(), e);
+        }
+        index.put(draft.id(), DraftSummary.of(draft));
+    }
+
+    private void hold(String sourceUrl) {
+        if (sourceUrl != null && !sourceUrl.isBlank()) pins.hold(sourceUrl.strip());
+    }
+
+    private void release(String sourceUrl) {
+        if (sourceUrl != null && !sourceUrl.isBlank()) pins.release(sourceUrl.strip());
+    }
+
+    private Optional<Draft> read(Path file) {
+        try {
+            Draft draft = objectMapper.readValue(file.toFile(), Draft.class);
+            return isValidId(draft.id()) ? Optional.of(draft) : Optional.empty();
+        } catch (IOException e) {
+            // Deleted since it was listed
+            if (!Files.exists(file)) return Optional.empty();
+            System.err.println("Skipping unreadable draft " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** The creation stamp of an id {@link #create} handed out, or 0 for any other id. */
+    private static long stampOf(String id) {
+        Matcher matcher = STAMPED_ID.matcher(id);
+        if (!matcher.matches()) return 0;
+        return Long.parseLong(matcher.group(1), 16) << 16 | Long.parseLong(matcher.group(2), 16);
+    }
+
+    private Path file(String id) {
+        return dir.resolve(id + SUFFIX);
+    }
+
+    /** Ids become file names, so only letters, digits, dashes and underscores are allowed. */
+    public static boolean isValidId(String id) {
+        return id != null && ID.matcher(id).matches();
+    }
+}
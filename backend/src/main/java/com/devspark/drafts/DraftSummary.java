@@ -0,0 +1,9 @@
+package com.devspark.drafts;
+
+/** A stored draft without its body. */
+public record DraftSummary(String id, String title, String sourceUrl) {
+
+    static DraftSummary of(Draft draft) {
+        return new DraftSummary(draft.id(), draft.title(), draft.sourceUrl());
+    }
+}
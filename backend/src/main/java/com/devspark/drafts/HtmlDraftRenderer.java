@@ -0,0 +1,82 @@
+package com.devspark.drafts;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * All drafts in one standalone HTML page, an {@code <article>} each. Bodies
+ * are written as escaped text, a paragraph per blank-line-separated block, so
+ * a draft can never inject markup into the page.
+ */
+@Component
+public class HtmlDraftRenderer implements DraftRenderer {
+
+    @Override
+    public String format() {
+        return "html";
+    }
+
+    @Override
+    public String contentType() {
+        return "text/html; charset=UTF-8";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "html";
+    }
+
+    @Override
+    public void render(Iterable<Draft> drafts, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>DevSpark drafts</title>\n</head>\n<body>\n");
+        for (Draft draft : drafts) {
+            writer.write("<article id=\"");
+            escape(draft.id(), writer);
+            writer.write("\">\n<h1>");
+            escape(MarkdownDraftRenderer.singleLine(draft.title()), writer);
+            writer.write("</h1>\n");
+            if (draft.body() != null) {
+                for (String block : draft.body().strip().split("\\R\\s*\\R")) {
+                    if (block.isBlank()) continue;
+                    writer.write("<p>");
+                    String[] lines = block.strip().split("\\R");
+                    for (int i = 0; i < lines.length; i++) {
+                        if (i > 0) writer.write("<br>\n");
+                        escape(lines[i], writer);
+                    }
+                    writer.write("</p>\n");
+                }
+            }
+            String source = draft.sourceUrl() != null ? draft.sourceUrl().strip() : "";
+            if (source.startsWith("https://") || source.startsWith("http://")) {
+                writer.write("<p><a href=\"");
+                escape(source, writer);
+                writer.write("\">source</a></p>\n");
+            }
+            writer.write("</article>\n");
+        }
+        writer.write("</body>\n</html>\n");
+        writer.flush();
+    }
+
+    /** Writes {@code text} escaped for both element content and quoted attribute values. */
+    static void escape(String text, Writer writer) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '"' -> writer.write("&quot;");
+                default -> writer.write(c);
+            }
+        }
+    }
+}
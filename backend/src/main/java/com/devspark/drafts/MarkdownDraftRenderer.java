@@ -0,0 +1,63 @@
+package com.devspark.drafts;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/** All drafts in one Markdown document, separated by rules, each ending with its source link. */
+@Component
+public class MarkdownDraftRenderer implements DraftRenderer {
+
+    @Override
+    public String format() {
+        return "markdown";
+    }
+
+    @Override
+    public String contentType() {
+        return "text/markdown; charset=UTF-8";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "md";
+    }
+
+    @Override
+    public void render(Iterable<Draft> drafts, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        boolean first = true;
+        for (Draft draft : drafts) {
+            if (!first) writer.write("\n---\n\n");
+            first = false;
+            write(draft, writer);
+        }
+        writer.flush();
+    }
+
+    /** One draft: its title as a heading, its body and a link to its source if it has one. */
+    static void write(Draft draft, Writer writer) throws IOException {
+        writer.write("# ");
+        writer.write(singleLine(draft.title()));
+        writer.write("\n\n");
+        if (draft.body() != null && !draft.body().isBlank()) {
+            writer.write(draft.body().strip());
+            writer.write("\n");
+        }
+        if (draft.sourceUrl() != null && !draft.sourceUrl().isBlank()) {
+            writer.write("\n[source](");
+            // A space or closing parenthesis would end the link early
+            writer.write(draft.sourceUrl().strip().replace(" ", "%20").replace(")", "%29"));
+            writer.write(")\n");
+        }
+    }
+
+    static String singleLine(String text) {
+        return text == null || text.isBlank() ? "Untitled" : text.strip().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,108 @@
+package com.devspark.drafts;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A zipped Obsidian vault: one note per draft in a {@value #FOLDER} folder,
+ * named after the draft's title, with YAML front matter carrying its title,
+ * id and source so that Obsidian can query them. The archive is written
+ * entry by entry as the drafts come in.
+ */
+@Component
+public class ObsidianVaultRenderer implements DraftRenderer {
+
+    static final String FOLDER = "DevSpark Drafts";
+    private static final int MAX_NAME_CHARS = 100;
+
+    @Override
+    public String format() {
+        return "obsidian";
+    }
+
+    @Override
+    public String contentType() {
+        return "application/zip";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "zip";
+    }
+
+    @Override
+    public void render(Iterable<Draft> drafts, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        // Only the names are kept, to tell notes with the same title apart
+        Set<String> taken = new HashSet<>();
+        for (Draft draft : drafts) {
+            zip.putNextEntry(new ZipEntry(FOLDER + "/" + noteName(draft, taken) + ".md"));
+            writeNote(draft, writer);
+            writer.flush();
+            zip.closeEntry();
+        }
+        // Ends the archive without closing the response stream underneath
+        zip.finish();
+        out.flush();
+    }
+
+    static void writeNote(Draft draft, Writer writer) throws IOException {
+        writer.write("---\ntitle: ");
+        writer.write(yamlString(MarkdownDraftRenderer.singleLine(draft.title())));
+        writer.write("\ndraft-id: ");
+        writer.write(yamlString(draft.id()));
+        if (draft.sourceUrl() != null && !draft.sourceUrl().isBlank()) {
+            writer.write("\nsource: ");
+            writer.write(yamlString(draft.sourceUrl().strip()));
+        }
+        writer.write("\ntags:\n  - devspark\n---\n\n");
+        MarkdownDraftRenderer.write(draft, writer);
+    }
+
+    /**
+     * The title with the characters Obsidian or common file systems reject
+     * replaced, unique ignoring case among the names already {@code taken}.
+     */
+    static String noteName(Draft draft, Set<String> taken) {
+        String base = MarkdownDraftRenderer.singleLine(draft.title())
+            .replaceAll("[\\\\/:*?\"<>|#^\\[\\]\\p{Cntrl}]", "-")
+            .replaceAll("^[.\\s]+|[.\\s]+$", "");
+        if (base.isEmpty()) base = draft.id();
+        if (base.length() > MAX_NAME_CHARS) base = base.substring(0, MAX_NAME_CHARS).strip();
+        String name = base;
+        for (int n = 2; !taken.add(name.toLowerCase(Locale.ROOT)); n++) name = base + " " + n;
+        return name;
+    }
+
+    /** A double-quoted YAML scalar, which takes any text once quotes, backslashes and control characters are escaped. */
+    static String yamlString(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                default -> {
+                    if (c < 0x20 || c == 0x7f) {
+                        quoted.append(String.format("\\x%02x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
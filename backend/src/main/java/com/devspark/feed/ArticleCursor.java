@@ -0,0 +1,34 @@
+package com.devspark.feed;
+
+import com.devspark.ingestion.ArticleKey;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for article paging: the (publishedDate, link) key of the
+ * last article on the previous page, base64url-encoded.
+ */
+final class ArticleCursor {
+
+    private ArticleCursor() {}
+
+    static String encode(ArticleKey key) {
+        String raw = (key.publishedDate() != null ? key.publishedDate().toString() : "") + "\n" + key.link();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Throws IllegalArgumentException for a cursor this class did not produce. */
+    static ArticleKey decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.indexOf('\n');
+            if (split < 0) throw new IllegalArgumentException("Malformed cursor");
+            String date = raw.substring(0, split);
+            return new ArticleKey(date.isEmpty() ? null : Instant.parse(date), raw.substring(split + 1));
+        } catch (java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
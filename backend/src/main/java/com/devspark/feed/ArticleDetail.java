@@ -0,0 +1,13 @@
+package com.devspark.feed;
+
+public record ArticleDetail(
+    String id,
+    String link,
+    String title,
+    String summary,
+    String source,
+    String publishTime,
+    String content,
+    String imageUrl,
+    String enrichmentStatus
+) {}
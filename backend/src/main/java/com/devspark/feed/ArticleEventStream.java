@@ -0,0 +1,222 @@
+package com.devspark.feed;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ArticleRepositoryListener;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.NearDuplicateIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pushes newly saved articles to Server-Sent Events subscribers.
+ *
+ * Each new article is serialised once, as an {@link ArticleSummary}, into a
+ * fixed-size ring of recent events; saving never waits for a subscriber.
+ * Every subscriber is a virtual thread parked on the ring until something is
+ * appended, so idle connections cost a parked thread and an async request.
+ * A subscriber that falls more than a ring's worth behind, or resumes from an
+ * id that is no longer held, gets one {@code reset} event telling it to reload
+ * the list instead of the events it missed.
+ *
+ * Event ids are {@code <boot>-<sequence>}, so an id from before a restart is
+ * recognised as stale rather than mistaken for a current sequence number.
+ */
+@Component
+public class ArticleEventStream implements ArticleRepositoryListener {
+
+    private static final long RECONNECT_MILLIS = 3000;
+
+    /** A new article in list form; {@code json} is shared by every subscriber. */
+    record Event(long seq, String source, String json) {}
+
+    /**
+     * What a subscriber should send next: the events after its position, or a
+     * reset because the events it needs have been overwritten.
+     */
+    record Batch(List<Event> events, boolean reset, long lastSeq) {}
+
+    private final InMemoryArticleRepository repository;
+    private final NearDuplicateIndex nearDuplicates;
+    private final ObjectMapper objectMapper;
+    private final Event[] ring;
+    private final int maxClients;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+    private final String boot = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final AtomicInteger clients = new AtomicInteger();
+    private long lastSeq;
+    private volatile boolean closed;
+
+    public ArticleEventStream(InMemoryArticleRepository repository,
+                              NearDuplicateIndex nearDuplicates,
+                              ObjectMapper objectMapper,
+                              @Value("${devspark.stream.replay-size:1024}") int replaySize,
+                              @Value("${devspark.stream.max-clients:10000}") int maxClients,
+                              @Value("${devspark.stream.heartbeat-seconds:20}") long heartbeatSeconds,
+                              @Value("${devspark.stream.timeout-minutes:30}") long timeoutMinutes) {
+        this.repository = repository;
+        this.nearDuplicates = nearDuplicates;
+        this.objectMapper = objectMapper;
+        this.ring = new Event[replaySize];
+        this.maxClients = maxClients;
+        this.heartbeatNanos = TimeUnit.SECONDS.toNanos(heartbeatSeconds);
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+    }
+
+    /** Starts listening once recovery is over, so restored articles are not announced as new. */
+    @org.springframework.context.event.EventListener(org.springframework.boot.context.event.ApplicationReadyEvent.class)
+    public void start() {
+        repository.addListener(this, false);
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(
+                ArticleSummary.of(record, nearDuplicates.clusterSize(record.clusterId())));
+        } catch (JsonProcessingException e) {
+            System.err.println("Could not serialise article event for " + record.link() + " - " + e.getMessage());
+            return;
+        }
+        lock.lock();
+        try {
+            long seq = ++lastSeq;
+            ring[(int) (seq % ring.length)] = new Event(seq, record.source(), json);
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a stream of articles saved from now on, optionally for one source,
+     * or null if too many clients are connected. With {@code lastEventId} the
+     * stream first replays what the client missed, if the ring still has it.
+     */
+    public SseEmitter subscribe(String source, String lastEventId) {
+        return subscribe(source, name -> true, lastEventId);
+    }
+
+    /** As {@link #subscribe(String, String)}, leaving out articles of sources that fail {@code sources}. */
+    public SseEmitter subscribe(String source, Predicate<String> sources, String lastEventId) {
+        if (clients.incrementAndGet() > maxClients) {
+            clients.decrementAndGet();
+            return null;
+        }
+        long resumeFrom = resumePosition(lastEventId);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Thread pump = Thread.ofVirtual().name("article-stream").unstarted(() -> pump(emitter, source, sources, resumeFrom));
+        emitter.onCompletion(pump::interrupt);
+        emitter.onTimeout(pump::interrupt);
+        emitter.onError(e -> pump.interrupt());
+        pump.start();
+        return emitter;
+    }
+
+    int clientCount() {
+        return clients.get();
+    }
+
+    /** Sequence to continue after; -1 when the id is from another boot or malformed, which forces a reset. */
+    long resumePosition(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) return latest();
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(boot)) return -1;
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Events after {@code after}, waiting up to {@code timeoutNanos} for one to arrive. */
+    Batch await(long after, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = timeoutNanos;
+            while (lastSeq == after && nanos > 0 && !closed) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            if (after < 0 || after > lastSeq || lastSeq - after > ring.length) {
+                return new Batch(List.of(), true, lastSeq);
+            }
+            List<Event> events = new ArrayList<>((int) (lastSeq - after));
+            for (long seq = after + 1; seq <= lastSeq; seq++) {
+                events.add(ring[(int) (seq % ring.length)]);
+            }
+            return new Batch(events, false, lastSeq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long latest() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pump(SseEmitter emitter, String source, Predicate<String> sources, long position) {
+        try {
+            emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+            while (!closed) {
+                Batch batch = await(position, heartbeatNanos);
+                if (batch.reset()) {
+                    emitter.send(SseEmitter.event().id(eventId(batch.lastSeq())).name("reset").data("{}"));
+                } else if (batch.events().isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+                for (Event event : batch.events()) {
+                    if (source != null && !source.equals(event.source())) continue;
+                    if (!sources.test(event.source())) continue;
+                    emitter.send(SseEmitter.event().id(eventId(event.seq())).name("article")
+                        .data(event.json(), MediaType.APPLICATION_JSON));
+                }
+                position = batch.lastSeq();
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the request timed out; nothing to clean up but the count
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clients.decrementAndGet();
+        }
+    }
+
+    private String eventId(long seq) {
+        return boot + "-" + seq;
+    }
+
+    @PreDestroy
+    void close() {
+        closed = true;
+        lock.lock();
+        try {
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
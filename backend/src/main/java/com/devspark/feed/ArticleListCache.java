@@ -0,0 +1,116 @@
+package com.devspark.feed;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialised {@code /api/articles} pages, plain and gzip-compressed, keyed by
+ * the request's filter and tagged with the repository version they were built
+ * from. A page is served from here until the next write to the repository, so
+ * repeated polls cost a map lookup instead of a query, a mapping pass and
+ * serialisation. Least recently used pages are evicted past
+ * {@code devspark.articles.cache-entries}.
+ */
+@Component
+public class ArticleListCache {
+
+    /**
+     * Everything that selects a page; the raw cursor string stands in for the
+     * position. {@code sources} is the reader's subscriptions, or null for
+     * every source, so readers with the same subscriptions share pages.
+     * {@code byScore} pages rank by score instead of date.
+     */
+    record Key(String source, Set<String> sources, String cursor, int limit, boolean collapse, boolean byScore) {
+        Key(String source, String cursor, int limit, boolean collapse) {
+            this(source, null, cursor, limit, collapse, false);
+        }
+    }
+
+    /**
+     * One serialised page. {@code etag} is a weak validator: it names the JSON,
+     * whichever content coding it is sent with.
+     */
+    record Page(long version, byte[] json, byte[] gzip, String etag) {}
+
+    private final ObjectMapper objectMapper;
+    private final Map<Key, Page> pages;
+
+    public ArticleListCache(ObjectMapper objectMapper,
+                            @Value("${devspark.articles.cache-entries:512}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.pages = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Page> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The page for {@code key} as of repository {@code version}, building and
+     * caching it with {@code build} if the cached copy is missing or older.
+     */
+    Page get(Key key, long version, Supplier<ArticleListResponse> build) {
+        synchronized (pages) {
+            Page cached = pages.get(key);
+            if (cached != null && cached.version() == version) return cached;
+        }
+        // Built outside the lock; two concurrent misses for one key both build and the later one wins
+        Page page = serialise(version, build.get());
+        synchronized (pages) {
+            Page cached = pages.get(key);
+            if (cached == null || cached.version() <= version) pages.put(key, page);
+        }
+        return page;
+    }
+
+    int size() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    private Page serialise(long version, ArticleListResponse response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return new Page(version, json, gzip(json), etag(json));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Content-based, so it stays valid across restarts, which reset the repository version. */
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
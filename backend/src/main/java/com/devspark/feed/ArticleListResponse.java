@@ -2,5 +2,6 @@ package com.devspark.feed;
 
 import java.util.List;
 
-public record ArticleListResponse(List<ArticleSummary> items) {
+/** One page of articles; {@code nextCursor} is null on the last page. */
+public record ArticleListResponse(List<ArticleSummary> items, String nextCursor) {
 }
@@ -1,11 +1,35 @@
 package com.devspark.feed;
 
+import com.devspark.ingestion.ArticleIds;
+import com.devspark.ingestion.ArticleRecord;
+
+/** List projection of an article; the body is only served by {@link ArticleDetail}. */
 public record ArticleSummary(
-    String id, 
+    String id,
+    String link,
     String title,
     String summary,
     String source,
     String publishTime,
-    String content,
-    String imageUrl
-) {}
+    String imageUrl,
+    String enrichmentStatus,
+    String clusterId,
+    int clusterSize
+) {
+
+    /** {@code clusterSize} counts the articles telling the same story, including this one. */
+    public static ArticleSummary of(ArticleRecord record, int clusterSize) {
+        return new ArticleSummary(
+            ArticleIds.of(record.link()),
+            record.link(),
+            record.title(),
+            record.summary(),
+            record.source(),
+            record.publishedDate() != null ? record.publishedDate().toString() : "",
+            record.imageUrl(),
+            record.enrichment().name(),
+            record.clusterId() != null ? record.clusterId() : ArticleIds.of(record.link()),
+            clusterSize
+        );
+    }
+}
@@ -1,39 +1,222 @@
 package com.devspark.feed;
 
 import java.util.List;
+import java.util.Set;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.devspark.auth.UserSessions;
+import com.devspark.ingestion.ArticleKey;
 import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.EnrichmentStatus;
 
 @RestController
 @RequestMapping("/api")
 public class FeedController {
-    
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final FeedService feedService;
+    private final ArticleListCache listCache;
+    private final ArticleEventStream eventStream;
+    private final UserSessions sessions;
 
-    public FeedController(FeedService feedService) {
+    public FeedController(FeedService feedService, ArticleListCache listCache, ArticleEventStream eventStream,
+                          UserSessions sessions) {
         this.feedService = feedService;
+        this.listCache = listCache;
+        this.eventStream = eventStream;
+        this.sessions = sessions;
     }
 
+    /**
+     * Newest-first page of articles. Pass the previous response's
+     * {@code nextCursor} as {@code cursor} to get the following page. With
+     * {@code collapse=true} near-duplicate stories appear once, as their
+     * first article, with {@code clusterSize} telling how many copies exist.
+     * A signed-in user only sees the sources they subscribe to.
+     *
+     * With {@code sort=score} the page instead holds the stories with the
+     * highest signal-to-noise score, best first and each story once, read
+     * from {@link com.devspark.ingestion.ArticleScorer}'s rankings; it has no
+     * next page. Scores decay alike, so their order, and the cached page,
+     * only changes when articles do.
+     *
+     * Pages are served from {@link ArticleListCache} until the next write to
+     * the store, gzip-compressed when the client accepts it, and answered with
+     * 304 when the client's {@code If-None-Match} still matches.
+     */
     @GetMapping("/articles")
-    public ResponseEntity<ArticleListResponse> listArticles(@RequestParam(required = false) String sourceId) {
-        List<ArticleSummary> summaries = feedService.getRecentArticles().stream()
-            .map(record -> new ArticleSummary(
-                record.link(), // Use link as ID for now
+    public ResponseEntity<byte[]> listArticles(@RequestParam(required = false) String sourceId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int limit,
+                                               @RequestParam(defaultValue = "false") boolean collapse,
+                                               @RequestParam(defaultValue = "newest") String sort,
+                                               @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ArticleKey after;
+        try {
+            after = cursor != null && !cursor.isBlank() ? ArticleCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean byScore = sort.equals("score");
+        if (!byScore && !sort.equals("newest")) return ResponseEntity.badRequest().build();
+        int pageSize = limit > 0 ? Math.min(limit, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        String source = sourceId != null && !sourceId.isBlank() ? sourceId : null;
+
+        String user = sessions.userId(authorization);
+        Set<String> sources = user != null ? Set.copyOf(feedService.getSubscriptions(user)) : null;
+
+        ArticleListCache.Key key = byScore
+            ? new ArticleListCache.Key(source, sources, null, pageSize, true, true)
+            : new ArticleListCache.Key(source, sources, after != null ? cursor : null, pageSize, collapse, false);
+        ArticleListCache.Page page = listCache.get(key, feedService.getArticlesVersion(),
+            () -> byScore ? rankedPage(user, source, pageSize) : articlePage(user, source, after, pageSize, collapse));
+
+        if (matches(ifNoneMatch, page.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(page.etag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(page.etag())
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(gzip ? page.gzip() : page.json());
+    }
+
+    /**
+     * Server-Sent Events stream of newly ingested articles in list form
+     * ({@code article} events). Reconnecting clients send {@code Last-Event-ID}
+     * and get what they missed; a {@code reset} event means too much was
+     * missed and the list should be reloaded. Browsers cannot set headers on
+     * an event stream, so a signed-in user passes their token as {@code token}.
+     */
+    @GetMapping(value = "/articles/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamArticles(@RequestParam(required = false) String sourceId,
+                                                     @RequestParam(required = false) String token,
+                                                     @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                     @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String source = sourceId != null && !sourceId.isBlank() ? sourceId : null;
+        String user = sessions.userId(token != null ? token : authorization);
+        SseEmitter emitter = user != null
+            ? eventStream.subscribe(source, feedService.getSubscriptions(user)::contains, lastEventId)
+            : eventStream.subscribe(source, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /** The uncached page: repository lookup, cursor and mapping to {@link ArticleSummary}. */
+    ArticleListResponse articlePage(String source, ArticleKey after, int pageSize, boolean collapse) {
+        return articlePage(null, source, after, pageSize, collapse);
+    }
+
+    /** As {@link #articlePage(String, ArticleKey, int, boolean)} for a user's subscriptions; null for every source. */
+    ArticleListResponse articlePage(String user, String source, ArticleKey after, int pageSize, boolean collapse) {
+        // Ask for one extra record to learn whether another page exists
+        List<ArticleRecord> page = user != null
+            ? feedService.getArticlePage(user, source, after, pageSize + 1, collapse)
+            : feedService.getArticlePage(source, after, pageSize + 1, collapse);
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            nextCursor = ArticleCursor.encode(ArticleKey.of(page.get(pageSize - 1)));
+        }
+
+        List<ArticleSummary> summaries = page.stream()
+            .map(record -> ArticleSummary.of(record, feedService.getClusterSize(record)))
+            .toList();
+
+        return new ArticleListResponse(summaries, nextCursor);
+    }
+
+    /** The uncached {@code sort=score} page: the best stories of the reader's sources, or of {@code source}. */
+    ArticleListResponse rankedPage(String user, String source, int pageSize) {
+        List<ArticleSummary> summaries = feedService.getTopScored(user, source, pageSize).stream()
+            .map(record -> ArticleSummary.of(record, feedService.getClusterSize(record)))
+            .toList();
+        return new ArticleListResponse(summaries, null);
+    }
+
+    /** Weak comparison, as If-None-Match requires: {@code W/} prefixes are ignored. */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) return true;
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+            // "gzip;q=0" means the client refuses it
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.matches("q=0(\\.0*)?")) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @GetMapping("/articles/{id}")
+    public ResponseEntity<ArticleDetail> getArticle(@PathVariable String id) {
+        return feedService.getArticle(id)
+            .map(record -> ResponseEntity.ok(new ArticleDetail(
+                id,
+                record.link(),
                 record.title(),
                 record.summary(),
                 record.source(),
                 record.publishedDate() != null ? record.publishedDate().toString() : "",
-                record.content(),
-                record.imageUrl()
-            ))
-            .collect(java.util.stream.Collectors.toList());
-            
-        return ResponseEntity.ok(new ArticleListResponse(summaries));
+                // Until the full page is fetched, show the summary rather than a truncated body
+                record.enrichment() == EnrichmentStatus.PENDING ? record.summary() : record.content(),
+                record.imageUrl(),
+                record.enrichment().name()
+            )))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Keeps an article out of reach of retention, e.g. when it is starred or cited in a draft. */
+    @PutMapping("/articles/{id}/pin")
+    public ResponseEntity<Void> pinArticle(@PathVariable String id) {
+        return feedService.setArticlePinned(id, true)
+            ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/articles/{id}/pin")
+    public ResponseEntity<Void> unpinArticle(@PathVariable String id) {
+        return feedService.setArticlePinned(id, false)
+            ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 }
@@ -1,18 +1,38 @@
 package com.devspark.feed;
 
+import com.devspark.ingestion.ArticleKey;
+import com.devspark.ingestion.ArticlePins;
 import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ArticleScorer;
+import com.devspark.ingestion.CircuitState;
+import com.devspark.ingestion.FeedRefreshEngine;
+import com.devspark.ingestion.FetchCacheStats;
+import com.devspark.ingestion.FetchOutcome;
 import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.IngestionMetrics;
+import com.devspark.ingestion.NearDuplicateIndex;
+import com.devspark.ingestion.PollScheduler;
+import com.devspark.ingestion.RefreshStats;
 import com.devspark.ingestion.RssFetcher;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.devspark.ingestion.SourceSchedule;
+import com.devspark.storage.ArticleLogStore;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 @Service
 public class FeedService {
     private final RssFetcher rssFetcher;
     private final InMemoryArticleRepository repository;
+    private final FeedRefreshEngine refreshEngine;
+    private final ArticleLogStore logStore;
+    private final NearDuplicateIndex nearDuplicates;
+    private final IngestionMetrics metrics;
+    private final ArticlePins pins;
+    private final PollScheduler pollScheduler;
+    private final SubscriptionRegistry subscriptions;
+    private final ArticleScorer scorer;
 
     // Built-in sources
     private static final Map<String, String> DEFAULT_SOURCES = Map.of(
@@ -22,33 +42,100 @@ public class FeedService {
         "TechCrunch", "https://techcrunch.com/feed/"
     );
 
-    // User-added sources (name -> url)
-    private final Map<String, String> customSources = new ConcurrentHashMap<>();
-
-    public FeedService(RssFetcher rssFetcher, InMemoryArticleRepository repository) {
+    public FeedService(RssFetcher rssFetcher, InMemoryArticleRepository repository,
+                       FeedRefreshEngine refreshEngine, ArticleLogStore logStore,
+                       NearDuplicateIndex nearDuplicates, IngestionMetrics metrics, ArticlePins pins,
+                       PollScheduler pollScheduler, SubscriptionRegistry subscriptions, ArticleScorer scorer) {
         this.rssFetcher = rssFetcher;
         this.repository = repository;
+        this.refreshEngine = refreshEngine;
+        this.logStore = logStore;
+        this.nearDuplicates = nearDuplicates;
+        this.metrics = metrics;
+        this.pins = pins;
+        this.pollScheduler = pollScheduler;
+        this.subscriptions = subscriptions;
+        this.scorer = scorer;
+        subscriptions.setChangeListener(logStore::subscriptionChanged);
+        subscriptions.load(DEFAULT_SOURCES, logStore.recoveredSources(), logStore.recoveredSubscriptions());
+        getAllSources().forEach(pollScheduler::track);
     }
 
-    /** Returns all sources (default + custom). */
+    /** Every feed anyone subscribes to (name -> url), each once however many users read it. */
     public Map<String, String> getAllSources() {
-        Map<String, String> all = new LinkedHashMap<>(DEFAULT_SOURCES);
-        all.putAll(customSources);
-        return all;
+        return new LinkedHashMap<>(subscriptions.feeds());
+    }
+
+    /**
+     * Subscribes {@code user} (null for no signed-in user) to a feed and returns
+     * its source name, or null if the URL is not a valid feed. A feed someone
+     * already subscribes to is neither validated nor fetched again.
+     */
+    public String addSource(String user, String name, String url) {
+        String existing = subscriptions.sourceFor(url);
+        String preferredName = existing;
+        if (existing == null) {
+            String feedTitle = rssFetcher.validateFeed(url);
+            if (feedTitle == null) return null;
+            preferredName = (name != null && !name.isBlank()) ? name : feedTitle;
+        }
+
+        SubscriptionChange change = subscriptions.subscribe(subscriber(user), preferredName, url);
+        if (change.feedAdded()) {
+            feedAdded(change);
+            // Fetch articles for the new source immediately
+            pollScheduler.refreshNow(change.source());
+        }
+        return change.source();
+    }
+
+    /**
+     * Subscribes {@code user} to an already validated feed, registering it
+     * under {@code preferredName}, or {@code preferredName (2)}, {@code (3)}...
+     * if that name is taken. Does not fetch it; the change says whether it
+     * was new.
+     */
+    public SubscriptionChange addValidatedSource(String user, String preferredName, String url) {
+        SubscriptionChange change = subscriptions.subscribe(subscriber(user), preferredName, url);
+        if (change.feedAdded()) feedAdded(change);
+        return change;
+    }
+
+    /** Source name the feed at {@code url} is registered under, or null if nobody subscribes to it. */
+    public String getSourceForUrl(String url) {
+        return subscriptions.sourceFor(url);
+    }
+
+    /** Feeds {@code user} subscribes to (name -> url); null for no signed-in user. */
+    public Map<String, String> getSubscribedSources(String user) {
+        return subscriptions.feedsOf(subscriber(user));
     }
 
-    /** Add a custom source. Returns the feed title from validation, or null. */
-    public String addSource(String name, String url) {
-        String feedTitle = rssFetcher.validateFeed(url);
-        if (feedTitle == null) return null;
+    private void feedAdded(SubscriptionChange change) {
+        logStore.sourceAdded(change.source(), change.url());
+        pollScheduler.track(change.source(), change.url());
+    }
 
-        String sourceName = (name != null && !name.isBlank()) ? name : feedTitle;
-        customSources.put(sourceName, url);
+    private static String subscriber(String user) {
+        return user != null ? user : SubscriptionRegistry.SHARED;
+    }
 
-        // Fetch articles for the new source immediately
-        rssFetcher.fetch(url, sourceName);
+    /** Fetches one source now, outside its schedule. The caller holds the refresh engine's permits. */
+    public FetchOutcome fetchSource(String name, String url) {
+        return rssFetcher.fetch(url, name);
+    }
+
+    /**
+     * Fetches a source now and replans its next poll from the result. Empty if
+     * there is no such source or a fetch of it is already running.
+     */
+    public Optional<FetchOutcome> refreshSource(String name) {
+        return pollScheduler.refreshNow(name);
+    }
 
-        return sourceName;
+    /** When each source was last polled and will be next, and why. */
+    public List<SourceSchedule> getPollSchedules() {
+        return pollScheduler.schedules();
     }
 
     /** Validate a feed URL. Returns the feed title or null. */
@@ -56,32 +143,136 @@ public class FeedService {
         return rssFetcher.validateFeed(url);
     }
 
-    /** Remove a custom source by name. */
-    public boolean removeSource(String name) {
-        return customSources.remove(name) != null;
+    /**
+     * Unsubscribes {@code user} from a source; the feed stops being fetched
+     * once nobody subscribes to it. Returns false if the user was not subscribed.
+     */
+    public boolean removeSource(String user, String name) {
+        SubscriptionChange change = subscriptions.unsubscribe(subscriber(user), name);
+        if (change == null) return false;
+        if (change.feedRemoved()) {
+            logStore.sourceRemoved(name);
+            pollScheduler.untrack(name);
+            rssFetcher.forgetFetchState(change.url());
+            metrics.forgetSource(name);
+        }
+        return true;
     }
 
-    /** List custom source names. */
-    public List<Map<String, String>> listCustomSources() {
+    /** The sources {@code user} added on top of the built-in ones. */
+    public List<Map<String, String>> listCustomSources(String user) {
         List<Map<String, String>> result = new ArrayList<>();
-        customSources.forEach((name, url) -> result.add(Map.of("name", name, "url", url)));
+        subscriptions.feedsOf(subscriber(user)).forEach((name, url) -> {
+            if (!subscriptions.isBuiltIn(name)) result.add(Map.of("name", name, "url", url));
+        });
         return result;
     }
 
-    @Scheduled(fixedRate = 300000)
+    /**
+     * Fetches every source at once, whatever its schedule, and blocks until
+     * done. Sources are otherwise polled one by one by {@link PollScheduler}.
+     */
     public void fetchAllFeeds() {
-        getAllSources().forEach((name, url) -> {
-            System.out.println("Fetching " + name + "...");
-            rssFetcher.fetch(url, name);
-        });
+        RefreshStats stats = refreshEngine.refresh(getAllSources());
+        metrics.recordRefresh(stats);
+        System.out.println("Refreshed " + stats.total() + " feeds in " + stats.elapsed().toMillis() + " ms: "
+            + stats.succeeded() + " ok, " + stats.failed() + " failed, "
+            + stats.timedOut() + " timed out, " + stats.skipped() + " skipped");
+    }
+
+    /** Stats of the last {@link #fetchAllFeeds} cycle, or null if none has completed yet. */
+    public RefreshStats getLastRefreshStats() {
+        return refreshEngine.getLastStats();
+    }
+
+    /** Circuit breaker state of every source's feed fetches, by source name. */
+    public Map<String, CircuitState> getSourceCircuits() {
+        Map<String, CircuitState> circuits = new LinkedHashMap<>();
+        for (String name : getAllSources().keySet()) circuits.put(name, rssFetcher.circuitState(name));
+        return circuits;
+    }
+
+    /** How many feed fetches were answered by a 304 or an unchanged body hash. */
+    public FetchCacheStats getFetchCacheStats() {
+        return rssFetcher.cacheStats();
     }
 
     public List<ArticleRecord> getRecentArticles() {
         return repository.findAll();
     }
 
-    @org.springframework.context.event.EventListener(org.springframework.boot.context.event.ApplicationReadyEvent.class)
-    public void onStartup() {
-        fetchAllFeeds();
+    /**
+     * Newest-first page of articles after {@code after}, optionally for one
+     * source. With {@code collapse}, each story cluster is represented by its
+     * first remaining article only.
+     */
+    public List<ArticleRecord> getArticlePage(String source, ArticleKey after, int limit, boolean collapse) {
+        return collapse
+            ? repository.findPage(source, after, limit, nearDuplicates::leadsCluster)
+            : repository.findPage(source, after, limit);
+    }
+
+    /**
+     * As {@link #getArticlePage(String, ArticleKey, int, boolean)} but only
+     * from the sources {@code user} subscribes to, read straight from their
+     * per-source indexes. A story whose lead article is in a source the user
+     * does not read is not collapsed.
+     */
+    public List<ArticleRecord> getArticlePage(String user, String source, ArticleKey after, int limit, boolean collapse) {
+        Set<String> sources = subscriptions.sourcesOf(user);
+        if (source != null) {
+            return sources.contains(source) ? getArticlePage(source, after, limit, collapse) : List.of();
+        }
+        return repository.findPageOfSources(sources, after, limit, collapse ? leadsVisibleCluster(sources) : record -> true);
+    }
+
+    /**
+     * Up to {@code limit} stories with the highest signal-to-noise score, from
+     * one source or, if null, from every source {@code user} reads (every
+     * source at all for no signed-in user). Each story appears once.
+     */
+    public List<ArticleRecord> getTopScored(String user, String source, int limit) {
+        if (user == null) return scorer.top(source != null ? List.of(source) : null, limit);
+        Set<String> sources = subscriptions.sourcesOf(user);
+        if (source != null) return sources.contains(source) ? scorer.top(List.of(source), limit) : List.of();
+        return scorer.top(sources, limit);
+    }
+
+    /** Live, read-only view of the sources {@code user} reads. */
+    public Set<String> getSubscriptions(String user) {
+        return subscriptions.sourcesOf(user);
+    }
+
+    private Predicate<ArticleRecord> leadsVisibleCluster(Set<String> sources) {
+        return record -> {
+            if (nearDuplicates.leadsCluster(record)) return true;
+            String lead = nearDuplicates.leadOf(record.clusterId());
+            return lead == null || repository.findByUrl(lead).map(r -> !sources.contains(r.source())).orElse(true);
+        };
+    }
+
+    /** Changes whenever any article is added or updated; pages built at one version stay valid until it moves. */
+    public long getArticlesVersion() {
+        return repository.version();
+    }
+
+    /** Number of articles telling the same story as {@code record}, including itself. */
+    public int getClusterSize(ArticleRecord record) {
+        return nearDuplicates.clusterSize(record.clusterId());
+    }
+
+    public Optional<ArticleRecord> getArticle(String id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * Pins or unpins an article so retention keeps or may drop it. Returns
+     * false if there is no such article.
+     */
+    public boolean setArticlePinned(String id, boolean pinned) {
+        Optional<ArticleRecord> article = repository.findById(id);
+        if (article.isEmpty()) return false;
+        if (pinned) pins.pin(article.get().link()); else pins.unpin(article.get().link());
+        return true;
     }
 }
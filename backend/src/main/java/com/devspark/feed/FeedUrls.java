@@ -0,0 +1,33 @@
+package com.devspark.feed;
+
+import java.net.URI;
+import java.util.Locale;
+
+/** Comparison keys for feed URLs, so the same feed written two ways is recognised as one. */
+public final class FeedUrls {
+
+    private FeedUrls() {}
+
+    /**
+     * Ignores the scheme (http and https serve the same feed), host case, a
+     * leading {@code www.}, default ports, a trailing slash and the fragment.
+     * URLs that do not parse are compared as trimmed strings.
+     */
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        try {
+            URI uri = URI.create(trimmed);
+            if (uri.getHost() == null) return trimmed;
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            if (host.startsWith("www.")) host = host.substring(4);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1 || port == 80 || port == 443;
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            if (path.endsWith("/")) path = path.substring(0, path.length() - 1);
+            String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+            return host + (defaultPort ? "" : ":" + port) + path + query;
+        } catch (IllegalArgumentException e) {
+            return trimmed;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.devspark.feed;
+
+/**
+ * Result of subscribing to or unsubscribing from a feed. {@code feedAdded}
+ * means the subscription registered the feed, so it still has to be fetched;
+ * {@code feedRemoved} means its last subscriber left and it is no longer
+ * fetched.
+ */
+public record SubscriptionChange(
+    String source,
+    String url,
+    boolean feedAdded,
+    boolean feedRemoved
+) {}
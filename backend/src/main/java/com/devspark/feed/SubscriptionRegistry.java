@@ -0,0 +1,162 @@
+package com.devspark.feed;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Which feeds exist and who reads them. Each feed URL, compared by
+ * {@link FeedUrls#normalize}, is registered once under one source name
+ * however many users subscribe to it, so it is fetched and stored once; a
+ * user only holds a set of source names. A feed stays registered while
+ * anyone subscribes to it, built-in feeds always do, and users start out
+ * subscribed to the built-in feeds.
+ *
+ * Requests without a signed-in user subscribe as {@link #SHARED}, which also
+ * holds the sources added before subscriptions existed.
+ */
+@Component
+public class SubscriptionRegistry {
+
+    /** Subscriber for requests without a user. */
+    public static final String SHARED = "shared";
+
+    /** Told about every subscription change, e.g. to persist it. */
+    public interface ChangeListener {
+        void changed(String user, String source, boolean subscribed);
+    }
+
+    private final Map<String, String> urls = new ConcurrentHashMap<>();
+    private final Map<String, String> namesByUrl = new HashMap<>();
+    private final Map<String, Integer> subscriberCounts = new HashMap<>();
+    private final Map<String, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private volatile Set<String> builtIn = Set.of();
+    private volatile ChangeListener changeListener = (user, source, subscribed) -> {};
+
+    public void setChangeListener(ChangeListener listener) {
+        this.changeListener = listener;
+    }
+
+    /**
+     * Registers the built-in and previously added feeds (name -> url) and the
+     * subscriptions recovered for them (user -> source names). Added feeds
+     * nobody subscribes to are given to {@link #SHARED}.
+     */
+    public synchronized void load(Map<String, String> builtInFeeds, Map<String, String> addedFeeds,
+                                  Map<String, Set<String>> recovered) {
+        builtInFeeds.forEach(this::register);
+        addedFeeds.forEach(this::register);
+        builtIn = Set.copyOf(builtInFeeds.keySet());
+        recovered.forEach((user, sources) -> {
+            Set<String> set = ConcurrentHashMap.newKeySet();
+            for (String source : sources) {
+                if (urls.containsKey(source) && set.add(source)) subscriberCounts.merge(source, 1, Integer::sum);
+            }
+            subscriptions.put(user, set);
+        });
+        for (String source : addedFeeds.keySet()) {
+            if (!subscriberCounts.containsKey(source)) add(SHARED, source);
+        }
+    }
+
+    /**
+     * Subscribes {@code user} to the feed at {@code url}, registering it
+     * under {@code preferredName}, or {@code preferredName (2)}, {@code (3)}...
+     * if that name is taken, unless it is registered already.
+     */
+    public synchronized SubscriptionChange subscribe(String user, String preferredName, String url) {
+        String key = FeedUrls.normalize(url);
+        String source = namesByUrl.get(key);
+        boolean added = source == null;
+        if (added) {
+            source = preferredName;
+            for (int n = 2; urls.containsKey(source); n++) source = preferredName + " (" + n + ")";
+            register(source, url);
+        }
+        add(user, source);
+        return new SubscriptionChange(source, urls.get(source), added, false);
+    }
+
+    /**
+     * Unsubscribes {@code user} from {@code source} and drops the feed if that
+     * was its last subscriber. Returns null if the user was not subscribed.
+     */
+    public synchronized SubscriptionChange unsubscribe(String user, String source) {
+        if (!materialize(user).remove(source)) return null;
+        changeListener.changed(user, source, false);
+        String url = urls.get(source);
+        int left = subscriberCounts.merge(source, -1, Integer::sum);
+        if (left > 0 || builtIn.contains(source)) return new SubscriptionChange(source, url, false, false);
+        subscriberCounts.remove(source);
+        urls.remove(source);
+        namesByUrl.remove(FeedUrls.normalize(url));
+        return new SubscriptionChange(source, url, false, true);
+    }
+
+    /** Source name the feed at {@code url} is registered under, or null. */
+    public synchronized String sourceFor(String url) {
+        return namesByUrl.get(FeedUrls.normalize(url));
+    }
+
+    /** Every registered feed (name -> url), each once. */
+    public Map<String, String> feeds() {
+        return Collections.unmodifiableMap(urls);
+    }
+
+    public boolean isBuiltIn(String source) {
+        return builtIn.contains(source);
+    }
+
+    /** Live, read-only view of the sources {@code user} reads. */
+    public Set<String> sourcesOf(String user) {
+        Set<String> sources = subscriptions.get(user);
+        return sources != null ? Collections.unmodifiableSet(sources) : builtIn;
+    }
+
+    /** The feeds {@code user} subscribes to (name -> url). */
+    public Map<String, String> feedsOf(String user) {
+        Map<String, String> feeds = new LinkedHashMap<>();
+        for (String source : sourcesOf(user)) {
+            String url = urls.get(source);
+            if (url != null) feeds.put(source, url);
+        }
+        return feeds;
+    }
+
+    public synchronized int subscriberCount(String source) {
+        return subscriberCounts.getOrDefault(source, 0);
+    }
+
+    private void register(String source, String url) {
+        urls.put(source, url);
+        namesByUrl.put(FeedUrls.normalize(url), source);
+    }
+
+    private void add(String user, String source) {
+        if (!materialize(user).add(source)) return;
+        subscriberCounts.merge(source, 1, Integer::sum);
+        changeListener.changed(user, source, true);
+    }
+
+    /**
+     * The user's own subscription set, created from the built-in feeds on the
+     * user's first change so that what they were shown until then is kept.
+     */
+    private Set<String> materialize(String user) {
+        Set<String> sources = subscriptions.get(user);
+        if (sources != null) return sources;
+        sources = ConcurrentHashMap.newKeySet();
+        subscriptions.put(user, sources);
+        for (String source : builtIn) {
+            sources.add(source);
+            subscriberCounts.merge(source, 1, Integer::sum);
+            changeListener.changed(user, source, true);
+        }
+        return sources;
+    }
+}
@@ -1,5 +1,18 @@
 package com.devspark.ingestion;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -15,6 +28,26 @@ public class ArticleContentFetcher {
 
     private static final int MIN_CONTENT_LENGTH = 200;
     private static final int FETCH_TIMEOUT_MS = 10000;
+    /** Same cap as Jsoup's own connections; longer pages are parsed truncated. */
+    private static final int MAX_BODY_BYTES = 2 * 1024 * 1024;
+    private static final Pattern CHARSET = Pattern.compile("charset=\"?([^\";\\s]+)", Pattern.CASE_INSENSITIVE);
+
+    private final IngestionMetrics metrics;
+    private final OutboundFetcher outbound;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public ArticleContentFetcher(IngestionMetrics metrics, OutboundFetcher outbound) {
+        this.metrics = metrics;
+        this.outbound = outbound;
+    }
+
+    public ArticleContentFetcher(IngestionMetrics metrics) {
+        this(metrics, new OutboundFetcher());
+    }
+
+    public ArticleContentFetcher() {
+        this(new IngestionMetrics());
+    }
 
     /**
      * Returns true if the RSS-provided content looks incomplete and should be
@@ -24,78 +57,150 @@ public class ArticleContentFetcher {
         if (rssContent == null || rssContent.isBlank()) return true;
 
         // Strip HTML tags, then check plain text length
-        String text = Jsoup.parse(rssContent).text();
+        String text = ArticleHtml.parse(rssContent).text();
         return text.length() < MIN_CONTENT_LENGTH;
     }
 
+    /** Same decision as {@link #needsFullContent(String)}, from an analysis the caller already has. */
+    boolean needsFullContent(ArticleHtml.Analysis analysis) {
+        return analysis.textLength() < MIN_CONTENT_LENGTH;
+    }
+
     /**
      * Fetches the original article page and extracts the main content as
      * sanitised HTML.  Returns null if extraction fails.
      */
     public String fetchFullContent(String articleUrl) {
         try {
-            Document doc = Jsoup.connect(articleUrl)
-                    .userAgent("DevSpark/1.0 RSS Reader")
-                    .timeout(FETCH_TIMEOUT_MS)
-                    .followRedirects(true)
-                    .get();
-
-            // Remove non-content noise
-            doc.select("script, style, nav, footer, header, aside, .ad, .ads, "
-                    + ".advertisement, .social-share, .comments, .related, "
-                    + ".sidebar, .menu, .navigation, .cookie, .popup, "
-                    + "#comments, #sidebar, #footer, #header, #nav").remove();
-
-            // Strategy 1: look for <article> element
-            Element article = doc.selectFirst("article");
-            if (article != null && article.text().length() >= MIN_CONTENT_LENGTH) {
-                return cleanHtml(article);
-            }
+            return extractFullContent(articleUrl);
+        } catch (Exception e) {
+            System.err.println("Failed to fetch full content from: " + articleUrl + " - " + e.getMessage());
+            return null;
+        }
+    }
 
-            // Strategy 2: common content selectors
-            String[] selectors = {
-                    "[role=main]",
-                    "main",
-                    ".post-content",
-                    ".article-content",
-                    ".article-body",
-                    ".entry-content",
-                    ".story-body",
-                    ".content-body",
-                    ".post-body",
-                    "#article-body",
-                    ".article__content",
-            };
-            for (String sel : selectors) {
-                Element el = doc.selectFirst(sel);
-                if (el != null && el.text().length() >= MIN_CONTENT_LENGTH) {
-                    return cleanHtml(el);
-                }
-            }
+    /**
+     * Same as {@link #fetchFullContent} but lets network errors through so the
+     * caller can tell a transient failure (worth retrying) from a page with no
+     * extractable content (null).
+     */
+    public String extractFullContent(String articleUrl) throws IOException {
+        long start = System.nanoTime();
+        String content;
+        try {
+            content = extractContent(fetchPage(articleUrl));
+        } catch (IOException | RuntimeException e) {
+            metrics.recordContentFetch(System.nanoTime() - start, true, false);
+            throw e;
+        }
+        metrics.recordContentFetch(System.nanoTime() - start, false, content != null);
+        return content;
+    }
 
-            // Strategy 3: largest <div> by text length
-            Element best = null;
-            int bestLen = 0;
-            for (Element div : doc.select("div")) {
-                int len = div.text().length();
-                // Also check it has multiple paragraphs
-                int pCount = div.select("p").size();
-                if (len > bestLen && pCount >= 2) {
-                    bestLen = len;
-                    best = div;
-                }
+    /**
+     * Downloads and parses an article page. Non-200 answers and non-HTML
+     * bodies are errors, as they were with Jsoup's own connections. Pages of
+     * one host share a circuit, so a publisher that blocks us is left alone
+     * for a while.
+     */
+    private Document fetchPage(String articleUrl) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(articleUrl))
+            .header("User-Agent", "DevSpark/1.0 RSS Reader")
+            .timeout(Duration.ofMillis(FETCH_TIMEOUT_MS))
+            .GET()
+            .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = outbound.send("page:" + FeedRefreshEngine.hostOf(articleUrl), request,
+                HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted fetching " + articleUrl, e);
+        }
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode() + " fetching " + articleUrl);
             }
-            if (best != null && bestLen >= MIN_CONTENT_LENGTH) {
-                return cleanHtml(best);
+            String contentType = response.headers().firstValue("Content-Type").orElse("");
+            String mimeType = contentType.toLowerCase(Locale.ROOT);
+            if (!mimeType.isEmpty() && !mimeType.startsWith("text/") && !mimeType.contains("html")
+                    && !mimeType.contains("xml")) {
+                throw new IOException("Unsupported content type " + contentType + " at " + articleUrl);
             }
+            return Jsoup.parse(new ByteArrayInputStream(body.readNBytes(MAX_BODY_BYTES)),
+                charsetOf(contentType), response.uri().toString());
+        }
+    }
 
-            return null;
-        } catch (Exception e) {
-            System.err.println("Failed to fetch full content from: " + articleUrl + " - " + e.getMessage());
+    /** The charset named in a Content-Type if Java knows it, else null to let Jsoup detect it. */
+    private static String charsetOf(String contentType) {
+        Matcher matcher = CHARSET.matcher(contentType);
+        if (!matcher.find()) return null;
+        try {
+            return Charset.isSupported(matcher.group(1)) ? matcher.group(1) : null;
+        } catch (IllegalCharsetNameException e) {
             return null;
         }
     }
 
+    /**
+     * Picks the main content out of a parsed article page and returns it as
+     * sanitised HTML, or null if nothing looks like article text. Removes
+     * boilerplate elements from {@code doc}.
+     */
+    String extractContent(Document doc) {
+        // Remove non-content noise
+        doc.select("script, style, nav, footer, header, aside, .ad, .ads, "
+                + ".advertisement, .social-share, .comments, .related, "
+                + ".sidebar, .menu, .navigation, .cookie, .popup, "
+                + "#comments, #sidebar, #footer, #header, #nav").remove();
+
+        // Strategy 1: look for <article> element
+        Element article = doc.selectFirst("article");
+        if (article != null && article.text().length() >= MIN_CONTENT_LENGTH) {
+            return cleanHtml(article);
+        }
+
+        // Strategy 2: common content selectors
+        String[] selectors = {
+                "[role=main]",
+                "main",
+                ".post-content",
+                ".article-content",
+                ".article-body",
+                ".entry-content",
+                ".story-body",
+                ".content-body",
+                ".post-body",
+                "#article-body",
+                ".article__content",
+        };
+        for (String sel : selectors) {
+            Element el = doc.selectFirst(sel);
+            if (el != null && el.text().length() >= MIN_CONTENT_LENGTH) {
+                return cleanHtml(el);
+            }
+        }
+
+        // Strategy 3: largest <div> by text length
+        Element best = null;
+        int bestLen = 0;
+        for (Element div : doc.select("div")) {
+            int len = div.text().length();
+            // Also check it has multiple paragraphs
+            int pCount = div.select("p").size();
+            if (len > bestLen && pCount >= 2) {
+                bestLen = len;
+                best = div;
+            }
+        }
+        if (best != null && bestLen >= MIN_CONTENT_LENGTH) {
+            return cleanHtml(best);
+        }
+
+        return null;
+    }
+
     private String cleanHtml(Element element) {
         // Allow a generous set of content tags, strip everything else
         Safelist safelist = Safelist.relaxed()
@@ -0,0 +1,98 @@
+package com.devspark.ingestion;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+
+/** HTML helpers shared by feed parsing and background enrichment. */
+final class ArticleHtml {
+
+    private static final int SUMMARY_LENGTH = 300;
+
+    private static final Pattern IMAGE_SRC = Pattern.compile(
+        "src=\"(https?://[^\"]+(?:\\.(?:jpg|jpeg|png|gif|webp|svg))[^\"]*)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ANY_SRC = Pattern.compile("src=\"(https?://[^\"]+)\"");
+    /** Idle parsers; a {@link Parser} keeps its tree builder between documents but is not thread-safe. */
+    private static final BlockingQueue<Parser> PARSERS = new ArrayBlockingQueue<>(16);
+
+    private static final Analysis EMPTY = new Analysis("", "", null, 0, null);
+
+    private ArticleHtml() {}
+
+    /**
+     * What ingestion needs to know about an item's HTML: its plain text, the
+     * text cut down to a summary, the lead image, the word count and, if the
+     * item has a separate summary, that summary's plain text (otherwise null).
+     */
+    record Analysis(String text, String summary, String imageUrl, int wordCount, String summaryText) {
+        int textLength() {
+            return text.length();
+        }
+    }
+
+    /** Parses {@code html} once; equivalent to calling each single-purpose helper below. */
+    static Analysis analyze(String html) {
+        return analyze(html, null);
+    }
+
+    /**
+     * Like {@link #analyze(String)}, and also takes the text of the item's
+     * separate {@code summaryHtml}, if any. The summary is a document of its
+     * own, so it is parsed on its own.
+     */
+    static Analysis analyze(String html, String summaryHtml) {
+        if (html == null) return EMPTY;
+        String text = parse(html).text();
+        return new Analysis(text, truncate(text), extractImage(html), countWords(text),
+            summaryHtml != null ? parse(summaryHtml).text() : null);
+    }
+
+    static String stripToSummary(String html) {
+        if (html == null) return "";
+        return truncate(parse(html).text());
+    }
+
+    static String extractImage(String html) {
+        if (html == null) return null;
+        Matcher matcher = IMAGE_SRC.matcher(html);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        // Fallback: any src
+        matcher = ANY_SRC.matcher(html);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        return null;
+    }
+
+    /** Same document as {@code Jsoup.parse(html)}, on a pooled parser. */
+    static Document parse(String html) {
+        Parser parser = PARSERS.poll();
+        if (parser == null) parser = Parser.htmlParser();
+        try {
+            return parser.parseInput(html, "");
+        } finally {
+            PARSERS.offer(parser);
+        }
+    }
+
+    private static String truncate(String text) {
+        if (text.length() <= SUMMARY_LENGTH) return text;
+        return text.substring(0, SUMMARY_LENGTH - 3) + "...";
+    }
+
+    /** Jsoup's text is whitespace-normalised, so words are the runs between single spaces. */
+    private static int countWords(String text) {
+        if (text.isEmpty()) return 0;
+        int words = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') words++;
+        }
+        return words;
+    }
+}
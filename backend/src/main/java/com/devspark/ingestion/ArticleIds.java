@@ -0,0 +1,23 @@
+package com.devspark.ingestion;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/** Short, URL-safe article ids derived from the article link. */
+public final class ArticleIds {
+
+    private ArticleIds() {}
+
+    /** First 96 bits of the link's SHA-256, base64url-encoded (16 characters). */
+    public static String of(String link) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(link.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
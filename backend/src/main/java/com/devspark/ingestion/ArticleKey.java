@@ -0,0 +1,25 @@
+package com.devspark.ingestion;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Sort key for newest-first article indexes: publish time descending, then
+ * link ascending so that articles published in the same instant still have a
+ * total order.
+ */
+public record ArticleKey(Instant publishedDate, String link) implements Comparable<ArticleKey> {
+
+    private static final Comparator<ArticleKey> ORDER = Comparator
+        .comparing(ArticleKey::publishedDate, Comparator.nullsLast(Comparator.<Instant>reverseOrder()))
+        .thenComparing(ArticleKey::link);
+
+    public static ArticleKey of(ArticleRecord record) {
+        return new ArticleKey(record.publishedDate(), record.link());
+    }
+
+    @Override
+    public int compareTo(ArticleKey other) {
+        return ORDER.compare(this, other);
+    }
+}
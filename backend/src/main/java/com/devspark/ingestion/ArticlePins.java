@@ -0,0 +1,73 @@
+package com.devspark.ingestion;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Links of articles a user has chosen to keep, e.g. by starring them or
+ * writing a draft from them. {@link RetentionSweeper} never removes a kept
+ * article. Pins are by link, so they can outlive or predate the article.
+ *
+ * Stars are pins, which are stored with the articles. Drafts hold their
+ * source instead: holds are counted, so that an article stays kept until its
+ * last draft lets go, and are not stored, since the drafts on disk take them
+ * again on startup.
+ */
+@Component
+public class ArticlePins {
+
+    private final Set<String> links = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> holds = new ConcurrentHashMap<>();
+    private volatile BiConsumer<String, Boolean> changeListener = (link, pinned) -> {};
+
+    /** Pins {@code link}; returns false if it already was. */
+    public synchronized boolean pin(String link) {
+        if (!links.add(link)) return false;
+        changeListener.accept(link, true);
+        return true;
+    }
+
+    /** Unpins {@code link}; returns false if it was not pinned. */
+    public synchronized boolean unpin(String link) {
+        if (!links.remove(link)) return false;
+        changeListener.accept(link, false);
+        return true;
+    }
+
+    public boolean isPinned(String link) {
+        return links.contains(link);
+    }
+
+    /** Keeps {@code link} until it is released as often as it was held. */
+    public void hold(String link) {
+        holds.merge(link, 1, Integer::sum);
+    }
+
+    public void release(String link) {
+        holds.computeIfPresent(link, (held, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /** Pinned or held. */
+    public boolean isKept(String link) {
+        return links.contains(link) || holds.containsKey(link);
+    }
+
+    /** Every pinned link, for snapshotting. */
+    public Set<String> pinned() {
+        return Set.copyOf(links);
+    }
+
+    /** Seeds a pin recovered from disk without reporting it as a change. */
+    public void restore(String link, boolean pinned) {
+        if (pinned) links.add(link); else links.remove(link);
+    }
+
+    /** Called with every pin and unpin. */
+    public void setChangeListener(BiConsumer<String, Boolean> listener) {
+        this.changeListener = listener;
+    }
+}
@@ -2,12 +2,66 @@ package com.devspark.ingestion;
 
 import java.time.Instant;
 
+/**
+ * A stored article. {@code signature} is the {@link MinHash} of its title and
+ * summary (null if too short to sign) and {@code clusterId} the id of the
+ * story it was grouped into, which is the {@link ArticleIds} id of the
+ * story's first article; null means the article stands alone.
+ *
+ * The body is kept as a {@link ContentBody}, compressed when large;
+ * {@link #content()} expands it, so list views and indexes should not call it.
+ */
 public record ArticleRecord(
     String title,
     String link,
     String source,
     Instant publishedDate,
     String summary,
-    String content,
-    String imageUrl
-) {}
+    ContentBody body,
+    String imageUrl,
+    EnrichmentStatus enrichment,
+    MinHash signature,
+    String clusterId
+) {
+    public ArticleRecord(String title, String link, String source, Instant publishedDate,
+                         String summary, String content, String imageUrl, EnrichmentStatus enrichment,
+                         MinHash signature, String clusterId) {
+        this(title, link, source, publishedDate, summary, ContentBody.of(content), imageUrl, enrichment,
+            signature, clusterId);
+    }
+
+    public ArticleRecord(String title, String link, String source, Instant publishedDate,
+                         String summary, String content, String imageUrl, EnrichmentStatus enrichment) {
+        this(title, link, source, publishedDate, summary, content, imageUrl, enrichment, null, null);
+    }
+
+    public ArticleRecord(String title, String link, String source, Instant publishedDate,
+                         String summary, String content, String imageUrl) {
+        this(title, link, source, publishedDate, summary, content, imageUrl, EnrichmentStatus.NOT_NEEDED);
+    }
+
+    /** The full body HTML, decompressed (and read back from disk if it was spilled); null if none. */
+    public String content() {
+        return body != null ? body.text() : null;
+    }
+
+    /** True if this article stands for its cluster, i.e. it is the first article of the story. */
+    public boolean isClusterRepresentative() {
+        return clusterId == null || clusterId.equals(ArticleIds.of(link));
+    }
+
+    ArticleRecord withEnrichedContent(String summary, String content, String imageUrl) {
+        return new ArticleRecord(title, link, source, publishedDate, summary, content, imageUrl,
+            EnrichmentStatus.ENRICHED, signature, clusterId);
+    }
+
+    ArticleRecord withSource(String source) {
+        return new ArticleRecord(title, link, source, publishedDate, summary, body, imageUrl,
+            enrichment, signature, clusterId);
+    }
+
+    ArticleRecord withEnrichment(EnrichmentStatus status) {
+        return new ArticleRecord(title, link, source, publishedDate, summary, body, imageUrl,
+            status, signature, clusterId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.devspark.ingestion;
+
+/**
+ * Receives every change made to {@link InMemoryArticleRepository}.
+ *
+ * Callbacks run on the writing thread while the repository's write lock is
+ * held, so they see changes in commit order and must return quickly.
+ */
+public interface ArticleRepositoryListener {
+
+    /** A record with a link not seen before was stored. */
+    void onSaved(ArticleRecord record);
+
+    /** The record stored under a link was replaced. */
+    default void onUpdated(ArticleRecord previous, ArticleRecord current) {
+    }
+
+    /** The record was removed from the store. */
+    default void onRemoved(ArticleRecord record) {
+    }
+}
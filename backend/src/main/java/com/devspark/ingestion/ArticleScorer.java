@@ -0,0 +1,300 @@
+package com.devspark.ingestion;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Signal-to-noise score of each story, and the best {@code topK} stories of
+ * every source and of all sources.
+ *
+ * An article's base score multiplies its source's weight, its depth (grows
+ * with the log of its body length) and its heat (grows with the log of how
+ * many sources carried the same story, per {@link NearDuplicateIndex}). The
+ * score then halves every half-life after publication. Halving every
+ * article alike never changes their order, so articles are ranked by a
+ * key that does not move with time: log2 of the base score plus the
+ * publication time in half-lives. Scores are only computed when an article
+ * is stored or changed, and reading the ranking costs what is read.
+ *
+ * Only the article that stands for a story is ranked; a copy arriving or
+ * leaving re-scores that one. Rankings are bounded: once one has left an
+ * article out, it only goes stale when it is left with fewer than
+ * {@code topK} articles, and is then rebuilt from the repository before it is
+ * next read. Re-scoring a ranked article takes it out and puts it straight
+ * back, which does not.
+ */
+@Component
+public class ArticleScorer implements ArticleRepositoryListener {
+
+    /** Bodies longer than this add no more depth. */
+    static final int MAX_DEPTH_CHARS = 100_000;
+    private static final double LOG2 = Math.log(2);
+
+    private static final Comparator<Scored> BEST_FIRST = Comparator.comparingDouble((Scored scored) -> -scored.key())
+        .thenComparing(Scored::link);
+
+    private final InMemoryArticleRepository repository;
+    private final NearDuplicateIndex nearDuplicates;
+    private final int topK;
+    private final double halfLifeSeconds;
+    private final Map<String, Double> sourceWeights;
+    private final Clock clock;
+    private final Map<String, Ranking> bySource = new HashMap<>();
+    private Ranking global = new Ranking();
+    /** Every article in some ranking; those in {@link #global} are always in their source's too. */
+    private final Map<String, Scored> ranked = new HashMap<>();
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public ArticleScorer(InMemoryArticleRepository repository, NearDuplicateIndex nearDuplicates,
+                         @Value("${devspark.scoring.top-k:200}") int topK,
+                         @Value("${devspark.scoring.half-life-hours:24}") long halfLifeHours,
+                         @Value("${devspark.scoring.source-weights:}") String sourceWeights) {
+        this(repository, nearDuplicates, topK, Duration.ofHours(halfLifeHours), parseWeights(sourceWeights),
+            Clock.systemUTC());
+        repository.addListener(this, true);
+    }
+
+    /** Scorer that is only fed through the listener callbacks. */
+    ArticleScorer(InMemoryArticleRepository repository, NearDuplicateIndex nearDuplicates, int topK,
+                  Duration halfLife, Map<String, Double> sourceWeights, Clock clock) {
+        this.repository = repository;
+        this.nearDuplicates = nearDuplicates;
+        this.topK = topK;
+        this.halfLifeSeconds = halfLife.toSeconds();
+        this.sourceWeights = Map.copyOf(sourceWeights);
+        this.clock = clock;
+    }
+
+    /** An article's place in the rankings; {@code key} is log2 of its score at the epoch. */
+    private record Scored(double key, String link, String source) {}
+
+    /**
+     * The best articles of one source or of all. {@code leftOut} is the best
+     * key that ever did not fit, so a ranking whose last entry is at least that
+     * good holds the true best; one that has left an article out and is short
+     * of {@code topK} entries may be missing it and is stale.
+     */
+    private final class Ranking {
+        final TreeSet<Scored> best = new TreeSet<>(BEST_FIRST);
+        double leftOut = Double.NEGATIVE_INFINITY;
+
+        /** Adds {@code scored} if it is among the best and returns what no longer fits: it, another entry or null. */
+        Scored offer(Scored scored) {
+            // Something left out earlier may be better, so the ranking cannot tell where this goes
+            if (scored.key() < leftOut) return scored;
+            best.add(scored);
+            if (best.size() <= topK) return null;
+            Scored out = best.pollLast();
+            leftOut = Math.max(leftOut, out.key());
+            return out;
+        }
+
+        void remove(Scored scored) {
+            best.remove(scored);
+        }
+
+        /** Notes an entry that is not in this ranking although it may have been good enough. */
+        void exclude(Scored scored) {
+            leftOut = Math.max(leftOut, scored.key());
+        }
+
+        boolean stale() {
+            return leftOut > Double.NEGATIVE_INFINITY && best.size() < topK;
+        }
+    }
+
+    @Override
+    public synchronized void onSaved(ArticleRecord record) {
+        if (nearDuplicates.leadsCluster(record)) {
+            // A copy dated before the story's lead takes over from it
+            for (String link : nearDuplicates.membersOf(record.clusterId())) {
+                if (!link.equals(record.link())) withdraw(link);
+            }
+            offer(record);
+        } else {
+            // One more source carried the story
+            rescore(nearDuplicates.leadOf(record.clusterId()));
+        }
+    }
+
+    @Override
+    public synchronized void onUpdated(ArticleRecord previous, ArticleRecord current) {
+        if (previous.link().equals(current.link())
+            && Objects.equals(previous.source(), current.source())
+            && Objects.equals(previous.publishedDate(), current.publishedDate())
+            && depthChars(previous) == depthChars(current)) return;
+        withdraw(previous.link());
+        if (nearDuplicates.leadsCluster(current)) offer(current);
+    }
+
+    @Override
+    public synchronized void onRemoved(ArticleRecord record) {
+        withdraw(record.link());
+        // The story lost a copy, or another copy now stands for it
+        if (record.clusterId() != null) rescore(nearDuplicates.leadOf(record.clusterId()));
+    }
+
+    /**
+     * Up to {@code limit} of the best stories of {@code sources}, or of every
+     * source if null, best first. At most {@code topK} are ever returned.
+     */
+    public List<ArticleRecord> top(Collection<String> sources, int limit) {
+        List<String> links = new ArrayList<>(Math.min(limit, topK));
+        synchronized (this) {
+            if (sources == null) {
+                Iterator<Scored> it = global().best.iterator();
+                while (links.size() < limit && it.hasNext()) links.add(it.next().link());
+            } else {
+                PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()));
+                for (String source : sources) {
+                    Ranking ranking = ranking(source);
+                    if (ranking == null) continue;
+                    Head head = new Head(ranking.best.iterator());
+                    if (head.advance()) heads.add(head);
+                }
+                while (links.size() < limit && !heads.isEmpty()) {
+                    Head head = heads.poll();
+                    links.add(head.current.link());
+                    if (head.advance()) heads.add(head);
+                }
+            }
+        }
+        List<ArticleRecord> records = new ArrayList<>(links.size());
+        for (String link : links) repository.findByUrl(link).ifPresent(records::add);
+        return records;
+    }
+
+    /** Current score of a stored article: its base score halved for every half-life since publication. */
+    public double score(ArticleRecord record) {
+        return Math.pow(2, key(record) - clock.instant().getEpochSecond() / halfLifeSeconds);
+    }
+
+    /** Log2 of the article's score at the epoch, so that later articles of equal merit rank higher. */
+    double key(ArticleRecord record) {
+        Instant now = clock.instant();
+        Instant published = record.publishedDate();
+        // Undated articles count as new; dates in the future cannot buy a head start
+        if (published == null || published.isAfter(now)) published = now;
+        double weight = sourceWeights.getOrDefault(record.source(), 1.0);
+        double depth = 1 + Math.log1p(Math.min(depthChars(record), MAX_DEPTH_CHARS) / 2000.0) / LOG2;
+        double heat = 1 + Math.log(nearDuplicates.clusterSize(record.clusterId())) / LOG2;
+        return Math.log(weight * depth * heat) / LOG2 + published.getEpochSecond() / halfLifeSeconds;
+    }
+
+    private static int depthChars(ArticleRecord record) {
+        if (record.body() != null) return record.body().length();
+        return record.summary() != null ? record.summary().length() : 0;
+    }
+
+    private void offer(ArticleRecord record) {
+        withdraw(record.link());
+        Scored scored = new Scored(key(record), record.link(), record.source());
+        Scored out = bySource.computeIfAbsent(record.source(), source -> new Ranking()).offer(scored);
+        // What its source leaves out is not in the global ranking either
+        if (out != null) global.exclude(out);
+        if (out == scored) return;
+        ranked.put(scored.link(), scored);
+        if (out != null) {
+            ranked.remove(out.link());
+            global.remove(out);
+        }
+        // Whatever this pushes out of the global ranking is still in its source's
+        global.offer(scored);
+    }
+
+    private void withdraw(String link) {
+        Scored scored = ranked.remove(link);
+        if (scored == null) return;
+        bySource.get(scored.source()).remove(scored);
+        global.remove(scored);
+    }
+
+    private void rescore(String link) {
+        if (link == null) return;
+        withdraw(link);
+        repository.findByUrl(link).ifPresent(this::offer);
+    }
+
+    /** The ranking of one source, rebuilt first if stale; null if none of its articles was scored. */
+    private Ranking ranking(String source) {
+        Ranking ranking = bySource.get(source);
+        if (ranking == null || !ranking.stale()) return ranking;
+        for (Scored scored : ranking.best) {
+            ranked.remove(scored.link());
+            global.remove(scored);
+        }
+        ranking = new Ranking();
+        bySource.put(source, ranking);
+        for (ArticleRecord record : repository.newestFirst(source).values()) {
+            if (nearDuplicates.leadsCluster(record)) ranking.offer(new Scored(key(record), record.link(), source));
+        }
+        for (Scored scored : ranking.best) {
+            ranked.put(scored.link(), scored);
+            global.offer(scored);
+        }
+        return ranking;
+    }
+
+    /** The global ranking, rebuilt from the source rankings first if stale. */
+    private Ranking global() {
+        if (!global.stale()) return global;
+        for (String source : List.copyOf(bySource.keySet())) ranking(source);
+        Ranking rebuilt = new Ranking();
+        for (Ranking ranking : bySource.values()) {
+            for (Scored scored : ranking.best) rebuilt.offer(scored);
+        }
+        global = rebuilt;
+        return global;
+    }
+
+    /** Parses {@code name:weight} pairs separated by commas; a source without a weight has 1. */
+    static Map<String, Double> parseWeights(String spec) {
+        Map<String, Double> weights = new HashMap<>();
+        if (spec == null) return weights;
+        for (String pair : spec.split(",")) {
+            int colon = pair.lastIndexOf(':');
+            if (colon <= 0) continue;
+            try {
+                double weight = Double.parseDouble(pair.substring(colon + 1).trim());
+                if (weight > 0) weights.put(pair.substring(0, colon).trim(), weight);
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring source weight " + pair.trim());
+            }
+        }
+        return weights;
+    }
+
+    /** One ranking's position in a {@link #top} merge. */
+    private static final class Head implements Comparable<Head> {
+        final Iterator<Scored> rest;
+        Scored current;
+
+        Head(Iterator<Scored> rest) {
+            this.rest = rest;
+        }
+
+        boolean advance() {
+            current = rest.hasNext() ? rest.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return BEST_FIRST.compare(current, other.current);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.devspark.ingestion;
+
+import java.time.Instant;
+
+/**
+ * Stops requests to a source after {@code threshold} consecutive failures.
+ * The circuit then stays open for a while, doubling with every reopening up
+ * to {@code maxOpenNanos}, after which one trial request is let through: its
+ * success closes the circuit, its failure opens it again.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int threshold;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int openings;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int threshold, long baseOpenNanos, long maxOpenNanos) {
+        this.threshold = threshold;
+        this.baseOpenNanos = baseOpenNanos;
+        this.maxOpenNanos = maxOpenNanos;
+    }
+
+    /**
+     * True if a request may go out now; every true must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or, if nothing was sent after all,
+     * {@link #release}.
+     */
+    synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case CLOSED -> {
+                return true;
+            }
+            case OPEN -> {
+                if (now - openUntil < 0) return false;
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            }
+            default -> {
+                if (trialInFlight) return false;
+                trialInFlight = true;
+                return true;
+            }
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openings = 0;
+        trialInFlight = false;
+    }
+
+    /** Gives back a permit without an outcome; a trial that was not sent leaves the next request to be one. */
+    synchronized void release() {
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure(long now) {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= threshold) {
+            openings++;
+            long openNanos = Math.min(maxOpenNanos, baseOpenNanos << Math.min(openings - 1, 20));
+            openUntil = now + openNanos;
+            state = State.OPEN;
+        }
+    }
+
+    /** Nanoseconds until {@link #tryAcquire} may let a request through again; a trial in flight gets the base wait. */
+    synchronized long retryInNanos(long now) {
+        return state == State.OPEN ? Math.max(0, openUntil - now) : baseOpenNanos;
+    }
+
+    /** Closed with no failures, as a new breaker starts out. */
+    synchronized boolean isIdle() {
+        return state == State.CLOSED && consecutiveFailures == 0;
+    }
+
+    synchronized CircuitState snapshot(long now) {
+        Instant retryAt = state == State.OPEN ? Instant.now().plusNanos(Math.max(0, openUntil - now)) : null;
+        return new CircuitState(state.name(), consecutiveFailures, retryAt);
+    }
+}
@@ -0,0 +1,13 @@
+package com.devspark.ingestion;
+
+import java.time.Instant;
+
+/**
+ * Circuit breaker state of one source: {@code CLOSED}, {@code OPEN} or
+ * {@code HALF_OPEN}, the failures in a row so far, and while open, when the
+ * next trial request may go out.
+ */
+public record CircuitState(String state, int consecutiveFailures, Instant retryAt) {
+
+    static final CircuitState CLOSED = new CircuitState("CLOSED", 0, null);
+}
@@ -0,0 +1,169 @@
+package com.devspark.ingestion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An article body held compactly: short bodies as the string itself, longer
+ * ones deflated to a byte array, which {@link ContentStore} may later move to
+ * its spill file when article bodies exceed the memory budget. {@link #text()}
+ * inflates (and if needed reads back) on every call, so callers that only
+ * need metadata should not touch it.
+ *
+ * Equality is by text; the hash is computed once, up front.
+ */
+public final class ContentBody {
+
+    /** Below this many chars deflating saves too little to be worth the CPU on every read. */
+    static final int COMPRESS_THRESHOLD = 1024;
+
+    /** Where a spilled body's deflated bytes are; replaced as a whole when compaction moves them. */
+    private record Spilled(ContentSpillFile file, long offset, int length) {}
+
+    private final String inline;
+    private final int utf8Length;
+    private final int hash;
+    private volatile byte[] compressed;
+    private volatile Spilled spilled;
+
+    private ContentBody(String inline, byte[] compressed, int utf8Length, int hash) {
+        this.inline = inline;
+        this.compressed = compressed;
+        this.utf8Length = utf8Length;
+        this.hash = hash;
+    }
+
+    /** The body for {@code text}, or null for null. */
+    public static ContentBody of(String text) {
+        if (text == null) return null;
+        if (text.length() < COMPRESS_THRESHOLD) return new ContentBody(text, null, -1, text.hashCode());
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        return new ContentBody(null, deflate(utf8), utf8.length, text.hashCode());
+    }
+
+    public String text() {
+        if (inline != null) return inline;
+        byte[] bytes = compressed;
+        return new String(inflate(bytes != null ? bytes : spilledBytes(), utf8Length), StandardCharsets.UTF_8);
+    }
+
+    /** Length of the text without expanding it: chars if kept inline, otherwise UTF-8 bytes. */
+    int length() {
+        return inline != null ? inline.length() : utf8Length;
+    }
+
+    /** Heap bytes held for the text: the deflated bytes, or nothing once spilled or if kept inline. */
+    int residentBytes() {
+        byte[] bytes = compressed;
+        return bytes != null ? bytes.length : 0;
+    }
+
+    /** Bytes the text takes wherever it is held: deflated, or two per char if kept inline. */
+    int storedBytes() {
+        if (inline != null) return inline.length() * 2;
+        byte[] bytes = compressed;
+        return bytes != null ? bytes.length : spilled.length();
+    }
+
+    boolean isSpillable() {
+        return inline == null;
+    }
+
+    /**
+     * Moves the deflated bytes to {@code file} and drops them from the heap.
+     * Returns the heap bytes freed. Only {@link ContentStore}'s spill thread calls this.
+     */
+    int spillTo(ContentSpillFile file) throws IOException {
+        byte[] bytes = compressed;
+        if (bytes == null) return 0;
+        long offset = file.append(bytes);
+        spilled = new Spilled(file, offset, bytes.length);
+        // Readers that still see the bytes use them; later readers find the spill position set
+        compressed = null;
+        return bytes.length;
+    }
+
+    /** Deflated bytes on disk; 0 if the body is not spilled. */
+    int spilledLength() {
+        Spilled at = spilled;
+        return compressed == null && at != null ? at.length() : 0;
+    }
+
+    /** The deflated bytes read back from the spill file, wherever compaction has put them by now. */
+    byte[] spilledBytes() {
+        while (true) {
+            Spilled at = spilled;
+            try {
+                return at.file().read(at.offset(), at.length());
+            } catch (ClosedChannelException e) {
+                // Compaction moved the bytes and deleted the file under us; read them from their new place
+                if (spilled == at) throw new UncheckedIOException("Spill file of article body is closed", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read spilled article body", e);
+            }
+        }
+    }
+
+    /** Points the body at a copy of its spilled bytes at {@code offset} in {@code file}. Spill thread only. */
+    void moveSpill(ContentSpillFile file, long offset) {
+        spilled = new Spilled(file, offset, spilled.length());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof ContentBody other && hash == other.hash && text().equals(other.text());
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return inline != null ? inline : "ContentBody[" + utf8Length + " bytes deflated]";
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 3 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int length) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = inflater.inflate(output, read, length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                read += n;
+            }
+            if (read != length) throw new IllegalStateException("Article body inflated to " + read + " of " + length + " bytes");
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt article body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
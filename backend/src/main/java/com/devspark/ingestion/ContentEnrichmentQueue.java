@@ -0,0 +1,167 @@
+package com.devspark.ingestion;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background pipeline that replaces short feed content with the full article
+ * page.
+ *
+ * Articles are stored as {@link EnrichmentStatus#PENDING} straight away and
+ * handed here; a small worker pool fetches pages off a bounded queue, spaces
+ * out requests to the same domain, retries network errors with exponential
+ * backoff and swaps the enriched record into the repository in one step.
+ * A fetch the {@link OutboundFetcher} holds back is not an attempt: the task
+ * comes back once the host or circuit lets requests through again.
+ */
+@Component
+public class ContentEnrichmentQueue {
+
+    private static final long BASE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long IDLE_SWEEP_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final InMemoryArticleRepository repository;
+    private final ArticleContentFetcher contentFetcher;
+    private final int capacity;
+    private final int maxAttempts;
+    private final long domainIntervalNanos;
+    private final DelayQueue<Task> queue = new DelayQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, Long> nextSlotByDomain = new ConcurrentHashMap<>();
+    private final AtomicLong nextIdleSweep = new AtomicLong(System.nanoTime() + IDLE_SWEEP_NANOS);
+    private final ExecutorService workers;
+
+    public ContentEnrichmentQueue(InMemoryArticleRepository repository,
+                                  ArticleContentFetcher contentFetcher,
+                                  @Value("${devspark.enrichment.queue-capacity:1000}") int capacity,
+                                  @Value("${devspark.enrichment.workers:4}") int workerCount,
+                                  @Value("${devspark.enrichment.max-attempts:3}") int maxAttempts,
+                                  @Value("${devspark.enrichment.domain-interval-ms:1000}") long domainIntervalMs) {
+        this.repository = repository;
+        this.contentFetcher = contentFetcher;
+        this.capacity = capacity;
+        this.maxAttempts = maxAttempts;
+        this.domainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(domainIntervalMs);
+        this.workers = Executors.newFixedThreadPool(workerCount, Thread.ofPlatform()
+            .name("content-enrichment-", 0).daemon(true).factory());
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Queues a stored article for enrichment. {@code feedSummary} is the summary
+     * the feed itself provided, or null if the summary should be derived from
+     * the full content. Returns false if the queue is full.
+     */
+    public boolean submit(String link, String feedSummary) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            return false;
+        }
+        queue.add(new Task(link, feedSummary, 1, System.nanoTime(), false));
+        return true;
+    }
+
+    /** Number of articles waiting for, or currently undergoing, enrichment. */
+    public int pending() {
+        return queued.get();
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!task.slotReserved()) {
+                long slot = reserveSlot(FeedRefreshEngine.hostOf(task.link()));
+                if (slot > System.nanoTime()) {
+                    // Politeness: come back when this domain's turn arrives
+                    queue.add(new Task(task.link(), task.feedSummary(), task.attempt(), slot, true));
+                    continue;
+                }
+            }
+            process(task);
+        }
+    }
+
+    /** Claims the next request slot for a domain and returns when it starts. */
+    private long reserveSlot(String domain) {
+        long now = System.nanoTime();
+        long due = nextIdleSweep.get();
+        if (now - due >= 0 && nextIdleSweep.compareAndSet(due, now + IDLE_SWEEP_NANOS)) {
+            // A slot in the past is the same as none
+            nextSlotByDomain.values().removeIf(next -> next - now < 0);
+        }
+        long[] slot = new long[1];
+        nextSlotByDomain.compute(domain, (d, next) -> {
+            slot[0] = next == null || next - now < 0 ? now : next;
+            return slot[0] + domainIntervalNanos;
+        });
+        return slot[0];
+    }
+
+    private void process(Task task) {
+        String link = task.link();
+        try {
+            String fullContent = contentFetcher.extractFullContent(link);
+            if (fullContent != null) {
+                String summary = task.feedSummary() != null
+                    ? task.feedSummary() : ArticleHtml.stripToSummary(fullContent);
+                String imageUrl = ArticleHtml.extractImage(fullContent);
+                repository.update(link, record -> record.withEnrichedContent(summary, fullContent, imageUrl));
+            } else {
+                repository.update(link, record -> record.withEnrichment(EnrichmentStatus.FAILED));
+            }
+        } catch (FetchRejectedException e) {
+            queue.add(new Task(link, task.feedSummary(), task.attempt(), System.nanoTime() + e.retryAfterNanos(), false));
+            return;
+        } catch (IOException e) {
+            if (task.attempt() < maxAttempts) {
+                long backoff = BASE_BACKOFF_NANOS << (task.attempt() - 1);
+                queue.add(new Task(link, task.feedSummary(), task.attempt() + 1, System.nanoTime() + backoff, false));
+                return;
+            }
+            System.err.println("Giving up on full content for: " + link + " - " + e.getMessage());
+            repository.update(link, record -> record.withEnrichment(EnrichmentStatus.FAILED));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to enrich: " + link + " - " + e.getMessage());
+            repository.update(link, record -> record.withEnrichment(EnrichmentStatus.FAILED));
+        }
+        queued.decrementAndGet();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private record Task(String link, String feedSummary, int attempt, long readyAtNanos, boolean slotReserved)
+        implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(readyAtNanos, ((Task) other).readyAtNanos);
+        }
+    }
+}
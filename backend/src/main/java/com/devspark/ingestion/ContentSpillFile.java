@@ -0,0 +1,78 @@
+package com.devspark.ingestion;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file of deflated article bodies evicted from memory. It is only
+ * a cache of what the article log already holds, so it is emptied when opened.
+ * Bodies replaced or removed after being spilled leave dead bytes behind;
+ * {@link ContentStore} compacts by copying the live ones to a fresh file and
+ * deleting this one. Opened on the first append.
+ */
+final class ContentSpillFile {
+
+    private final Path path;
+    private FileChannel channel;
+    private long end;
+
+    ContentSpillFile(Path path) {
+        this.path = path;
+    }
+
+    /** Writes {@code bytes} at the end of the file and returns where they start. */
+    synchronized long append(byte[] bytes) throws IOException {
+        if (channel == null) {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        long offset = end;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            end += channel.write(buffer, end);
+        }
+        return offset;
+    }
+
+    /**
+     * Positional read; safe alongside appends and other reads. Throws
+     * {@link ClosedChannelException} once the file has been deleted.
+     */
+    byte[] read(long offset, int length) throws IOException {
+        FileChannel channel;
+        synchronized (this) {
+            channel = this.channel;
+        }
+        if (channel == null) throw new ClosedChannelException();
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Spilled article body truncated in " + path);
+            }
+        }
+        return buffer.array();
+    }
+
+    synchronized long size() {
+        return end;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /** Closes and deletes the file; reads still in progress fail with {@link ClosedChannelException}. */
+    synchronized void delete() throws IOException {
+        if (channel != null) channel.close();
+        channel = null;
+        end = 0;
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,245 @@
+package com.devspark.ingestion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the deflated article bodies held in memory under
+ * {@code devspark.content.memory-budget-mb}. Past the budget, a background
+ * thread moves the bodies of the oldest articles to a {@link ContentSpillFile}
+ * until usage is back under it; the records themselves, and everything lists
+ * and search need from them, stay in memory.
+ *
+ * Spilled bodies that are replaced or removed leave dead bytes in the file.
+ * Once those outweigh the live ones (and are past a floor), the spill thread
+ * copies the live bodies to a fresh file and deletes the old one.
+ *
+ * Only bodies large enough to be compressed are tracked. The listener
+ * callbacks just account and wake the spill thread. A body is uncounted by
+ * whoever takes it out of {@code resident}, so a body replaced while being
+ * spilled is never subtracted twice.
+ */
+@Component
+public class ContentStore implements ArticleRepositoryListener {
+
+    /** Dead bytes below this are never worth a rewrite of the spill file. */
+    static final long MIN_COMPACT_BYTES = 16L * 1024 * 1024;
+
+    private final InMemoryArticleRepository repository;
+    private final ConcurrentNavigableMap<ArticleKey, ContentBody> resident = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<ArticleKey, ContentBody> spilled = new ConcurrentHashMap<>();
+    private final AtomicLong residentBytes = new AtomicLong();
+    private final AtomicLong spilledBodies = new AtomicLong();
+    private final AtomicLong liveSpilledBytes = new AtomicLong();
+    private final AtomicLong deadSpilledBytes = new AtomicLong();
+    private final long budgetBytes;
+    private final long minCompactBytes;
+    private final Path spillPath;
+    private final Path alternatePath;
+    private volatile ContentSpillFile spillFile;
+    private final Thread spiller;
+    private volatile boolean closed;
+
+    public ContentStore(InMemoryArticleRepository repository,
+                        @Value("${devspark.content.memory-budget-mb:256}") long budgetMb,
+                        @Value("${devspark.content.spill-file:data/content-spill.bin}") String spillFile) {
+        this(repository, budgetMb * 1024 * 1024, Path.of(spillFile));
+    }
+
+    ContentStore(InMemoryArticleRepository repository, long budgetBytes, Path spillFile) {
+        this(repository, budgetBytes, spillFile, MIN_COMPACT_BYTES);
+    }
+
+    ContentStore(InMemoryArticleRepository repository, long budgetBytes, Path spillFile, long minCompactBytes) {
+        this.repository = repository;
+        this.budgetBytes = budgetBytes;
+        this.minCompactBytes = minCompactBytes;
+        this.spillPath = spillFile;
+        this.alternatePath = spillFile.resolveSibling(spillFile.getFileName() + ".1");
+        this.spillFile = new ContentSpillFile(spillFile);
+        try {
+            // Left behind by a compaction cut short; the base file is emptied on first append anyway
+            Files.deleteIfExists(alternatePath);
+        } catch (IOException e) {
+            System.err.println("Could not delete old spill file " + alternatePath + " - " + e.getMessage());
+        }
+        this.spiller = Thread.ofPlatform().daemon().name("content-spill").unstarted(this::run);
+        spiller.start();
+        repository.addListener(this, true);
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        track(ArticleKey.of(record), record.body());
+    }
+
+    @Override
+    public void onUpdated(ArticleRecord previous, ArticleRecord current) {
+        ArticleKey previousKey = ArticleKey.of(previous);
+        ArticleKey currentKey = ArticleKey.of(current);
+        if (previous.body() == current.body()) {
+            if (!previousKey.equals(currentKey)) rekey(previousKey, currentKey, current.body());
+            return;
+        }
+        untrack(previousKey, previous.body());
+        track(currentKey, current.body());
+    }
+
+    @Override
+    public void onRemoved(ArticleRecord record) {
+        untrack(ArticleKey.of(record), record.body());
+    }
+
+    /** Deflated body bytes currently held in memory. */
+    public long residentBytes() {
+        return residentBytes.get();
+    }
+
+    /** Bodies moved to disk since startup. */
+    public long spilledBodies() {
+        return spilledBodies.get();
+    }
+
+    /** Bytes in the spill file that belong to bodies since replaced or removed. */
+    long deadSpilledBytes() {
+        return deadSpilledBytes.get();
+    }
+
+    long spillFileSize() {
+        return spillFile.size();
+    }
+
+    private void track(ArticleKey key, ContentBody body) {
+        if (body == null || !body.isSpillable()) return;
+        int bytes = body.residentBytes();
+        if (bytes == 0) return;
+        ContentBody replaced = resident.put(key, body);
+        residentBytes.addAndGet(bytes);
+        if (replaced != null) residentBytes.addAndGet(-replaced.residentBytes());
+        if (residentBytes.get() > budgetBytes) LockSupport.unpark(spiller);
+    }
+
+    private void untrack(ArticleKey key, ContentBody body) {
+        if (body == null) return;
+        if (resident.remove(key, body)) {
+            residentBytes.addAndGet(-body.residentBytes());
+        } else {
+            forgetSpilled(key, body);
+        }
+    }
+
+    /** Same body under a new key, e.g. after its publish date was corrected. */
+    private void rekey(ArticleKey previous, ArticleKey current, ContentBody body) {
+        if (resident.remove(previous, body)) {
+            resident.put(current, body);
+        } else if (spilled.remove(previous, body)) {
+            spilled.put(current, body);
+        }
+    }
+
+    /** Counts a spilled body's bytes as dead; whoever removes it from {@code spilled} does this, once. */
+    private void forgetSpilled(ArticleKey key, ContentBody body) {
+        if (!spilled.remove(key, body)) return;
+        int length = body.spilledLength();
+        liveSpilledBytes.addAndGet(-length);
+        if (deadSpilledBytes.addAndGet(length) >= compactThreshold()) LockSupport.unpark(spiller);
+    }
+
+    private long compactThreshold() {
+        return Math.max(minCompactBytes, liveSpilledBytes.get());
+    }
+
+    private void run() {
+        while (!closed) {
+            LockSupport.park(this);
+            spillOverBudget();
+            compactIfWasteful();
+        }
+    }
+
+    /** Spills the oldest bodies until usage is under budget. Runs on the spill thread only. */
+    synchronized void spillOverBudget() {
+        while (!closed && residentBytes.get() > budgetBytes) {
+            Map.Entry<ArticleKey, ContentBody> oldest = resident.pollLastEntry();
+            if (oldest == null) return;
+            ContentBody body = oldest.getValue();
+            residentBytes.addAndGet(-body.residentBytes());
+            try {
+                int length = body.spillTo(spillFile);
+                spilledBodies.incrementAndGet();
+                liveSpilledBytes.addAndGet(length);
+                ArticleKey key = oldest.getKey();
+                spilled.put(key, body);
+                // Replaced or removed while being written out: untrack found it in neither map
+                ArticleRecord current = repository.findByUrl(key.link()).orElse(null);
+                if (current == null || current.body() != body || !ArticleKey.of(current).equals(key)) {
+                    forgetSpilled(key, body);
+                }
+            } catch (IOException e) {
+                // Keep it in memory; the next save over budget tries again
+                System.err.println("Could not spill article content for " + oldest.getKey().link() + " - " + e.getMessage());
+                track(oldest.getKey(), body);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Once dead bytes reach the threshold, copies the live spilled bodies to
+     * the other of two spill paths, points them at their copies and deletes
+     * the old file. If the copy fails the old file stays in use. Runs on the
+     * spill thread only.
+     */
+    synchronized void compactIfWasteful() {
+        long dead = deadSpilledBytes.get();
+        if (closed || dead < compactThreshold()) return;
+        ContentSpillFile old = spillFile;
+        ContentSpillFile next = new ContentSpillFile(old.path().equals(spillPath) ? alternatePath : spillPath);
+        List<ContentBody> moved = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        try {
+            for (ContentBody body : spilled.values()) {
+                offsets.add(next.append(body.spilledBytes()));
+                moved.add(body);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not compact content spill file " + old.path() + " - " + e.getMessage());
+            deleteQuietly(next);
+            return;
+        }
+        for (int i = 0; i < moved.size(); i++) moved.get(i).moveSpill(next, offsets.get(i));
+        spillFile = next;
+        // Bodies removed while copying went along as dead bytes and stay counted
+        deadSpilledBytes.addAndGet(-dead);
+        deleteQuietly(old);
+    }
+
+    private static void deleteQuietly(ContentSpillFile file) {
+        try {
+            file.delete();
+        } catch (IOException e) {
+            System.err.println("Could not delete spill file " + file.path() + " - " + e.getMessage());
+        }
+    }
+
+    /** The spill file stays open: bodies in it may still be read while other beans shut down. */
+    @PreDestroy
+    void shutdown() {
+        closed = true;
+        LockSupport.unpark(spiller);
+    }
+}
@@ -0,0 +1,35 @@
+package com.devspark.ingestion;
+
+/** Whether an article's full content has been fetched from the original page. */
+public enum EnrichmentStatus {
+    /** The feed already carried enough content. */
+    NOT_NEEDED(0),
+    /** Queued for a background full-content fetch. */
+    PENDING(1),
+    ENRICHED(2),
+    /** The page could not be fetched or had no extractable content; the feed content is kept. */
+    FAILED(3);
+
+    /**
+     * Stored in the article log in place of the ordinal, so constants can be
+     * added or reordered without changing what existing logs mean. Never reuse
+     * a code.
+     */
+    private final int code;
+
+    EnrichmentStatus(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    /** The status stored as {@code code}. */
+    public static EnrichmentStatus ofCode(int code) {
+        for (EnrichmentStatus status : values()) {
+            if (status.code == code) return status;
+        }
+        throw new IllegalArgumentException("Unknown enrichment status code " + code);
+    }
+}
@@ -0,0 +1,16 @@
+package com.devspark.ingestion;
+
+/**
+ * One RSS {@code <item>} or Atom {@code <entry>} as read from a feed, before any
+ * enrichment. {@code summary} is the RSS description or Atom summary,
+ * {@code content} is {@code content:encoded} or Atom content, and
+ * {@code date} is the raw publish date (Atom falls back to {@code updated}).
+ */
+record FeedEntry(
+    String title,
+    String link,
+    String guid,
+    String summary,
+    String content,
+    String date
+) {}
@@ -0,0 +1,15 @@
+package com.devspark.ingestion;
+
+import java.util.Set;
+
+/**
+ * What we remember about a feed between fetches: the HTTP validators for a
+ * conditional GET, a hash of the last body we parsed and the GUIDs of the items
+ * it contained.
+ */
+public record FeedFetchState(
+    String etag,
+    String lastModified,
+    String contentHash,
+    Set<String> itemGuids
+) {}
@@ -0,0 +1,172 @@
+package com.devspark.ingestion;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs one refresh cycle over a set of feeds in parallel on virtual threads.
+ *
+ * Concurrency is capped globally and per host, every cycle has a deadline after
+ * which outstanding fetches are cancelled, and a feed whose previous fetch is
+ * still running is skipped rather than fetched twice.
+ */
+@Component
+public class FeedRefreshEngine {
+
+    private final RssFetcher rssFetcher;
+    private final int maxPerHost;
+    private final Duration cycleDeadline;
+    private final Semaphore globalPermits;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile RefreshStats lastStats;
+
+    public FeedRefreshEngine(RssFetcher rssFetcher,
+                             @Value("${devspark.refresh.max-concurrency:32}") int maxConcurrency,
+                             @Value("${devspark.refresh.max-per-host:2}") int maxPerHost,
+                             @Value("${devspark.refresh.cycle-deadline-seconds:240}") long cycleDeadlineSeconds) {
+        this.rssFetcher = rssFetcher;
+        this.maxPerHost = maxPerHost;
+        this.cycleDeadline = Duration.ofSeconds(cycleDeadlineSeconds);
+        this.globalPermits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Fetches every source (name -> url) and blocks until all fetches finish or
+     * the cycle deadline passes.
+     */
+    public RefreshStats refresh(Map<String, String> sources) {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long deadline = start + cycleDeadline.toNanos();
+
+        List<String> urls = new ArrayList<>();
+        List<AtomicBoolean> started = new ArrayList<>();
+        List<Future<FetchOutcome>> futures = new ArrayList<>();
+        int skipped = 0;
+
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            String name = source.getKey();
+            String url = source.getValue();
+            if (!inFlight.add(url)) {
+                skipped++;
+                continue;
+            }
+            AtomicBoolean taskStarted = new AtomicBoolean();
+            urls.add(url);
+            started.add(taskStarted);
+            futures.add(executor.submit(() -> {
+                if (!taskStarted.compareAndSet(false, true)) return FetchOutcome.FAILED;
+                try {
+                    return fetchWithPermits(url, name);
+                } finally {
+                    inFlight.remove(url);
+                }
+            }));
+        }
+
+        int succeeded = 0;
+        int failed = 0;
+        int timedOut = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            Future<FetchOutcome> future = futures.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                if (future.get(remaining, TimeUnit.NANOSECONDS) == FetchOutcome.FAILED) {
+                    failed++;
+                } else {
+                    succeeded++;
+                }
+            } catch (TimeoutException | InterruptedException e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                future.cancel(true);
+                // A task cancelled before it ever ran never reaches its finally block
+                if (started.get(i).compareAndSet(false, true)) inFlight.remove(urls.get(i));
+                timedOut++;
+            } catch (ExecutionException | CancellationException e) {
+                failed++;
+            }
+        }
+
+        RefreshStats stats = new RefreshStats(startedAt, Duration.ofNanos(System.nanoTime() - start),
+            sources.size(), succeeded, failed, timedOut, skipped);
+        lastStats = stats;
+        return stats;
+    }
+
+    /** Stats of the most recently completed cycle, or null before the first one. */
+    public RefreshStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Fetches one source under the same limits as a cycle. Returns null
+     * without fetching if a fetch of the same feed is already running.
+     */
+    public FetchOutcome fetchOne(String name, String url) throws InterruptedException {
+        if (!inFlight.add(url)) return null;
+        try {
+            return fetchWithPermits(url, name);
+        } finally {
+            inFlight.remove(url);
+        }
+    }
+
+    private FetchOutcome fetchWithPermits(String url, String name) throws InterruptedException {
+        return withPermits(url, () -> rssFetcher.fetch(url, name));
+    }
+
+    /**
+     * Runs {@code request} holding a global and a per-host permit, so work
+     * outside the refresh cycle (such as a bulk import) shares its limits.
+     */
+    public <T> T withPermits(String url, java.util.function.Supplier<T> request) throws InterruptedException {
+        // Take the host permit first so feeds queued behind a busy host don't hold global slots
+        Semaphore host = hostPermits.computeIfAbsent(hostOf(url), h -> new Semaphore(maxPerHost));
+        host.acquire();
+        try {
+            globalPermits.acquire();
+            try {
+                return request.get();
+            } finally {
+                globalPermits.release();
+            }
+        } finally {
+            host.release();
+        }
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host != null) return host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException ignored) {}
+        return url;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,201 @@
+package com.devspark.ingestion;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming StAX parser for RSS 2.0 and Atom feeds.
+ *
+ * Items are handed to the caller one at a time as their closing tag is read, so
+ * only the current entry is ever held in memory. Field matching mirrors the old
+ * DOM walk: RSS children are matched by qualified name ({@code content:encoded}),
+ * Atom children by local name, and element text includes all descendant text.
+ */
+final class FeedStreamParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private FeedStreamParser() {}
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Reads every RSS item, or every Atom entry if the feed has no RSS items,
+     * and passes each to {@code sink}.
+     */
+    static void parse(InputStream in, Consumer<FeedEntry> sink) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            int depth = 0;
+            boolean sawItem = false;
+            EntryBuilder entry = null;
+            String field = null;
+            StringBuilder text = new StringBuilder();
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        depth++;
+                        if (entry == null) {
+                            String qName = qualifiedName(reader);
+                            if ("item".equals(qName)) {
+                                sawItem = true;
+                                entry = new EntryBuilder(false, depth);
+                            } else if ("entry".equals(qName) && !sawItem) {
+                                entry = new EntryBuilder(true, depth);
+                            }
+                        } else if (depth == entry.depth + 1) {
+                            field = entry.atom ? reader.getLocalName() : qualifiedName(reader);
+                            text.setLength(0);
+                            if (entry.atom && "link".equals(field)) {
+                                entry.href = attribute(reader, "href");
+                                entry.rel = attribute(reader, "rel");
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        if (field != null) text.append(reader.getText());
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (entry != null) {
+                            if (field != null && depth == entry.depth + 1) {
+                                entry.set(field, text.toString());
+                                field = null;
+                            } else if (depth == entry.depth) {
+                                sink.accept(entry.build());
+                                entry = null;
+                            }
+                        }
+                        depth--;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the RSS channel title or Atom feed title, stopping as soon as it is
+     * read. Falls back to "RSS Feed" / "Atom Feed" for untitled feeds and returns
+     * null if the document is neither.
+     */
+    static String readTitle(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            int depth = 0;
+            int rootDepth = -1;
+            boolean atom = false;
+            boolean inTitle = false;
+            StringBuilder text = new StringBuilder();
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        depth++;
+                        if (rootDepth < 0) {
+                            String qName = qualifiedName(reader);
+                            if ("channel".equals(qName) || "feed".equals(qName)) {
+                                rootDepth = depth;
+                                atom = "feed".equals(qName);
+                            }
+                        } else if (depth == rootDepth + 1) {
+                            String name = atom ? reader.getLocalName() : qualifiedName(reader);
+                            inTitle = "title".equals(name);
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        if (inTitle) text.append(reader.getText());
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (inTitle && depth == rootDepth + 1) return text.toString();
+                        if (depth == rootDepth) return atom ? "Atom Feed" : "RSS Feed";
+                        depth--;
+                    }
+                    default -> {
+                    }
+                }
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String qualifiedName(XMLStreamReader reader) {
+        String prefix = reader.getPrefix();
+        return prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+
+    /** Mutable accumulator for the entry currently being read. */
+    private static final class EntryBuilder {
+        final boolean atom;
+        final int depth;
+        String title;
+        String link;
+        String guid;
+        String summary;
+        String content;
+        String published;
+        String updated;
+        String href;
+        String rel;
+
+        EntryBuilder(boolean atom, int depth) {
+            this.atom = atom;
+            this.depth = depth;
+        }
+
+        void set(String field, String value) {
+            if (atom) {
+                switch (field) {
+                    case "title" -> title = value;
+                    case "link" -> {
+                        if (link == null || "alternate".equals(rel)) {
+                            link = !href.isEmpty() ? href : value;
+                        }
+                    }
+                    case "summary" -> summary = value;
+                    case "content" -> content = value;
+                    case "updated" -> updated = value;
+                    case "published" -> published = value;
+                    case "id" -> guid = value;
+                    default -> {
+                    }
+                }
+            } else {
+                switch (field) {
+                    case "title" -> title = value;
+                    case "link" -> link = value;
+                    case "description" -> summary = value;
+                    case "pubDate" -> published = value;
+                    case "content:encoded" -> content = value;
+                    case "guid" -> guid = value;
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        FeedEntry build() {
+            return new FeedEntry(title, link, guid, summary, content, published != null ? published : updated);
+        }
+    }
+}
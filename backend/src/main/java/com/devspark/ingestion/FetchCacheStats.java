@@ -0,0 +1,13 @@
+package com.devspark.ingestion;
+
+/**
+ * How often {@link RssFetcher} could skip parsing a feed: {@code notModified}
+ * counts 304 responses, {@code unchanged} counts 200 responses whose body hash
+ * matched the previous fetch, and {@code misses} counts bodies that had to be
+ * parsed.
+ */
+public record FetchCacheStats(long notModified, long unchanged, long misses) {
+    public long hits() {
+        return notModified + unchanged;
+    }
+}
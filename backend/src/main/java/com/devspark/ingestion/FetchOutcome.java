@@ -0,0 +1,12 @@
+package com.devspark.ingestion;
+
+/** Result of a single {@link RssFetcher#fetch} call. */
+public enum FetchOutcome {
+    /** The body was parsed and new items were stored. */
+    FETCHED,
+    /** The server answered 304 to our conditional GET. */
+    NOT_MODIFIED,
+    /** The body hashed the same as last time, so parsing was skipped. */
+    UNCHANGED,
+    FAILED
+}
@@ -0,0 +1,24 @@
+package com.devspark.ingestion;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request that {@link OutboundFetcher} holds back:
+ * the source's circuit is open, or the host asked us to wait longer than a
+ * request is allowed to. Nothing was sent, so callers that retry should wait
+ * {@link #retryAfterNanos()} rather than count it as a failed attempt.
+ */
+public class FetchRejectedException extends IOException {
+
+    private final long retryAfterNanos;
+
+    public FetchRejectedException(String message, long retryAfterNanos) {
+        super(message);
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    /** How long until a request could go out again, as far as is known now. */
+    public long retryAfterNanos() {
+        return retryAfterNanos;
+    }
+}
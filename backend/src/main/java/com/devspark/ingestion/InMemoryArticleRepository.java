@@ -1,25 +1,316 @@
 package com.devspark.ingestion;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
+/**
+ * Article store with a URL index, a per-source index and a newest-first index.
+ *
+ * Writers are serialised on a single lock so the indexes never disagree with
+ * each other; readers never lock. Every index is a concurrent map, so range
+ * queries iterate without copying, and {@link #findAll()} hands out an
+ * immutable snapshot that is only rebuilt after a write.
+ *
+ * Stored records of one source share one instance of its name; there are few
+ * sources and many articles. A name is forgotten with the source's last record.
+ */
 @org.springframework.stereotype.Component
 public class InMemoryArticleRepository {
-    private final List<ArticleRecord> records = new ArrayList<>();
+    private final Map<String, Stored> byUrl = new ConcurrentHashMap<>();
+    private final Map<String, String> urlById = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, ArticleRecord> byInsertion = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<ArticleKey, ArticleRecord> byPublished = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentNavigableMap<ArticleKey, ArticleRecord>> bySource = new ConcurrentHashMap<>();
+    /** Written under the write lock only, like the per-source index it follows. */
+    private final Map<String, String> sourceNames = new HashMap<>();
+    private final List<ArticleRepositoryListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+    private final AtomicLong version = new AtomicLong();
+    private long nextSeq;
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
 
+    private record Stored(long seq, ArticleRecord record) {}
+
+    private record Snapshot(long version, List<ArticleRecord> records) {}
+
+    /** Stores a record, replacing any record with the same link. */
     public void save(ArticleRecord record) {
-        records.add(record);
+        synchronized (writeLock) {
+            record = withSharedSource(record);
+            Stored existing = byUrl.get(record.link());
+            if (existing != null) {
+                replace(existing, record);
+            } else {
+                long seq = nextSeq++;
+                byUrl.put(record.link(), new Stored(seq, record));
+                urlById.put(ArticleIds.of(record.link()), record.link());
+                byInsertion.put(seq, record);
+                index(record);
+            }
+            version.incrementAndGet();
+            if (existing != null) {
+                notifyUpdated(existing.record(), record);
+            } else {
+                notifySaved(record);
+            }
+        }
+    }
+
+    /**
+     * Atomically replaces the record stored under {@code url} with the result of
+     * {@code change}. Returns false if no such record exists.
+     */
+    public boolean update(String url, UnaryOperator<ArticleRecord> change) {
+        synchronized (writeLock) {
+            Stored existing = byUrl.get(url);
+            if (existing == null) return false;
+            ArticleRecord updated = withSharedSource(change.apply(existing.record()));
+            replace(existing, updated);
+            version.incrementAndGet();
+            notifyUpdated(existing.record(), updated);
+            return true;
+        }
+    }
+
+    /** Removes the record stored under {@code url}. Returns false if there is none. */
+    public boolean remove(String url) {
+        return remove(url, record -> true);
+    }
+
+    /**
+     * Removes the record stored under {@code url} if it still passes
+     * {@code condition}, which is tested under the write lock. Returns false
+     * if there is no such record or it failed the condition.
+     */
+    public boolean remove(String url, Predicate<ArticleRecord> condition) {
+        synchronized (writeLock) {
+            Stored existing = byUrl.get(url);
+            if (existing == null || !condition.test(existing.record())) return false;
+            ArticleRecord record = existing.record();
+            byUrl.remove(url);
+            urlById.remove(ArticleIds.of(url));
+            byInsertion.remove(existing.seq());
+            unindex(record);
+            version.incrementAndGet();
+            notifyRemoved(record);
+            return true;
+        }
+    }
+
+    /**
+     * Registers a listener for subsequent changes. With {@code replayExisting}
+     * the listener first receives {@code onSaved} for every stored record,
+     * atomically with registration, so it cannot miss or double-count a write.
+     */
+    public void addListener(ArticleRepositoryListener listener, boolean replayExisting) {
+        synchronized (writeLock) {
+            if (replayExisting) {
+                for (ArticleRecord record : byInsertion.values()) listener.onSaved(record);
+            }
+            listeners.add(listener);
+        }
     }
 
     public boolean existsByUrl(String url) {
-        return records.stream().anyMatch(record -> record.link().equals(url));
+        return byUrl.containsKey(url);
+    }
+
+    public Optional<ArticleRecord> findByUrl(String url) {
+        Stored stored = byUrl.get(url);
+        return stored != null ? Optional.of(stored.record()) : Optional.empty();
+    }
+
+    /** Looks a record up by its {@link ArticleIds} id. */
+    public Optional<ArticleRecord> findById(String id) {
+        String url = urlById.get(id);
+        return url != null ? findByUrl(url) : Optional.empty();
     }
 
     public int count() {
-        return records.size();
+        return byUrl.size();
     }
 
+    /** All records in insertion order, as an immutable snapshot. */
     public List<ArticleRecord> findAll() {
-        return List.copyOf(records);
+        Snapshot current = snapshot;
+        long v = version.get();
+        if (current.version() == v) return current.records();
+        List<ArticleRecord> records = List.copyOf(byInsertion.values());
+        snapshot = new Snapshot(v, records);
+        return records;
+    }
+
+    /** Live newest-first view of every record; iteration is weakly consistent and lock-free. */
+    public NavigableMap<ArticleKey, ArticleRecord> newestFirst() {
+        return Collections.unmodifiableNavigableMap(byPublished);
+    }
+
+    /** Live newest-first view of one source's records. */
+    public NavigableMap<ArticleKey, ArticleRecord> newestFirst(String source) {
+        NavigableMap<ArticleKey, ArticleRecord> index = bySource.get(source);
+        return index != null ? Collections.unmodifiableNavigableMap(index) : Collections.emptyNavigableMap();
+    }
+
+    /**
+     * Up to {@code limit} records newest-first, starting strictly after
+     * {@code after} (or from the newest if null), optionally restricted to one
+     * source. Costs O(log n + limit).
+     */
+    public List<ArticleRecord> findPage(String source, ArticleKey after, int limit) {
+        return findPage(source, after, limit, record -> true);
+    }
+
+    /** As {@link #findPage(String, ArticleKey, int)}, skipping records that fail {@code filter}. */
+    public List<ArticleRecord> findPage(String source, ArticleKey after, int limit, Predicate<ArticleRecord> filter) {
+        NavigableMap<ArticleKey, ArticleRecord> index = source != null ? newestFirst(source) : byPublished;
+        if (after != null) index = index.tailMap(after, false);
+        List<ArticleRecord> page = new ArrayList<>(Math.min(limit, 256));
+        for (ArticleRecord record : index.values()) {
+            if (page.size() >= limit) break;
+            if (filter.test(record)) page.add(record);
+        }
+        return page;
+    }
+
+    /**
+     * As {@link #findPage(String, ArticleKey, int, Predicate)} over several
+     * sources at once, merging their own indexes newest-first as it goes. Costs
+     * O(k log k + limit log k) for k sources, however many records the other
+     * sources hold.
+     */
+    public List<ArticleRecord> findPageOfSources(Collection<String> sources, ArticleKey after, int limit,
+                                                 Predicate<ArticleRecord> filter) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()));
+        for (String source : sources) {
+            NavigableMap<ArticleKey, ArticleRecord> index = bySource.get(source);
+            if (index == null) continue;
+            Head head = new Head((after != null ? index.tailMap(after, false) : index).entrySet().iterator());
+            if (head.advance()) heads.add(head);
+        }
+        List<ArticleRecord> page = new ArrayList<>(Math.min(limit, 256));
+        while (page.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            if (filter.test(head.current.getValue())) page.add(head.current.getValue());
+            if (head.advance()) heads.add(head);
+        }
+        return page;
+    }
+
+    /** One source's position in a {@link #findPageOfSources} merge. */
+    private static final class Head implements Comparable<Head> {
+        final Iterator<Map.Entry<ArticleKey, ArticleRecord>> rest;
+        Map.Entry<ArticleKey, ArticleRecord> current;
+
+        Head(Iterator<Map.Entry<ArticleKey, ArticleRecord>> rest) {
+            this.rest = rest;
+        }
+
+        boolean advance() {
+            current = rest.hasNext() ? rest.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return current.getKey().compareTo(other.current.getKey());
+        }
+    }
+
+    /** Names of all sources that have at least one stored record. */
+    public Collection<String> sources() {
+        return Collections.unmodifiableSet(bySource.keySet());
+    }
+
+    /** Incremented on every write; lets callers cache anything derived from the store. */
+    public long version() {
+        return version.get();
+    }
+
+    private void replace(Stored existing, ArticleRecord updated) {
+        unindex(existing.record());
+        if (!existing.record().link().equals(updated.link())) {
+            byUrl.remove(existing.record().link());
+            urlById.remove(ArticleIds.of(existing.record().link()));
+            urlById.put(ArticleIds.of(updated.link()), updated.link());
+        }
+        byUrl.put(updated.link(), new Stored(existing.seq(), updated));
+        byInsertion.put(existing.seq(), updated);
+        index(updated);
+    }
+
+    private ArticleRecord withSharedSource(ArticleRecord record) {
+        String name = record.source() != null ? sourceNames.get(record.source()) : null;
+        return name == null || name == record.source() ? record : record.withSource(name);
+    }
+
+    private void index(ArticleRecord record) {
+        if (record.source() != null) sourceNames.putIfAbsent(record.source(), record.source());
+        ArticleKey key = ArticleKey.of(record);
+        byPublished.put(key, record);
+        bySource.computeIfAbsent(sourceOf(record), s -> new ConcurrentSkipListMap<>()).put(key, record);
+    }
+
+    private void unindex(ArticleRecord record) {
+        ArticleKey key = ArticleKey.of(record);
+        byPublished.remove(key);
+        String source = sourceOf(record);
+        NavigableMap<ArticleKey, ArticleRecord> index = bySource.get(source);
+        if (index != null) {
+            index.remove(key);
+            // Only writers touch the index, and they hold the lock, so it cannot refill meanwhile
+            if (index.isEmpty()) {
+                bySource.remove(source);
+                sourceNames.remove(source);
+            }
+        }
+    }
+
+    private void notifySaved(ArticleRecord record) {
+        for (ArticleRepositoryListener listener : listeners) {
+            try {
+                listener.onSaved(record);
+            } catch (RuntimeException e) {
+                System.err.println("Article listener failed for " + record.link() + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private void notifyUpdated(ArticleRecord previous, ArticleRecord current) {
+        for (ArticleRepositoryListener listener : listeners) {
+            try {
+                listener.onUpdated(previous, current);
+            } catch (RuntimeException e) {
+                System.err.println("Article listener failed for " + current.link() + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private void notifyRemoved(ArticleRecord record) {
+        for (ArticleRepositoryListener listener : listeners) {
+            try {
+                listener.onRemoved(record);
+            } catch (RuntimeException e) {
+                System.err.println("Article listener failed for " + record.link() + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private static String sourceOf(ArticleRecord record) {
+        return record.source() != null ? record.source() : "";
     }
 }
@@ -0,0 +1,243 @@
+package com.devspark.ingestion;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters and latency histograms for feed fetching, parsing and full-content
+ * scraping, rendered in the Prometheus text format.
+ *
+ * Recording only touches preallocated atomics: once a source has been seen,
+ * none of the {@code record}/{@code item} methods allocate, so they are safe
+ * to call per item on the ingestion path. Rendering allocates freely.
+ */
+@Component
+public class IngestionMetrics {
+
+    /** Histogram bucket upper bounds; latencies above the last one land in +Inf. */
+    private static final long[] BUCKET_BOUNDS_NANOS = {
+        millis(5), millis(10), millis(25), millis(50), millis(100), millis(250),
+        millis(500), millis(1000), millis(2500), millis(5000), millis(10000), millis(30000)
+    };
+
+    private static final int MAX_STATUS = 600;
+
+    private static final int CONTENT_SUCCESS = 0;
+    private static final int CONTENT_EMPTY = 1;
+    private static final int CONTENT_ERROR = 2;
+
+    private final InMemoryArticleRepository repository;
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+    private final Histogram contentFetchLatency = new Histogram();
+    private final AtomicLongArray contentFetches = new AtomicLongArray(3);
+    private final Histogram refreshLatency = new Histogram();
+    private final AtomicLong refreshSucceeded = new AtomicLong();
+    private final AtomicLong refreshFailed = new AtomicLong();
+    private final AtomicLong refreshTimedOut = new AtomicLong();
+    private final AtomicLong refreshSkipped = new AtomicLong();
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public IngestionMetrics(InMemoryArticleRepository repository) {
+        this.repository = repository;
+    }
+
+    /** Metrics without a repository size gauge, for fetchers built outside Spring. */
+    public IngestionMetrics() {
+        this(null);
+    }
+
+    /** Metrics of one source. Only the first call for a name allocates. */
+    public Source source(String name) {
+        Source source = sources.get(name);
+        return source != null ? source : sources.computeIfAbsent(name, key -> new Source());
+    }
+
+    /**
+     * Drops the metrics of a source that is no longer fetched, so neither the
+     * map nor the exported label values grow with every feed ever added.
+     */
+    public void forgetSource(String name) {
+        sources.remove(name);
+    }
+
+    /** A full-content fetch that returned content, found none, or failed. */
+    public void recordContentFetch(long nanos, boolean failed, boolean found) {
+        contentFetchLatency.record(nanos);
+        contentFetches.incrementAndGet(failed ? CONTENT_ERROR : found ? CONTENT_SUCCESS : CONTENT_EMPTY);
+    }
+
+    public void recordRefresh(RefreshStats stats) {
+        refreshLatency.record(stats.elapsed().toNanos());
+        refreshSucceeded.addAndGet(stats.succeeded());
+        refreshFailed.addAndGet(stats.failed());
+        refreshTimedOut.addAndGet(stats.timedOut());
+        refreshSkipped.addAndGet(stats.skipped());
+    }
+
+    /** Everything recorded so far, in the Prometheus text exposition format (version 0.0.4). */
+    public String toPrometheusText() {
+        Map<String, Source> bySource = new TreeMap<>(sources);
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "devspark_feed_fetch_duration_seconds", "histogram", "Time to download a feed, by source.");
+        bySource.forEach((name, source) -> source.fetchLatency.write(out, "devspark_feed_fetch_duration_seconds", label("source", name)));
+
+        header(out, "devspark_feed_fetch_responses_total", "counter", "Feed responses by source and HTTP status.");
+        bySource.forEach((name, source) -> {
+            for (int status = 0; status < MAX_STATUS; status++) {
+                long count = source.statuses.get(status);
+                if (count > 0) sample(out, "devspark_feed_fetch_responses_total",
+                    label("source", name) + "," + label("code", Integer.toString(status)), count);
+            }
+        });
+
+        counter(out, bySource, "devspark_feed_fetch_errors_total", "Feed fetches that failed without a response.", s -> s.fetchErrors);
+        counter(out, bySource, "devspark_feed_bytes_read_total", "Feed body bytes downloaded.", s -> s.bytesRead);
+
+        header(out, "devspark_feed_parse_duration_seconds", "histogram", "Time to parse and store a feed body, by source.");
+        bySource.forEach((name, source) -> source.parseLatency.write(out, "devspark_feed_parse_duration_seconds", label("source", name)));
+
+        counter(out, bySource, "devspark_feed_items_seen_total", "Feed items parsed.", s -> s.itemsSeen);
+        counter(out, bySource, "devspark_feed_items_new_total", "Feed items stored as new articles.", s -> s.itemsNew);
+        counter(out, bySource, "devspark_feed_items_duplicate_total", "Feed items skipped as already stored.", s -> s.itemsDuplicate);
+
+        header(out, "devspark_content_fetch_duration_seconds", "histogram", "Time to fetch and extract a full article page.");
+        contentFetchLatency.write(out, "devspark_content_fetch_duration_seconds", "");
+
+        header(out, "devspark_content_fetch_total", "counter", "Full-content fetches by result.");
+        sample(out, "devspark_content_fetch_total", label("result", "success"), contentFetches.get(CONTENT_SUCCESS));
+        sample(out, "devspark_content_fetch_total", label("result", "empty"), contentFetches.get(CONTENT_EMPTY));
+        sample(out, "devspark_content_fetch_total", label("result", "error"), contentFetches.get(CONTENT_ERROR));
+
+        header(out, "devspark_refresh_duration_seconds", "histogram", "Duration of a full refresh cycle.");
+        refreshLatency.write(out, "devspark_refresh_duration_seconds", "");
+
+        header(out, "devspark_refresh_feeds_total", "counter", "Feeds handled by refresh cycles, by outcome.");
+        sample(out, "devspark_refresh_feeds_total", label("outcome", "succeeded"), refreshSucceeded.get());
+        sample(out, "devspark_refresh_feeds_total", label("outcome", "failed"), refreshFailed.get());
+        sample(out, "devspark_refresh_feeds_total", label("outcome", "timed_out"), refreshTimedOut.get());
+        sample(out, "devspark_refresh_feeds_total", label("outcome", "skipped"), refreshSkipped.get());
+
+        if (repository != null) {
+            header(out, "devspark_repository_articles", "gauge", "Articles currently stored.");
+            sample(out, "devspark_repository_articles", "", repository.count());
+        }
+        return out.toString();
+    }
+
+    /** Per-source counters; obtained once per fetch through {@link #source}. */
+    public static final class Source {
+        private final Histogram fetchLatency = new Histogram();
+        private final Histogram parseLatency = new Histogram();
+        private final AtomicLongArray statuses = new AtomicLongArray(MAX_STATUS);
+        private final AtomicLong fetchErrors = new AtomicLong();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong itemsSeen = new AtomicLong();
+        private final AtomicLong itemsNew = new AtomicLong();
+        private final AtomicLong itemsDuplicate = new AtomicLong();
+
+        private Source() {}
+
+        /** A fetch that got an HTTP response with {@code bytes} of body. */
+        public void recordFetch(int status, long nanos, long bytes) {
+            fetchLatency.record(nanos);
+            if (status >= 0 && status < MAX_STATUS) statuses.incrementAndGet(status);
+            bytesRead.addAndGet(bytes);
+        }
+
+        /** A fetch that ended without a response: DNS, connect, TLS or timeout. */
+        public void recordFetchError(long nanos) {
+            fetchLatency.record(nanos);
+            fetchErrors.incrementAndGet();
+        }
+
+        public void recordParse(long nanos) {
+            parseLatency.record(nanos);
+        }
+
+        public void itemSeen() {
+            itemsSeen.incrementAndGet();
+        }
+
+        public void itemNew() {
+            itemsNew.incrementAndGet();
+        }
+
+        public void itemDuplicate() {
+            itemsDuplicate.incrementAndGet();
+        }
+    }
+
+    /** Fixed-bucket latency histogram; buckets are stored non-cumulative and summed when rendered. */
+    static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_NANOS.length + 1);
+        private final AtomicLong sumNanos = new AtomicLong();
+
+        void record(long nanos) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) bucket++;
+            buckets.incrementAndGet(bucket);
+            sumNanos.addAndGet(nanos);
+        }
+
+        void write(StringBuilder out, String name, String labels) {
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long cumulative = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+                cumulative += buckets.get(i);
+                sample(out, name + "_bucket", prefix + label("le", seconds(BUCKET_BOUNDS_NANOS[i])), cumulative);
+            }
+            cumulative += buckets.get(BUCKET_BOUNDS_NANOS.length);
+            sample(out, name + "_bucket", prefix + label("le", "+Inf"), cumulative);
+            out.append(name).append("_sum");
+            if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+            out.append(' ').append(seconds(sumNanos.get())).append('\n');
+            sample(out, name + "_count", labels, cumulative);
+        }
+    }
+
+    private static void counter(StringBuilder out, Map<String, Source> bySource, String name, String help,
+                                java.util.function.Function<Source, AtomicLong> value) {
+        header(out, name, "counter", help);
+        bySource.forEach((source, metrics) -> sample(out, name, label("source", source), value.apply(metrics).get()));
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String label(String name, String value) {
+        StringBuilder escaped = new StringBuilder(name.length() + value.length() + 3).append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '"' -> escaped.append("\\\"");
+                case '\n' -> escaped.append("\\n");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
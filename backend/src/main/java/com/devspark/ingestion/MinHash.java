@@ -0,0 +1,120 @@
+package com.devspark.ingestion;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * MinHash signature of an article's title and summary.
+ *
+ * Each of the {@value #SIZE} slots keeps the smallest hash of any term under
+ * its own hash function. Two signatures agree on a slot with probability equal
+ * to the Jaccard similarity of the two term sets, so the fraction of agreeing
+ * slots estimates how much wording two articles share. Immutable.
+ */
+public final class MinHash {
+
+    public static final int SIZE = 32;
+
+    /** Texts with fewer distinct terms than this are not signed: too little signal. */
+    static final int MIN_TERMS = 5;
+
+    /** Function words carry no story signal but make unrelated English texts look alike. */
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "in", "is", "it",
+        "its", "new", "of", "on", "or", "that", "the", "their", "this", "to", "today", "was", "were",
+        "will", "with");
+
+    private static final long[] SEEDS = new long[SIZE];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIZE; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final int[] slots;
+
+    private MinHash(int[] slots) {
+        this.slots = slots;
+    }
+
+    /** Signature of the given text, or null if there is too little of it. */
+    public static MinHash of(String title, String text) {
+        Set<String> terms = new HashSet<>();
+        Consumer<String> collect = term -> {
+            if (!STOP_WORDS.contains(term)) terms.add(term);
+        };
+        Tokenizer.tokenize(title, collect);
+        Tokenizer.tokenize(text, collect);
+        if (terms.size() < MIN_TERMS) return null;
+
+        int[] slots = new int[SIZE];
+        Arrays.fill(slots, Integer.MAX_VALUE);
+        for (String term : terms) {
+            long hash = hash(term);
+            for (int i = 0; i < SIZE; i++) {
+                int h = (int) (mix(hash ^ SEEDS[i]) >>> 33);
+                if (h < slots[i]) slots[i] = h;
+            }
+        }
+        return new MinHash(slots);
+    }
+
+    /** Rebuilds a signature from {@link #slot} values, e.g. when reading it back from disk. */
+    public static MinHash fromSlots(int[] slots) {
+        if (slots.length != SIZE) throw new IllegalArgumentException("Expected " + SIZE + " slots, got " + slots.length);
+        return new MinHash(slots.clone());
+    }
+
+    public int slot(int i) {
+        return slots[i];
+    }
+
+    /** Estimated Jaccard similarity of the two term sets, between 0 and 1. */
+    public double similarity(MinHash other) {
+        int same = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (slots[i] == other.slots[i]) same++;
+        }
+        return (double) same / SIZE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MinHash other && Arrays.equals(slots, other.slots);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(slots);
+    }
+
+    @Override
+    public String toString() {
+        return "MinHash" + Arrays.toString(slots);
+    }
+
+    /** FNV-1a over the UTF-16 chars. */
+    private static long hash(String term) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < term.length(); i++) {
+            h ^= term.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /** 64-bit avalanche finaliser (MurmurHash3 fmix64). */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
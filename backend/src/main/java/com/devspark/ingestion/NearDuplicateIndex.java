@@ -0,0 +1,179 @@
+package com.devspark.ingestion;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups articles that tell the same story into clusters using MinHash with
+ * locality-sensitive hashing.
+ *
+ * A signature's {@value MinHash#SIZE} slots are cut into {@value #BANDS}
+ * bands of {@value #ROWS}, and an article is filed under each band's values.
+ * A new article is only compared with articles that share a whole band with
+ * it, which happens with high probability for similar texts and almost never
+ * for unrelated ones, so the cost does not grow with the number of stored
+ * articles. Candidates count as duplicates when their estimated similarity
+ * reaches {@value #MIN_SIMILARITY} and they were published within
+ * {@link #WINDOW} of each other.
+ *
+ * A cluster is led by its first article. If that article is removed, the
+ * earliest remaining one takes over, so the story still shows up once.
+ */
+@Component
+public class NearDuplicateIndex implements ArticleRepositoryListener {
+
+    static final int ROWS = 2;
+    static final int BANDS = MinHash.SIZE / ROWS;
+    static final double MIN_SIMILARITY = 0.4;
+    static final Duration WINDOW = Duration.ofDays(3);
+
+    /** {@code first} marks the article whose id the cluster is named after. */
+    private record Entry(String link, MinHash signature, String clusterId, long publishedMillis, boolean first) {}
+
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+    private final Map<String, Entry> byLink = new HashMap<>();
+    private final Map<String, Cluster> clusters = new HashMap<>();
+
+    /** Members of one cluster and the article that stands for it. */
+    private static final class Cluster {
+        final List<Entry> members = new ArrayList<>(2);
+        Entry lead;
+    }
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public NearDuplicateIndex(InMemoryArticleRepository repository) {
+        // Clusters are stored on the records, so recovery only refills the buckets
+        repository.addListener(this, true);
+    }
+
+    NearDuplicateIndex() {
+    }
+
+    /**
+     * Returns the cluster a new article with this signature belongs to and
+     * records it: the most similar matching article's cluster, or a new
+     * cluster whose id is the article's own id. A null signature always
+     * stands alone.
+     */
+    public synchronized String assign(String link, MinHash signature, Instant publishedDate) {
+        Entry existing = byLink.get(link);
+        if (existing != null) return existing.clusterId();
+        String own = ArticleIds.of(link);
+        if (signature == null) return own;
+
+        long published = publishedDate != null ? publishedDate.toEpochMilli() : 0;
+        Entry best = null;
+        double bestSimilarity = MIN_SIMILARITY;
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> bucket = buckets.get(bucketKey(band, signature));
+            if (bucket == null) continue;
+            for (Entry candidate : bucket) {
+                if (Math.abs(candidate.publishedMillis() - published) > WINDOW.toMillis()) continue;
+                double similarity = candidate.signature().similarity(signature);
+                if (similarity >= bestSimilarity && (best == null || similarity > bestSimilarity)) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        String clusterId = best != null ? best.clusterId() : own;
+        add(new Entry(link, signature, clusterId, published, best == null));
+        return clusterId;
+    }
+
+    /** Number of articles in a cluster; 1 for an article that stands alone. */
+    public synchronized int clusterSize(String clusterId) {
+        Cluster cluster = clusterId != null ? clusters.get(clusterId) : null;
+        return cluster != null ? cluster.members.size() : 1;
+    }
+
+    /**
+     * True if {@code record} stands for its cluster: it is the cluster's first
+     * article or, with that one removed, the earliest remaining.
+     */
+    public boolean leadsCluster(ArticleRecord record) {
+        if (record.isClusterRepresentative()) return true;
+        synchronized (this) {
+            Cluster cluster = clusters.get(record.clusterId());
+            return cluster != null && cluster.lead.link().equals(record.link());
+        }
+    }
+
+    /** Link of the article that stands for a cluster, or null for an unknown cluster. */
+    public synchronized String leadOf(String clusterId) {
+        Cluster cluster = clusterId != null ? clusters.get(clusterId) : null;
+        return cluster != null && cluster.lead != null ? cluster.lead.link() : null;
+    }
+
+    /** Links of a cluster's articles; empty for an unknown cluster. */
+    public synchronized List<String> membersOf(String clusterId) {
+        Cluster cluster = clusterId != null ? clusters.get(clusterId) : null;
+        if (cluster == null) return List.of();
+        List<String> links = new ArrayList<>(cluster.members.size());
+        for (Entry member : cluster.members) links.add(member.link());
+        return links;
+    }
+
+    @Override
+    public synchronized void onSaved(ArticleRecord record) {
+        if (record.signature() == null || record.clusterId() == null || byLink.containsKey(record.link())) return;
+        add(new Entry(record.link(), record.signature(), record.clusterId(),
+            record.publishedDate() != null ? record.publishedDate().toEpochMilli() : 0,
+            record.isClusterRepresentative()));
+    }
+
+    @Override
+    public synchronized void onRemoved(ArticleRecord record) {
+        Entry entry = byLink.remove(record.link());
+        if (entry == null) return;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bucketKey(band, entry.signature());
+            List<Entry> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) buckets.remove(key);
+        }
+        Cluster cluster = clusters.get(entry.clusterId());
+        cluster.members.remove(entry);
+        if (cluster.members.isEmpty()) {
+            clusters.remove(entry.clusterId());
+        } else if (cluster.lead == entry) {
+            cluster.lead = null;
+            for (Entry member : cluster.members) cluster.lead = earlier(cluster, member);
+        }
+    }
+
+    private void add(Entry entry) {
+        byLink.put(entry.link(), entry);
+        Cluster cluster = clusters.computeIfAbsent(entry.clusterId(), id -> new Cluster());
+        cluster.members.add(entry);
+        cluster.lead = earlier(cluster, entry);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucketKey(band, entry.signature()), k -> new ArrayList<>(2)).add(entry);
+        }
+    }
+
+    /** The better lead of the cluster's current one and {@code candidate}: its first article, else the earliest. */
+    private static Entry earlier(Cluster cluster, Entry candidate) {
+        Entry lead = cluster.lead;
+        if (lead == null) return candidate;
+        if (lead.first()) return lead;
+        if (candidate.first()) return candidate;
+        if (candidate.publishedMillis() != lead.publishedMillis()) {
+            return candidate.publishedMillis() < lead.publishedMillis() ? candidate : lead;
+        }
+        return candidate.link().compareTo(lead.link()) < 0 ? candidate : lead;
+    }
+
+    private static long bucketKey(int band, MinHash signature) {
+        long key = band;
+        for (int row = 0; row < ROWS; row++) {
+            key = key * 0x100000001b3L + signature.slot(band * ROWS + row);
+        }
+        return key;
+    }
+}
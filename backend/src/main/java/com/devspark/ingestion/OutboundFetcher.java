@@ -0,0 +1,239 @@
+package com.devspark.ingestion;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The one way out to the network for feed and article page fetches.
+ *
+ * All requests share one {@link HttpClient}, so connections (and HTTP/2
+ * sessions where the server offers them) are reused across feeds and pages
+ * of the same host. Requests to a host are spaced by a {@link TokenBucket};
+ * a 429 or 503 with {@code Retry-After} holds back every request to that
+ * host until the time given. Network errors and 5xx responses are retried
+ * with exponential backoff and full jitter.
+ *
+ * Requests can name a circuit, normally the source they are for. After
+ * enough failed requests in a row (requests held back before anything was
+ * sent do not count) the circuit opens and requests on it fail
+ * with {@link FetchRejectedException} without touching the network, until a
+ * trial request succeeds.
+ *
+ * Rate limits, cooldowns and breakers are kept per host or circuit only while
+ * they differ from a fresh one, so hosts and sources that are no longer
+ * fetched are forgotten.
+ */
+@Component
+public class OutboundFetcher {
+
+    private static final long IDLE_SWEEP_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient client;
+    private final double hostRatePerSecond;
+    private final int hostBurst;
+    private final int maxRetries;
+    private final long backoffBaseNanos;
+    private final long backoffMaxNanos;
+    private final long maxRetryAfterNanos;
+    private final int breakerThreshold;
+    private final long breakerOpenNanos;
+    private final long breakerMaxOpenNanos;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Long> hostCooldowns = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final AtomicLong nextIdleSweep = new AtomicLong(System.nanoTime() + IDLE_SWEEP_NANOS);
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public OutboundFetcher(@Value("${devspark.outbound.host-requests-per-second:1}") double hostRatePerSecond,
+                           @Value("${devspark.outbound.host-burst:5}") int hostBurst,
+                           @Value("${devspark.outbound.max-retries:2}") int maxRetries,
+                           @Value("${devspark.outbound.backoff-base-ms:500}") long backoffBaseMs,
+                           @Value("${devspark.outbound.backoff-max-ms:8000}") long backoffMaxMs,
+                           @Value("${devspark.outbound.max-retry-after-seconds:30}") long maxRetryAfterSeconds,
+                           @Value("${devspark.outbound.breaker-failures:5}") int breakerThreshold,
+                           @Value("${devspark.outbound.breaker-open-seconds:60}") long breakerOpenSeconds,
+                           @Value("${devspark.outbound.breaker-max-open-minutes:60}") long breakerMaxOpenMinutes) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        this.hostRatePerSecond = hostRatePerSecond;
+        this.hostBurst = hostBurst;
+        this.maxRetries = maxRetries;
+        this.backoffBaseNanos = TimeUnit.MILLISECONDS.toNanos(backoffBaseMs);
+        this.backoffMaxNanos = TimeUnit.MILLISECONDS.toNanos(backoffMaxMs);
+        this.maxRetryAfterNanos = TimeUnit.SECONDS.toNanos(maxRetryAfterSeconds);
+        this.breakerThreshold = breakerThreshold;
+        this.breakerOpenNanos = TimeUnit.SECONDS.toNanos(breakerOpenSeconds);
+        this.breakerMaxOpenNanos = TimeUnit.MINUTES.toNanos(breakerMaxOpenMinutes);
+    }
+
+    /** Fetcher with the default limits, for code built outside Spring. */
+    public OutboundFetcher() {
+        this(1, 5, 2, 500, 8000, 30, 5, 60, 60);
+    }
+
+    /**
+     * Sends {@code request}, waiting for the host's rate limit and retrying
+     * transient failures. {@code circuit} names the breaker the outcome counts
+     * towards, or is null for requests that should not affect any, such as
+     * validating a URL someone typed in. Responses of 400 and above count as
+     * failures but are returned to the caller as they are.
+     */
+    public <T> HttpResponse<T> send(String circuit, HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        String host = FeedRefreshEngine.hostOf(request.uri().toString());
+        long now = System.nanoTime();
+        dropIdle(now);
+        CircuitBreaker breaker = circuit != null ? breakers.computeIfAbsent(circuit, c -> newBreaker()) : null;
+        if (breaker != null && !breaker.tryAcquire(now)) {
+            throw new FetchRejectedException("Circuit open for " + circuit, breaker.retryInNanos(now));
+        }
+        boolean sent = false;
+        boolean succeeded = false;
+        try {
+            for (int attempt = 0; ; attempt++) {
+                awaitHost(host);
+                sent = true;
+                HttpResponse<T> response;
+                try {
+                    response = client.send(request, handler);
+                } catch (IOException e) {
+                    if (attempt >= maxRetries) throw e;
+                    sleepNanos(backoffNanos(attempt));
+                    continue;
+                }
+                int status = response.statusCode();
+                if (status == 429 || status == 503) {
+                    long retryAfter = retryAfterNanos(response.headers());
+                    if (retryAfter > 0) hostCooldowns.merge(host, System.nanoTime() + retryAfter, Math::max);
+                    if (attempt < maxRetries && retryAfter <= maxRetryAfterNanos) {
+                        discard(response);
+                        // With a Retry-After the next awaitHost does the waiting
+                        if (retryAfter <= 0) sleepNanos(backoffNanos(attempt));
+                        continue;
+                    }
+                } else if (status >= 500 && attempt < maxRetries) {
+                    discard(response);
+                    sleepNanos(backoffNanos(attempt));
+                    continue;
+                }
+                succeeded = status < 400;
+                return response;
+            }
+        } finally {
+            // Waiting on the host is not the source's fault; only what was sent counts
+            if (breaker != null) {
+                if (succeeded) breaker.onSuccess();
+                else if (sent) breaker.onFailure(System.nanoTime());
+                else breaker.release();
+            }
+        }
+    }
+
+    /** State of the named circuit; closed if it has never been used. */
+    public CircuitState circuitState(String circuit) {
+        CircuitBreaker breaker = breakers.get(circuit);
+        return breaker != null ? breaker.snapshot(System.nanoTime()) : CircuitState.CLOSED;
+    }
+
+    /**
+     * Waits until {@code host} may be sent another request: out any
+     * Retry-After it gave us, then for a token. Fails rather than wait longer
+     * than {@code max-retry-after-seconds} for the former.
+     */
+    private void awaitHost(String host) throws IOException, InterruptedException {
+        Long until = hostCooldowns.get(host);
+        if (until != null) {
+            long wait = until - System.nanoTime();
+            if (wait <= 0) {
+                hostCooldowns.remove(host, until);
+            } else if (wait > maxRetryAfterNanos) {
+                throw new FetchRejectedException("Backing off from " + host + " for another "
+                    + TimeUnit.NANOSECONDS.toSeconds(wait) + " s", wait);
+            } else {
+                sleepNanos(wait);
+            }
+        }
+        TokenBucket bucket = buckets.computeIfAbsent(host, h -> new TokenBucket(hostRatePerSecond, hostBurst, System.nanoTime()));
+        sleepNanos(bucket.reserve(System.nanoTime()));
+    }
+
+    /**
+     * Drops buckets that have refilled, cooldowns that have run out and
+     * breakers that are closed without failures, at most once a minute. A
+     * request that picked up one of them just before still uses it; at worst a
+     * host gets one burst too many or a circuit misses one failure.
+     */
+    void dropIdle(long now) {
+        long due = nextIdleSweep.get();
+        if (now - due < 0 || !nextIdleSweep.compareAndSet(due, now + IDLE_SWEEP_NANOS)) return;
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        hostCooldowns.values().removeIf(until -> until - now <= 0);
+        breakers.values().removeIf(CircuitBreaker::isIdle);
+    }
+
+    /** Hosts and circuits with state kept for them. */
+    int trackedCount() {
+        return buckets.size() + hostCooldowns.size() + breakers.size();
+    }
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker(breakerThreshold, breakerOpenNanos, breakerMaxOpenNanos);
+    }
+
+    /** Full jitter: anywhere between zero and the exponential delay for this attempt. */
+    private long backoffNanos(int attempt) {
+        long ceiling = Math.min(backoffMaxNanos, backoffBaseNanos << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /** Retry-After as nanoseconds from now, from either delta-seconds or an HTTP date; -1 if absent or invalid. */
+    static long retryAfterNanos(HttpHeaders headers) {
+        String value = headers.firstValue("Retry-After").orElse(null);
+        if (value == null || value.isBlank()) return -1;
+        value = value.trim();
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toNanos());
+            } catch (DateTimeParseException | ArithmeticException e2) {
+                return -1;
+            }
+        }
+    }
+
+    private static void discard(HttpResponse<?> response) throws IOException {
+        if (response.body() instanceof AutoCloseable body) {
+            try {
+                body.close();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+}
@@ -0,0 +1,279 @@
+package com.devspark.ingestion;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls every source on its own interval rather than all of them on one
+ * fixed cycle. The interval follows how often the source publishes, estimated
+ * from the dates of its newest articles, and how much of its feed was new at
+ * recent polls: a feed that comes back mostly new is polled sooner, one that
+ * comes back unchanged later, and one that fails later still. Intervals stay
+ * between the configured minimum and maximum.
+ *
+ * Planned polls wait in a {@link DelayQueue}, so the dispatcher thread sleeps
+ * until the next one is due and wakes for that source only. Fetches go
+ * through {@link FeedRefreshEngine} and share its concurrency limits.
+ */
+@Component
+public class PollScheduler implements ArticleRepositoryListener {
+
+    /** How many of a source's newest publish dates the publish gap is estimated from. */
+    static final int HISTORY = 20;
+
+    /** Weight of the latest poll in the running share of new items. */
+    private static final double RATIO_WEIGHT = 0.3;
+
+    private final FeedRefreshEngine refreshEngine;
+    private final RssFetcher rssFetcher;
+    private final boolean enabled;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration initialInterval;
+    private final Clock clock;
+    private final Map<String, SourceState> sources = new ConcurrentHashMap<>();
+    private final DelayQueue<Due> queue = new DelayQueue<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread dispatcher;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public PollScheduler(FeedRefreshEngine refreshEngine, RssFetcher rssFetcher, InMemoryArticleRepository repository,
+                         @Value("${devspark.poll.enabled:true}") boolean enabled,
+                         @Value("${devspark.poll.min-interval-minutes:2}") long minMinutes,
+                         @Value("${devspark.poll.max-interval-minutes:360}") long maxMinutes,
+                         @Value("${devspark.poll.initial-interval-minutes:5}") long initialMinutes) {
+        this(refreshEngine, rssFetcher, repository, enabled, Duration.ofMinutes(minMinutes),
+            Duration.ofMinutes(maxMinutes), Duration.ofMinutes(initialMinutes), Clock.systemUTC());
+    }
+
+    PollScheduler(FeedRefreshEngine refreshEngine, RssFetcher rssFetcher, InMemoryArticleRepository repository,
+                  boolean enabled, Duration minInterval, Duration maxInterval, Duration initialInterval, Clock clock) {
+        this.refreshEngine = refreshEngine;
+        this.rssFetcher = rssFetcher;
+        this.enabled = enabled;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.initialInterval = clamp(initialInterval, minInterval, maxInterval);
+        this.clock = clock;
+        repository.addListener(this, true);
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        if (record.source() == null) return;
+        sources.computeIfAbsent(record.source(), SourceState::new).published(record.publishedDate(), clock.instant());
+    }
+
+    /**
+     * Starts scheduling {@code name}; its first poll is one initial interval
+     * away, or due at once if the scheduler has not started yet. Tracking a
+     * source again under a new URL replans it.
+     */
+    public void track(String name, String url) {
+        SourceState state = sources.computeIfAbsent(name, SourceState::new);
+        synchronized (state) {
+            if (url.equals(state.url)) return;
+            state.url = url;
+            if (state.interval == null) state.interval = initialInterval;
+        }
+        schedule(state, initialInterval);
+    }
+
+    /** Stops polling {@code name}. */
+    public void untrack(String name) {
+        sources.remove(name);
+    }
+
+    /**
+     * Polls a source now, outside its schedule, and plans its next poll from
+     * the result. Empty if the source is not tracked or a fetch of it is
+     * already running.
+     */
+    public Optional<FetchOutcome> refreshNow(String name) {
+        SourceState state = sources.get(name);
+        if (state == null || state.url == null) return Optional.empty();
+        return Optional.ofNullable(poll(state));
+    }
+
+    /** Schedule of every tracked source, next due first. */
+    public List<SourceSchedule> schedules() {
+        Instant now = clock.instant();
+        List<SourceSchedule> schedules = new ArrayList<>();
+        for (SourceState state : sources.values()) {
+            if (state.url != null) schedules.add(state.schedule(now));
+        }
+        schedules.sort(Comparator.comparing(SourceSchedule::nextPollAt, Comparator.nullsLast(Comparator.naturalOrder())));
+        return schedules;
+    }
+
+    /** Makes every tracked source due and starts dispatching polls. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || dispatcher != null) return;
+        for (SourceState state : sources.values()) {
+            if (state.url != null) schedule(state, Duration.ZERO);
+        }
+        dispatcher = Thread.ofPlatform().name("poll-scheduler").daemon(true).start(this::dispatch);
+    }
+
+    /**
+     * Next interval for a source: half its publish gap if known, otherwise the
+     * previous interval, scaled from 1.5x when nothing was new down to 0.5x
+     * when everything was; doubled after a failure. Clamped to {@code min}
+     * and {@code max}.
+     */
+    static Duration nextInterval(Duration previous, Duration publishGap, double newRatio, FetchOutcome outcome,
+                                 Duration min, Duration max) {
+        Duration next;
+        if (outcome == FetchOutcome.FAILED) {
+            next = previous.multipliedBy(2);
+        } else {
+            Duration base = publishGap != null ? publishGap.dividedBy(2) : previous;
+            next = Duration.ofMillis((long) (base.toMillis() * (1.5 - newRatio)));
+        }
+        return clamp(next, min, max);
+    }
+
+    private static Duration clamp(Duration value, Duration min, Duration max) {
+        if (value.compareTo(min) < 0) return min;
+        return value.compareTo(max) > 0 ? max : value;
+    }
+
+    private void dispatch() {
+        try {
+            while (true) {
+                Due due = queue.take();
+                SourceState state = due.state;
+                // Replanned, manually refreshed or untracked since this poll was queued
+                if (sources.get(state.name) != state || due.generation != state.generation()) continue;
+                executor.submit(() -> poll(state));
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    private FetchOutcome poll(SourceState state) {
+        String url = state.url;
+        if (url == null) return null;
+        FetchOutcome outcome;
+        try {
+            outcome = refreshEngine.fetchOne(state.name, url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (outcome == null) {
+            // Someone else is fetching it; look again soon in case nobody plans the next poll
+            schedule(state, minInterval);
+            return null;
+        }
+        FeedFetchState fetchState = rssFetcher.getFetchState(url);
+        int itemsInFeed = fetchState != null ? fetchState.itemGuids().size() : 0;
+        Duration next = state.polled(outcome, itemsInFeed, clock.instant(), minInterval, maxInterval);
+        if (sources.get(state.name) == state) schedule(state, next);
+        return outcome;
+    }
+
+    private void schedule(SourceState state, Duration delay) {
+        Due due;
+        synchronized (state) {
+            state.nextPollAt = clock.instant().plus(delay);
+            due = new Due(state, ++state.generation, System.nanoTime() + delay.toNanos());
+        }
+        queue.offer(due);
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (dispatcher != null) dispatcher.interrupt();
+        executor.shutdownNow();
+    }
+
+    /** What the scheduler knows about one source; history is kept for sources seen in articles even if untracked. */
+    private static final class SourceState {
+        final String name;
+        volatile String url;
+        private final PriorityQueue<Instant> published = new PriorityQueue<>();
+        private int newItems;
+        private int polls;
+        private double newRatio = 0.5;
+        private Duration interval;
+        private Instant lastPolledAt;
+        private Instant nextPollAt;
+        private long generation;
+
+        SourceState(String name) {
+            this.name = name;
+        }
+
+        /** Records a newly stored article; dates in the future count as now. */
+        synchronized void published(Instant date, Instant now) {
+            published.add(date == null || date.isAfter(now) ? now : date);
+            if (published.size() > HISTORY) published.poll();
+            newItems++;
+        }
+
+        /** Mean time between the newest publish dates and now, or null with fewer than two. */
+        synchronized Duration publishGap(Instant now) {
+            if (published.size() < 2) return null;
+            return Duration.between(published.peek(), now).dividedBy(published.size());
+        }
+
+        /** Takes in the result of a poll and returns the time until the next one. */
+        synchronized Duration polled(FetchOutcome outcome, int itemsInFeed, Instant now, Duration min, Duration max) {
+            lastPolledAt = now;
+            int fresh = newItems;
+            newItems = 0;
+            // The first poll finds everything new, which says nothing about the pace of the feed
+            if (outcome != FetchOutcome.FAILED && polls++ > 0) {
+                double sample = outcome == FetchOutcome.FETCHED && itemsInFeed > 0
+                    ? Math.min(1.0, (double) fresh / itemsInFeed) : 0;
+                newRatio = newRatio * (1 - RATIO_WEIGHT) + sample * RATIO_WEIGHT;
+            }
+            interval = nextInterval(interval, publishGap(now), newRatio, outcome, min, max);
+            return interval;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized SourceSchedule schedule(Instant now) {
+            return new SourceSchedule(name, lastPolledAt, nextPollAt, interval, publishGap(now), newRatio);
+        }
+    }
+
+    /** One planned poll; stale once its source's generation has moved on. */
+    private record Due(SourceState state, long generation, long dueAtNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtNanos, ((Due) other).dueAtNanos);
+        }
+    }
+}
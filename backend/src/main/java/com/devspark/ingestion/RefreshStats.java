@@ -0,0 +1,15 @@
+package com.devspark.ingestion;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/** Outcome of one {@link FeedRefreshEngine#refresh} cycle over every source. */
+public record RefreshStats(
+    Instant startedAt,
+    Duration elapsed,
+    int total,
+    int succeeded,
+    int failed,
+    int timedOut,
+    int skipped
+) {}
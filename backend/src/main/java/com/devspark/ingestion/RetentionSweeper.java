@@ -0,0 +1,220 @@
+package com.devspark.ingestion;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes articles that fall outside the retention limits: older than the
+ * maximum age, beyond the maximum count of their source (oldest first), or,
+ * while the estimated size of all articles is over the total budget, the
+ * oldest of all. Age and count limits can be overridden per source with
+ * {@code devspark.retention.sources}. Articles kept by {@link ArticlePins},
+ * whether starred or the source of a draft, are never removed.
+ *
+ * Sweeps run in the background and walk the repository's live indexes; every
+ * article is removed on its own, so writers wait for one removal at most and
+ * nothing is copied. Counts and sizes are kept up to date as a listener, so a
+ * sweep that has nothing to do costs one index lookup per source.
+ */
+@Component
+public class RetentionSweeper implements ArticleRepositoryListener {
+
+    /** Retention limits of one source; a null age or a non-positive count means no limit. */
+    record Policy(Duration maxAge, int maxCount) {}
+
+    /** Rough fixed cost of a stored article on top of its strings: the record and its index entries. */
+    private static final int RECORD_OVERHEAD = 400;
+
+    private final InMemoryArticleRepository repository;
+    private final ArticlePins pins;
+    private final Policy defaults;
+    private final Map<String, Policy> sourcePolicies;
+    private final long maxTotalBytes;
+    private final Clock clock;
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public RetentionSweeper(InMemoryArticleRepository repository,
+                            ArticlePins pins,
+                            @Value("${devspark.retention.enabled:true}") boolean enabled,
+                            @Value("${devspark.retention.max-age-days:90}") long maxAgeDays,
+                            @Value("${devspark.retention.max-per-source:2000}") int maxPerSource,
+                            @Value("${devspark.retention.max-total-mb:1024}") long maxTotalMb,
+                            @Value("${devspark.retention.sources:}") String sourceOverrides,
+                            @Value("${devspark.retention.sweep-interval-seconds:60}") long intervalSeconds) {
+        this(repository, pins, new Policy(maxAgeDays > 0 ? Duration.ofDays(maxAgeDays) : null, maxPerSource),
+            sourceOverrides, maxTotalMb * 1024 * 1024, Clock.systemUTC());
+        if (!enabled) return;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+            .name("retention-sweeper").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(this::sweepAndReport, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /** Sweeper that only runs when {@link #sweep} is called. */
+    RetentionSweeper(InMemoryArticleRepository repository, ArticlePins pins, Policy defaults,
+                     String sourceOverrides, long maxTotalBytes, Clock clock) {
+        this.repository = repository;
+        this.pins = pins;
+        this.defaults = defaults;
+        this.sourcePolicies = parsePolicies(sourceOverrides, defaults);
+        this.maxTotalBytes = maxTotalBytes;
+        this.clock = clock;
+        repository.addListener(this, true);
+    }
+
+    /**
+     * Parses per-source overrides such as
+     * {@code Hacker News:max-age-days=7,max-count=500;Wired:max-count=200}.
+     * Settings left out fall back to {@code defaults}; 0 lifts a limit.
+     */
+    static Map<String, Policy> parsePolicies(String spec, Policy defaults) {
+        Map<String, Policy> policies = new HashMap<>();
+        if (spec == null || spec.isBlank()) return policies;
+        for (String entry : spec.split(";")) {
+            if (entry.isBlank()) continue;
+            int colon = entry.lastIndexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("Retention override is not 'source:settings': " + entry);
+            Duration maxAge = defaults.maxAge();
+            int maxCount = defaults.maxCount();
+            for (String setting : entry.substring(colon + 1).split(",")) {
+                String[] pair = setting.split("=", 2);
+                if (pair.length != 2) throw new IllegalArgumentException("Retention setting is not 'name=value': " + setting);
+                long value = Long.parseLong(pair[1].trim());
+                switch (pair[0].trim()) {
+                    case "max-age-days" -> maxAge = value > 0 ? Duration.ofDays(value) : null;
+                    case "max-count" -> maxCount = (int) value;
+                    default -> throw new IllegalArgumentException("Unknown retention setting: " + pair[0].trim());
+                }
+            }
+            policies.put(entry.substring(0, colon).trim(), new Policy(maxAge, maxCount));
+        }
+        return policies;
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        counts.merge(sourceOf(record), 1, Integer::sum);
+        totalBytes.addAndGet(estimatedBytes(record));
+    }
+
+    @Override
+    public void onUpdated(ArticleRecord previous, ArticleRecord current) {
+        if (!Objects.equals(previous.source(), current.source())) {
+            uncount(previous);
+            counts.merge(sourceOf(current), 1, Integer::sum);
+        }
+        totalBytes.addAndGet(estimatedBytes(current) - estimatedBytes(previous));
+    }
+
+    @Override
+    public void onRemoved(ArticleRecord record) {
+        uncount(record);
+        totalBytes.addAndGet(-estimatedBytes(record));
+    }
+
+    /** Estimated size of all stored articles, bodies counted as stored. */
+    long totalBytes() {
+        return totalBytes.get();
+    }
+
+    /** Runs one pass over every source and returns how many articles it removed. */
+    int sweep() {
+        Instant now = clock.instant();
+        int removed = 0;
+        for (String source : List.copyOf(repository.sources())) {
+            Policy policy = sourcePolicies.getOrDefault(source, defaults);
+            if (policy.maxAge() != null) {
+                removed += expire(repository.newestFirst(source), now.minus(policy.maxAge()));
+            }
+            if (policy.maxCount() > 0) {
+                removed += trim(repository.newestFirst(source), () -> counts.getOrDefault(source, 0) > policy.maxCount());
+            }
+        }
+        if (maxTotalBytes > 0) {
+            removed += trim(repository.newestFirst(), () -> totalBytes.get() > maxTotalBytes);
+        }
+        return removed;
+    }
+
+    /** Removes the articles of {@code index} published at or before {@code cutoff}. */
+    private int expire(NavigableMap<ArticleKey, ArticleRecord> index, Instant cutoff) {
+        int removed = 0;
+        for (ArticleRecord record : index.tailMap(new ArticleKey(cutoff, ""), true).values()) {
+            // Undated articles sort last and have no age
+            if (record.publishedDate() == null) break;
+            if (removeUnpinned(record)) removed++;
+        }
+        return removed;
+    }
+
+    /** Removes the oldest articles of {@code index} for as long as {@code over} holds. */
+    private int trim(NavigableMap<ArticleKey, ArticleRecord> index, BooleanSupplier over) {
+        int removed = 0;
+        for (ArticleRecord record : index.descendingMap().values()) {
+            if (!over.getAsBoolean()) break;
+            if (removeUnpinned(record)) removed++;
+        }
+        return removed;
+    }
+
+    /** Skips an article changed since the sweep read it; the next pass looks at it again. */
+    private boolean removeUnpinned(ArticleRecord record) {
+        return repository.remove(record.link(), current -> current == record && !pins.isKept(current.link()));
+    }
+
+    private void sweepAndReport() {
+        try {
+            long start = System.nanoTime();
+            int removed = sweep();
+            if (removed > 0) {
+                System.out.println("Retention removed " + removed + " articles in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Retention sweep failed - " + e.getMessage());
+        }
+    }
+
+    private void uncount(ArticleRecord record) {
+        counts.computeIfPresent(sourceOf(record), (source, count) -> count > 1 ? count - 1 : null);
+    }
+
+    static long estimatedBytes(ArticleRecord record) {
+        long bytes = RECORD_OVERHEAD;
+        bytes += 2L * (length(record.title()) + length(record.link()) + length(record.summary())
+            + length(record.imageUrl()) + length(record.clusterId()));
+        if (record.body() != null) bytes += record.body().storedBytes();
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static String sourceOf(ArticleRecord record) {
+        return record.source() != null ? record.source() : "";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+}
@@ -1,42 +1,147 @@
 package com.devspark.ingestion;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 
 @org.springframework.stereotype.Component
 public class RssFetcher {
     private final InMemoryArticleRepository repository;
     private final ArticleContentFetcher contentFetcher;
-    private final java.net.http.HttpClient httpClient;
-
-    public RssFetcher(InMemoryArticleRepository repository, ArticleContentFetcher contentFetcher) {
+    private final ContentEnrichmentQueue enrichmentQueue;
+    private final NearDuplicateIndex nearDuplicates;
+    private final IngestionMetrics metrics;
+    private final OutboundFetcher outbound;
+    private final Map<String, FeedFetchState> fetchStates = new ConcurrentHashMap<>();
+    private final LongAdder notModifiedHits = new LongAdder();
+    private final LongAdder unchangedHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private volatile BiConsumer<String, FeedFetchState> fetchStateListener = (url, state) -> {};
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public RssFetcher(InMemoryArticleRepository repository, ArticleContentFetcher contentFetcher,
+                      ContentEnrichmentQueue enrichmentQueue, NearDuplicateIndex nearDuplicates,
+                      IngestionMetrics metrics, OutboundFetcher outbound) {
         this.repository = repository;
         this.contentFetcher = contentFetcher;
-        this.httpClient = java.net.http.HttpClient.newBuilder()
-                .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
-                .build();
+        this.enrichmentQueue = enrichmentQueue;
+        this.nearDuplicates = nearDuplicates;
+        this.metrics = metrics;
+        this.outbound = outbound;
+    }
+
+    /** Fetcher with its own outbound limits, for code built outside Spring. */
+    public RssFetcher(InMemoryArticleRepository repository, ArticleContentFetcher contentFetcher,
+                      ContentEnrichmentQueue enrichmentQueue, NearDuplicateIndex nearDuplicates,
+                      IngestionMetrics metrics) {
+        this(repository, contentFetcher, enrichmentQueue, nearDuplicates, metrics, new OutboundFetcher());
     }
 
-    public void fetch(String feedUrl, String sourceName) {
+    /** Fetcher without background enrichment: items are stored with the content the feed provides. */
+    RssFetcher(InMemoryArticleRepository repository) {
+        this(repository, new ArticleContentFetcher(), null, new NearDuplicateIndex(), new IngestionMetrics(repository));
+    }
+
+    public FetchOutcome fetch(String feedUrl, String sourceName) {
+        FeedFetchState previous = fetchStates.get(feedUrl);
+        IngestionMetrics.Source sourceMetrics = metrics.source(sourceName);
+        long start = System.nanoTime();
         try {
-            var request = java.net.http.HttpRequest.newBuilder()
+            var builder = java.net.http.HttpRequest.newBuilder()
                 .uri(java.net.URI.create(feedUrl))
                 .header("User-Agent", "DevSpark/1.0 RSS Reader")
                 .GET()
-                .timeout(java.time.Duration.ofSeconds(15))
-                .build();
+                .timeout(java.time.Duration.ofSeconds(15));
+            if (previous != null) {
+                if (previous.etag() != null) builder.header("If-None-Match", previous.etag());
+                if (previous.lastModified() != null) builder.header("If-Modified-Since", previous.lastModified());
+            }
 
-            var response = httpClient.send(request, java.net.http.HttpResponse.BodyHandlers.ofString());
+            // The source name is the circuit, so a dead feed stops being fetched for a while
+            var response = outbound.send(sourceName, builder.build(), java.net.http.HttpResponse.BodyHandlers.ofByteArray());
+            sourceMetrics.recordFetch(response.statusCode(), System.nanoTime() - start, response.body().length);
+            if (response.statusCode() == 304) {
+                notModifiedHits.increment();
+                return FetchOutcome.NOT_MODIFIED;
+            }
             if (response.statusCode() == 200) {
-                parseAndSave(response.body(), sourceName);
+                String etag = response.headers().firstValue("ETag").orElse(null);
+                String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+                byte[] body = response.body();
+                String hash = contentHash(body);
+
+                if (previous != null && hash.equals(previous.contentHash())) {
+                    unchangedHits.increment();
+                    updateFetchState(feedUrl, new FeedFetchState(etag, lastModified, hash, previous.itemGuids()));
+                    return FetchOutcome.UNCHANGED;
+                }
+
+                cacheMisses.increment();
+                Set<String> guids = parseAndSave(body, sourceName,
+                    previous != null ? previous.itemGuids() : Set.of());
+                if (guids == null) return FetchOutcome.FAILED;
+                updateFetchState(feedUrl, new FeedFetchState(etag, lastModified, hash, guids));
+                return FetchOutcome.FETCHED;
             }
+            System.err.println("Failed to fetch feed: " + feedUrl + " - HTTP " + response.statusCode());
+        } catch (java.io.IOException e) {
+            sourceMetrics.recordFetchError(System.nanoTime() - start);
+            System.err.println("Failed to fetch feed: " + feedUrl + " - " + e.getMessage());
+        } catch (InterruptedException e) {
+            // The refresh cycle's deadline passed
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             System.err.println("Failed to fetch feed: " + feedUrl + " - " + e.getMessage());
         }
+        return FetchOutcome.FAILED;
+    }
+
+    /** Conditional GET and body hash state for a feed, or null if it was never fetched. */
+    public FeedFetchState getFetchState(String feedUrl) {
+        return fetchStates.get(feedUrl);
+    }
+
+    /** Snapshot of the fetch state of every feed fetched so far. */
+    public Map<String, FeedFetchState> fetchStates() {
+        return Map.copyOf(fetchStates);
+    }
+
+    /** Seeds fetch state recovered from disk so the first fetch after a restart is conditional. */
+    public void restoreFetchState(String feedUrl, FeedFetchState state) {
+        fetchStates.put(feedUrl, state);
+    }
+
+    /** Drops the state of a feed that is no longer fetched, telling the listener with a null state. */
+    public void forgetFetchState(String feedUrl) {
+        if (fetchStates.remove(feedUrl) != null) fetchStateListener.accept(feedUrl, null);
+    }
+
+    /** Called with the new state whenever a fetch changes a feed's state, or with null when it is forgotten. */
+    public void setFetchStateListener(BiConsumer<String, FeedFetchState> listener) {
+        this.fetchStateListener = listener;
+    }
+
+    private void updateFetchState(String feedUrl, FeedFetchState state) {
+        FeedFetchState previous = fetchStates.put(feedUrl, state);
+        if (!state.equals(previous)) fetchStateListener.accept(feedUrl, state);
+    }
+
+    /** Circuit breaker state of a source's feed fetches. */
+    public CircuitState circuitState(String sourceName) {
+        return outbound.circuitState(sourceName);
+    }
+
+    public FetchCacheStats cacheStats() {
+        return new FetchCacheStats(notModifiedHits.sum(), unchangedHits.sum(), cacheMisses.sum());
     }
 
     /**
@@ -52,192 +157,104 @@ public class RssFetcher {
                 .timeout(java.time.Duration.ofSeconds(10))
                 .build();
 
-            var response = httpClient.send(request, java.net.http.HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() != 200) return null;
-
-            var factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            Document document = factory.newDocumentBuilder()
-                .parse(new ByteArrayInputStream(response.body().getBytes(StandardCharsets.UTF_8)));
-
-            // Check for RSS
-            NodeList channels = document.getElementsByTagName("channel");
-            if (channels.getLength() > 0) {
-                var children = channels.item(0).getChildNodes();
-                for (int i = 0; i < children.getLength(); i++) {
-                    if ("title".equals(children.item(i).getNodeName())) {
-                        return children.item(i).getTextContent();
-                    }
-                }
-                return "RSS Feed";
+            // Not counted against any circuit: the URL is not a source yet
+            var response = outbound.send(null, request, java.net.http.HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) return null;
+                // Stops reading, and closes the connection, as soon as the title is seen
+                return FeedStreamParser.readTitle(body);
             }
-
-            // Check for Atom
-            NodeList feeds = document.getElementsByTagName("feed");
-            if (feeds.getLength() > 0) {
-                var children = feeds.item(0).getChildNodes();
-                for (int i = 0; i < children.getLength(); i++) {
-                    String name = children.item(i).getLocalName();
-                    if (name == null) name = children.item(i).getNodeName();
-                    if ("title".equals(name)) {
-                        return children.item(i).getTextContent();
-                    }
-                }
-                return "Atom Feed";
-            }
-
-            return null;
         } catch (Exception e) {
             return null;
         }
     }
 
     void parseAndSave(String feedXml, String sourceName) {
+        parseAndSave(feedXml.getBytes(StandardCharsets.UTF_8), sourceName, Set.of());
+    }
+
+    /**
+     * Parses a feed body and stores items not seen before. Items whose GUID is in
+     * {@code knownGuids} were handled by the previous fetch and are skipped
+     * without a repository lookup. Returns the GUIDs present in this body, or
+     * null if it could not be parsed.
+     */
+    Set<String> parseAndSave(byte[] feedXml, String sourceName, Set<String> knownGuids) {
+        IngestionMetrics.Source sourceMetrics = metrics.source(sourceName);
+        long start = System.nanoTime();
         try {
-            var factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            Document document = factory.newDocumentBuilder()
-                .parse(new ByteArrayInputStream(feedXml.getBytes(StandardCharsets.UTF_8)));
-
-            // Try RSS <item> elements first
-            NodeList items = document.getElementsByTagName("item");
-            if (items.getLength() > 0) {
-                parseRssItems(items, sourceName);
-            } else {
-                // Try Atom <entry> elements
-                NodeList entries = document.getElementsByTagName("entry");
-                if (entries.getLength() > 0) {
-                    parseAtomEntries(entries, sourceName);
-                }
-            }
+            Set<String> guids = new HashSet<>();
+            FeedStreamParser.parse(new ByteArrayInputStream(feedXml),
+                entry -> saveEntry(entry, sourceName, knownGuids, guids, sourceMetrics));
+            sourceMetrics.recordParse(System.nanoTime() - start);
+            return guids;
         } catch (Exception e) {
             e.printStackTrace();
+            return null;
         }
     }
 
-    private void parseRssItems(NodeList items, String sourceName) {
-        for (int i = 0; i < items.getLength(); i++) {
-            var item = items.item(i);
-            var children = item.getChildNodes();
-            String title = null;
-            String link = null;
-            String description = null;
-            String pubDateStr = null;
-            String contentEncoded = null;
-
-            for (int j = 0; j < children.getLength(); j++) {
-                var child = children.item(j);
-                String nodeName = child.getNodeName();
-
-                if ("title".equals(nodeName)) title = child.getTextContent();
-                else if ("link".equals(nodeName)) link = child.getTextContent();
-                else if ("description".equals(nodeName)) description = child.getTextContent();
-                else if ("pubDate".equals(nodeName)) pubDateStr = child.getTextContent();
-                else if ("content:encoded".equals(nodeName)) contentEncoded = child.getTextContent();
-            }
-
-            if (link != null && !repository.existsByUrl(link)) {
-                java.time.Instant pubDate = parseDate(pubDateStr);
-                String content = contentEncoded != null ? contentEncoded : description;
-
-                // If content is too short, fetch the full article
-                if (contentFetcher.needsFullContent(content)) {
-                    String fullContent = contentFetcher.fetchFullContent(link);
-                    if (fullContent != null) {
-                        content = fullContent;
-                    }
-                }
-
-                String imageUrl = extractImage(content);
+    private void saveEntry(FeedEntry entry, String sourceName, Set<String> knownGuids, Set<String> guids,
+                           IngestionMetrics.Source sourceMetrics) {
+        sourceMetrics.itemSeen();
+        String link = entry.link();
+        if (isKnown(entry.guid() != null ? entry.guid() : link, knownGuids, guids)) {
+            sourceMetrics.itemDuplicate();
+            return;
+        }
+        if (link == null) return;
+        if (repository.existsByUrl(link)) {
+            sourceMetrics.itemDuplicate();
+            return;
+        }
 
-                repository.save(new ArticleRecord(
-                    title, link, sourceName, pubDate,
-                    description != null ? description : stripToSummary(content),
-                    content,
-                    imageUrl
-                ));
-            }
+        java.time.Instant pubDate = parseDate(entry.date());
+        String content = entry.content() != null ? entry.content() : entry.summary();
+
+        // One parse of the item's HTML, with its separate summary if it has one, answers every question below
+        ArticleHtml.Analysis html = ArticleHtml.analyze(content, entry.content() != null ? entry.summary() : null);
+
+        // Short content is stored now and replaced with the full article in the background
+        boolean enrich = enrichmentQueue != null && contentFetcher.needsFullContent(html);
+
+        String summary = entry.summary() != null ? entry.summary() : html.summary();
+
+        // Fingerprint once, from what every copy of a story has at ingestion time: title and summary.
+        // Without separate content the summary is what was analysed; without a summary it is derived text.
+        String summaryText = html.summaryText() != null ? html.summaryText()
+            : entry.content() == null ? html.text() : summary;
+        MinHash signature = MinHash.of(entry.title(), summaryText);
+        String clusterId = nearDuplicates.assign(link, signature, pubDate);
+
+        repository.save(new ArticleRecord(
+            entry.title(), link, sourceName, pubDate,
+            summary,
+            content,
+            html.imageUrl(),
+            enrich ? EnrichmentStatus.PENDING : EnrichmentStatus.NOT_NEEDED,
+            signature,
+            signature != null ? clusterId : null
+        ));
+        sourceMetrics.itemNew();
+
+        if (enrich && !enrichmentQueue.submit(link, entry.summary())) {
+            repository.update(link, record -> record.withEnrichment(EnrichmentStatus.FAILED));
         }
     }
 
-    private void parseAtomEntries(NodeList entries, String sourceName) {
-        for (int i = 0; i < entries.getLength(); i++) {
-            var entry = (Element) entries.item(i);
-            var children = entry.getChildNodes();
-            String title = null;
-            String link = null;
-            String summary = null;
-            String content = null;
-            String updatedStr = null;
-            String publishedStr = null;
-
-            for (int j = 0; j < children.getLength(); j++) {
-                var child = children.item(j);
-                String localName = child.getLocalName();
-                if (localName == null) localName = child.getNodeName();
-
-                switch (localName) {
-                    case "title":
-                        title = child.getTextContent();
-                        break;
-                    case "link":
-                        if (child instanceof Element el) {
-                            String href = el.getAttribute("href");
-                            String rel = el.getAttribute("rel");
-                            if (link == null || "alternate".equals(rel)) {
-                                link = href != null && !href.isEmpty() ? href : child.getTextContent();
-                            }
-                        }
-                        break;
-                    case "summary":
-                        summary = child.getTextContent();
-                        break;
-                    case "content":
-                        content = child.getTextContent();
-                        break;
-                    case "updated":
-                        updatedStr = child.getTextContent();
-                        break;
-                    case "published":
-                        publishedStr = child.getTextContent();
-                        break;
-                    default:
-                        break;
-                }
-            }
-
-            if (link != null && !repository.existsByUrl(link)) {
-                java.time.Instant pubDate = parseDate(publishedStr != null ? publishedStr : updatedStr);
-                String articleContent = content != null ? content : summary;
-
-                // If content is too short, fetch the full article
-                if (contentFetcher.needsFullContent(articleContent)) {
-                    String fullContent = contentFetcher.fetchFullContent(link);
-                    if (fullContent != null) {
-                        articleContent = fullContent;
-                    }
-                }
-
-                String imageUrl = extractImage(articleContent);
-
-                repository.save(new ArticleRecord(
-                    title, link, sourceName, pubDate,
-                    summary != null ? summary : stripToSummary(articleContent),
-                    articleContent,
-                    imageUrl
-                ));
-            }
-        }
+    /** Records the item's GUID and returns true if the previous fetch already handled it. */
+    private static boolean isKnown(String guid, Set<String> knownGuids, Set<String> guids) {
+        if (guid == null) return false;
+        guid = guid.trim();
+        guids.add(guid);
+        return knownGuids.contains(guid);
     }
 
-    private String stripToSummary(String html) {
-        if (html == null) return "";
-        String text = org.jsoup.Jsoup.parse(html).text();
-        if (text.length() <= 300) return text;
-        return text.substring(0, 297) + "...";
+    private static String contentHash(byte[] body) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
     }
 
-    private java.time.Instant parseDate(String dateStr) {
+    static java.time.Instant parseDate(String dateStr) {
         if (dateStr == null || dateStr.isBlank()) return java.time.Instant.now();
 
         try {
@@ -255,19 +272,4 @@ public class RssFetcher {
 
         return java.time.Instant.now();
     }
-
-    private String extractImage(String html) {
-        if (html == null) return null;
-        var matcher = java.util.regex.Pattern.compile("src=\"(https?://[^\"]+(?:\\.(?:jpg|jpeg|png|gif|webp|svg))[^\"]*)\"",
-            java.util.regex.Pattern.CASE_INSENSITIVE).matcher(html);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        // Fallback: any src
-        var matcher2 = java.util.regex.Pattern.compile("src=\"(https?://[^\"]+)\"").matcher(html);
-        if (matcher2.find()) {
-            return matcher2.group(1);
-        }
-        return null;
-    }
 }
@@ -0,0 +1,19 @@
+package com.devspark.ingestion;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Where {@link PollScheduler} stands with one source. {@code publishGap} is
+ * the estimated time between its posts, or null until two have been seen;
+ * {@code newRatio} is the recent share of its feed's items that were new
+ * when polled.
+ */
+public record SourceSchedule(
+    String source,
+    Instant lastPolledAt,
+    Instant nextPollAt,
+    Duration interval,
+    Duration publishGap,
+    double newRatio
+) {}
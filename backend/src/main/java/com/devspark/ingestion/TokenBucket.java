@@ -0,0 +1,35 @@
+package com.devspark.ingestion;
+
+/**
+ * Request rate limit for one host: {@code burst} requests at once, refilled
+ * at {@code perSecond}. Callers reserve a token and wait out the returned
+ * delay; reservations may overdraw the bucket, so concurrent callers line up
+ * behind each other instead of all waking at the same moment.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double perSecond, int burst, long now) {
+        this.tokensPerNano = perSecond / 1e9;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = now;
+    }
+
+    /** Takes a token and returns how many nanoseconds to wait before using it; 0 if it is available now. */
+    synchronized long reserve(long now) {
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    /** True once refilled to the burst, when the bucket is no different from a new one. */
+    synchronized boolean isFull(long now) {
+        return tokens + (now - refilledAt) * tokensPerNano >= burst;
+    }
+}
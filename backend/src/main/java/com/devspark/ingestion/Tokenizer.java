@@ -0,0 +1,65 @@
+package com.devspark.ingestion;
+
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-cased terms for search and duplicate detection.
+ *
+ * Runs of letters and digits become one term each. Chinese, Japanese and
+ * Korean text has no spaces between words, so runs of those scripts are cut
+ * into overlapping bigrams instead ("全文检索" gives "全文", "文检", "检索"),
+ * which matches any query of two or more characters without a dictionary. A
+ * run of a single CJK character is kept as a term of its own.
+ */
+public final class Tokenizer {
+
+    static final int MAX_TERM_LENGTH = 64;
+
+    private Tokenizer() {}
+
+    public static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) return;
+        StringBuilder word = new StringBuilder();
+        int cjkPrevious = -1;
+        int cjkRun = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flush(word, terms);
+                if (cjkPrevious >= 0) {
+                    terms.accept(new StringBuilder(4).appendCodePoint(cjkPrevious).appendCodePoint(cp).toString());
+                }
+                cjkPrevious = cp;
+                cjkRun++;
+            } else {
+                if (cjkRun == 1) terms.accept(Character.toString(cjkPrevious));
+                cjkPrevious = -1;
+                cjkRun = 0;
+                if (Character.isLetterOrDigit(cp)) {
+                    word.appendCodePoint(Character.toLowerCase(cp));
+                } else {
+                    flush(word, terms);
+                }
+            }
+        }
+        if (cjkRun == 1) terms.accept(Character.toString(cjkPrevious));
+        flush(word, terms);
+    }
+
+    private static void flush(StringBuilder word, Consumer<String> terms) {
+        if (word.isEmpty()) return;
+        if (word.length() <= MAX_TERM_LENGTH) terms.accept(word.toString());
+        word.setLength(0);
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,28 @@
+package com.devspark.metrics;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.devspark.ingestion.IngestionMetrics;
+
+@RestController
+@RequestMapping("/api")
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final IngestionMetrics ingestionMetrics;
+
+    public MetricsController(IngestionMetrics ingestionMetrics) {
+        this.ingestionMetrics = ingestionMetrics;
+    }
+
+    /** Ingestion counters and histograms in the Prometheus text format, for scraping. */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> metrics() {
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(ingestionMetrics.toPrometheusText());
+    }
+}
@@ -0,0 +1,76 @@
+package com.devspark.search;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.devspark.feed.ArticleSummary;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.NearDuplicateIndex;
+
+@RestController
+@RequestMapping("/api")
+public class SearchController {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchIndex searchIndex;
+    private final InMemoryArticleRepository repository;
+    private final NearDuplicateIndex nearDuplicates;
+
+    public SearchController(SearchIndex searchIndex, InMemoryArticleRepository repository,
+                            NearDuplicateIndex nearDuplicates) {
+        this.searchIndex = searchIndex;
+        this.repository = repository;
+        this.nearDuplicates = nearDuplicates;
+    }
+
+    /**
+     * Full-text search over titles, summaries and content. {@code from} and
+     * {@code to} take an ISO date or instant; a plain {@code to} date includes
+     * that whole day.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchResponse> search(@RequestParam String q,
+                                                 @RequestParam(required = false) String sourceId,
+                                                 @RequestParam(required = false) String from,
+                                                 @RequestParam(required = false) String to,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        Instant fromInstant;
+        Instant toInstant;
+        try {
+            fromInstant = parseBound(from, false);
+            toInstant = parseBound(to, true);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = limit > 0 ? Math.min(limit, MAX_LIMIT) : DEFAULT_LIMIT;
+        String source = sourceId != null && !sourceId.isBlank() ? sourceId : null;
+
+        SearchResults results = searchIndex.search(q, source, fromInstant, toInstant, pageSize);
+        List<ArticleSummary> items = results.hits().stream()
+            .map(hit -> repository.findByUrl(hit.link()))
+            .flatMap(Optional::stream)
+            .map(record -> ArticleSummary.of(record, nearDuplicates.clusterSize(record.clusterId())))
+            .toList();
+        return ResponseEntity.ok(new SearchResponse(q, results.total(), items));
+    }
+
+    private static Instant parseBound(String value, boolean endOfDay) {
+        if (value == null || value.isBlank()) return null;
+        if (value.length() == 10) {
+            LocalDate date = LocalDate.parse(value);
+            return (endOfDay ? date.plusDays(1) : date).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        return Instant.parse(value);
+    }
+}
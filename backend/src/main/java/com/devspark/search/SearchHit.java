@@ -0,0 +1,4 @@
+package com.devspark.search;
+
+/** One ranked match: the article's link and its BM25 score. */
+public record SearchHit(String link, double score) {}
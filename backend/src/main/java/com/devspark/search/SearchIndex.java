@@ -0,0 +1,339 @@
+package com.devspark.search;
+
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ArticleRepositoryListener;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.Tokenizer;
+import jakarta.annotation.PreDestroy;
+import org.jsoup.Jsoup;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over article titles, summaries and content,
+ * ranked with BM25.
+ *
+ * The index follows the repository through {@link ArticleRepositoryListener}:
+ * changes are queued and a background thread extracts their text (one Jsoup
+ * pass per article) and applies them in batches, so neither ingestion nor
+ * startup recovery waits for indexing. Documents get dense int ids; postings
+ * are parallel int arrays in id order. A replaced article is tombstoned and
+ * re-added under a new id, and tombstones are compacted away once they
+ * outnumber live documents. Queries take a read lock and score every posting
+ * of every query term into a flat array, then keep the top hits in a bounded
+ * heap.
+ */
+@Component
+public class SearchIndex implements ArticleRepositoryListener {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int BATCH_SIZE = 256;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docByLink = new HashMap<>();
+    private final Map<String, Integer> sourceIds = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private String[] links = new String[1024];
+    private int[] lengths = new int[1024];
+    private int[] sources = new int[1024];
+    private long[] published = new long[1024];
+    private int docCount;
+    private int tombstones;
+    private long liveLength;
+
+    private final BlockingQueue<ArticleRecord> pending = new LinkedBlockingQueue<>();
+    private final Thread indexer;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public SearchIndex(InMemoryArticleRepository repository) {
+        this.indexer = Thread.ofVirtual().name("search-indexer").unstarted(this::drain);
+        repository.addListener(this, true);
+        indexer.start();
+    }
+
+    /** Index that is only fed through {@link #index}. */
+    SearchIndex() {
+        this.indexer = null;
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        pending.add(record);
+    }
+
+    @Override
+    public void onUpdated(ArticleRecord previous, ArticleRecord current) {
+        // Enrichment status flips alone don't change what is searchable
+        if (!Objects.equals(previous.title(), current.title())
+            || !Objects.equals(previous.summary(), current.summary())
+            || !Objects.equals(previous.body(), current.body())
+            || !Objects.equals(previous.source(), current.source())
+            || !Objects.equals(previous.publishedDate(), current.publishedDate())
+            || !previous.link().equals(current.link())) {
+            if (!previous.link().equals(current.link())) pending.add(tombstoneFor(previous.link()));
+            pending.add(current);
+        }
+    }
+
+    @Override
+    public void onRemoved(ArticleRecord record) {
+        pending.add(tombstoneFor(record.link()));
+    }
+
+    /**
+     * Ranks articles matching any term of {@code query}. {@code source},
+     * {@code from} (inclusive) and {@code to} (exclusive) are optional filters.
+     */
+    public SearchResults search(String query, String source, Instant from, Instant to, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        Tokenizer.tokenize(query, terms::add);
+        if (terms.isEmpty() || limit <= 0) return SearchResults.EMPTY;
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        boolean dateFilter = from != null || to != null;
+
+        lock.readLock().lock();
+        try {
+            int sourceId = -1;
+            if (source != null) {
+                Integer id = sourceIds.get(source);
+                if (id == null) return SearchResults.EMPTY;
+                sourceId = id;
+            }
+            int live = docCount - tombstones;
+            double avgLength = live > 0 ? (double) liveLength / live : 1;
+            float[] scores = new float[docCount];
+            int[] matched = new int[64];
+            int matchedCount = 0;
+
+            for (String term : terms) {
+                Postings p = postings.get(term);
+                if (p == null) continue;
+                int df = Math.min(p.size, live);
+                double idf = Math.log(1 + (live - df + 0.5) / (df + 0.5));
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    if (deleted.get(doc)) continue;
+                    if (sourceId >= 0 && sources[doc] != sourceId) continue;
+                    if (dateFilter && (published[doc] == NO_DATE
+                        || published[doc] < fromMillis || published[doc] >= toMillis)) continue;
+
+                    int tf = p.freqs[i];
+                    double norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+                    if (scores[doc] == 0) {
+                        if (matchedCount == matched.length) matched = Arrays.copyOf(matched, matchedCount * 2);
+                        matched[matchedCount++] = doc;
+                    }
+                    scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // Min-heap of the best hits so far; ties go to the more recently indexed article
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, matchedCount) + 1,
+                (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(a, b));
+            for (int i = 0; i < matchedCount; i++) {
+                top.add(matched[i]);
+                if (top.size() > limit) top.poll();
+            }
+            SearchHit[] hits = new SearchHit[top.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                int doc = top.poll();
+                hits[i] = new SearchHit(links[doc], scores[doc]);
+            }
+            return new SearchResults(matchedCount, List.of(hits));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of searchable articles. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - tombstones;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Changes waiting to be indexed. */
+    public int pending() {
+        return pending.size();
+    }
+
+    /** Analyses and indexes records on the calling thread. */
+    void index(List<ArticleRecord> records) {
+        List<Document> documents = new ArrayList<>(records.size());
+        for (ArticleRecord record : records) {
+            try {
+                documents.add(Document.of(record));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to index " + record.link() + " - " + e.getMessage());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            for (Document document : documents) add(document);
+            if (tombstones > docCount - tombstones && docCount > 1024) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void drain() {
+        List<ArticleRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch, BATCH_SIZE - 1);
+            index(batch);
+            batch.clear();
+        }
+    }
+
+    private void add(Document document) {
+        Integer previous = docByLink.remove(document.link());
+        if (previous != null) {
+            deleted.set(previous);
+            tombstones++;
+            liveLength -= lengths[previous];
+        }
+        if (document.terms() == null) return;
+
+        int doc = docCount++;
+        if (doc == links.length) {
+            int capacity = links.length * 2;
+            links = Arrays.copyOf(links, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            published = Arrays.copyOf(published, capacity);
+        }
+        links[doc] = document.link();
+        lengths[doc] = document.length();
+        sources[doc] = sourceIds.computeIfAbsent(document.source(), s -> sourceIds.size());
+        published[doc] = document.publishedMillis();
+        liveLength += document.length();
+        docByLink.put(document.link(), doc);
+        for (Map.Entry<String, int[]> term : document.terms().entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(doc, term.getValue()[0]);
+        }
+    }
+
+    /** Renumbers live documents densely and drops tombstoned postings. */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            links[next] = links[doc];
+            lengths[next] = lengths[doc];
+            sources[next] = sources[doc];
+            published[next] = published[doc];
+            docByLink.put(links[next], next);
+            next++;
+        }
+        Arrays.fill(links, next, docCount, null);
+
+        Iterator<Postings> it = postings.values().iterator();
+        while (it.hasNext()) {
+            Postings p = it.next();
+            p.remap(remap);
+            if (p.size == 0) it.remove();
+        }
+        docCount = next;
+        tombstones = 0;
+        deleted.clear();
+    }
+
+    private static ArticleRecord tombstoneFor(String link) {
+        return new ArticleRecord(null, link, null, null, null, null, null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (indexer != null) indexer.interrupt();
+    }
+
+    /** Term frequencies of one analysed article; {@code terms} is null for a removal. */
+    private record Document(String link, String source, long publishedMillis, Map<String, int[]> terms, int length) {
+
+        static Document of(ArticleRecord record) {
+            if (record.title() == null && record.summary() == null && record.body() == null) {
+                return new Document(record.link(), null, NO_DATE, null, 0);
+            }
+            Map<String, int[]> terms = new HashMap<>();
+            int[] length = new int[1];
+            Tokenizer.tokenize(record.title(), term -> {
+                terms.computeIfAbsent(term, t -> new int[1])[0] += TITLE_WEIGHT;
+                length[0] += TITLE_WEIGHT;
+            });
+            // Content already contains what a derived summary says; fall back to the summary when there is none
+            String content = record.content();
+            String html = content != null && !content.isBlank() ? content : record.summary();
+            if (html != null && !html.isBlank()) {
+                Tokenizer.tokenize(Jsoup.parse(html).text(), term -> {
+                    terms.computeIfAbsent(term, t -> new int[1])[0]++;
+                    length[0]++;
+                });
+            }
+            return new Document(record.link(), record.source() != null ? record.source() : "",
+                record.publishedDate() != null ? record.publishedDate().toEpochMilli() : NO_DATE,
+                terms, length[0]);
+        }
+    }
+
+    /** Document ids in ascending order with their term frequencies. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc < 0) continue;
+                docs[kept] = doc;
+                freqs[kept] = freqs[i];
+                kept++;
+            }
+            size = kept;
+        }
+    }
+}
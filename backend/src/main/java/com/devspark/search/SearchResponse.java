@@ -0,0 +1,8 @@
+package com.devspark.search;
+
+import com.devspark.feed.ArticleSummary;
+
+import java.util.List;
+
+/** Best matches first; {@code total} counts every matching article, not just those returned. */
+public record SearchResponse(String query, int total, List<ArticleSummary> items) {}
@@ -0,0 +1,9 @@
+package com.devspark.search;
+
+import java.util.List;
+
+/** The best-scoring hits of a query, and how many articles matched in total. */
+public record SearchResults(int total, List<SearchHit> hits) {
+
+    static final SearchResults EMPTY = new SearchResults(0, List.of());
+}
@@ -0,0 +1,52 @@
+package com.devspark.sources;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Counters of one running or finished OPML import; updated by its worker threads. */
+final class ImportJob {
+
+    private final String id;
+    private final int total;
+    private final int duplicates;
+    private final Instant startedAt = Instant.now();
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger pending;
+    private volatile Instant finishedAt;
+
+    ImportJob(String id, int total, int duplicates) {
+        this.id = id;
+        this.total = total;
+        this.duplicates = duplicates;
+        this.pending = new AtomicInteger(total);
+        if (total == 0) finishedAt = startedAt;
+    }
+
+    String id() {
+        return id;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    void imported() {
+        imported.incrementAndGet();
+        completeOne();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+        completeOne();
+    }
+
+    private void completeOne() {
+        if (pending.decrementAndGet() == 0) finishedAt = Instant.now();
+    }
+
+    ImportProgress progress() {
+        return new ImportProgress(id, total, imported.get(), failed.get(), pending.get(), duplicates,
+            startedAt, finishedAt);
+    }
+}
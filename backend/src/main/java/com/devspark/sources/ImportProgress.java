@@ -0,0 +1,18 @@
+package com.devspark.sources;
+
+import java.time.Instant;
+
+/**
+ * Progress of an OPML import job. {@code imported + failed + pending == total};
+ * {@code duplicates} were never queued. {@code finishedAt} is null while running.
+ */
+public record ImportProgress(
+    String jobId,
+    int total,
+    int imported,
+    int failed,
+    int pending,
+    int duplicates,
+    Instant startedAt,
+    Instant finishedAt
+) {}
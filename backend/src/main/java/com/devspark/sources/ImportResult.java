@@ -1,4 +1,9 @@
 package com.devspark.sources;
 
-public record ImportResult(int count) {
+/**
+ * Answer to an OPML upload: {@code count} feeds were queued for import as job
+ * {@code jobId}, and {@code duplicates} were skipped as already subscribed or
+ * listed twice.
+ */
+public record ImportResult(String jobId, int count, int duplicates) {
 }
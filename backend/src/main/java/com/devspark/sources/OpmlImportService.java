@@ -0,0 +1,129 @@
+package com.devspark.sources;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.xml.stream.XMLStreamException;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import com.devspark.feed.FeedService;
+import com.devspark.feed.FeedUrls;
+import com.devspark.feed.SubscriptionChange;
+import com.devspark.ingestion.FeedRefreshEngine;
+
+/**
+ * Bulk import of OPML subscription lists.
+ *
+ * The upload is parsed and de-duplicated on the request thread, which is
+ * cheap; validating and first-fetching every new feed runs in the background,
+ * one virtual thread per feed, under the refresh engine's global and per-host
+ * permits so an import of a thousand feeds neither floods one host nor
+ * starves the regular refresh cycle of more than its share.
+ */
+@Service
+public class OpmlImportService {
+
+    /** Finished jobs beyond this many are forgotten, oldest first. */
+    private static final int MAX_JOBS = 20;
+
+    private final FeedService feedService;
+    private final FeedRefreshEngine refreshEngine;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OpmlImportService(FeedService feedService, FeedRefreshEngine refreshEngine) {
+        this.feedService = feedService;
+        this.refreshEngine = refreshEngine;
+    }
+
+    /**
+     * Parses {@code opml} and starts subscribing {@code user} (null for no
+     * signed-in user) to every feed they do not already read, comparing URLs
+     * by {@link FeedUrls#normalize}. Feeds someone else reads already are
+     * subscribed to at once, without being validated or fetched again.
+     */
+    public ImportResult start(String user, InputStream opml) throws XMLStreamException {
+        List<OpmlParser.Outline> outlines = new ArrayList<>();
+        OpmlParser.parse(opml, outlines::add);
+
+        Set<String> known = new HashSet<>();
+        for (String url : feedService.getSubscribedSources(user).values()) known.add(FeedUrls.normalize(url));
+        List<OpmlParser.Outline> queued = new ArrayList<>();
+        for (OpmlParser.Outline outline : outlines) {
+            if (known.add(FeedUrls.normalize(outline.xmlUrl()))) queued.add(outline);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), queued.size(), outlines.size() - queued.size());
+        register(job);
+        for (OpmlParser.Outline outline : queued) {
+            String url = outline.xmlUrl();
+            if (feedService.getSourceForUrl(url) != null) {
+                feedService.addValidatedSource(user, outline.title() != null ? outline.title() : url, url);
+                job.imported();
+            } else {
+                executor.execute(() -> importOne(job, user, outline));
+            }
+        }
+        System.out.println("OPML import " + job.id() + ": " + queued.size() + " feeds queued, "
+            + (outlines.size() - queued.size()) + " duplicates skipped");
+        return new ImportResult(job.id(), queued.size(), outlines.size() - queued.size());
+    }
+
+    public Optional<ImportProgress> progress(String jobId) {
+        synchronized (jobs) {
+            ImportJob job = jobs.get(jobId);
+            return job != null ? Optional.of(job.progress()) : Optional.empty();
+        }
+    }
+
+    private void register(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.id(), job);
+            Iterator<ImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_JOBS && oldest.hasNext()) {
+                if (oldest.next().isFinished()) oldest.remove();
+            }
+        }
+    }
+
+    private void importOne(ImportJob job, String user, OpmlParser.Outline outline) {
+        String url = outline.xmlUrl();
+        try {
+            String feedTitle = refreshEngine.withPermits(url, () -> feedService.validateSource(url));
+            if (feedTitle == null) {
+                job.failed();
+                return;
+            }
+            SubscriptionChange change = feedService.addValidatedSource(user,
+                outline.title() != null ? outline.title() : feedTitle, url);
+            // A failed first fetch is retried at the next scheduled poll; the source itself is in.
+            // A feed someone registered meanwhile is theirs to fetch.
+            if (change.feedAdded()) {
+                refreshEngine.withPermits(url, () -> feedService.fetchSource(change.source(), url));
+            }
+            job.imported();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to import feed: " + url + " - " + e.getMessage());
+            job.failed();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,56 @@
+package com.devspark.sources;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming StAX reader for OPML subscription lists.
+ *
+ * Every {@code outline} with an {@code xmlUrl} is a feed, however deeply it is
+ * nested in category outlines. DTDs and external entities are refused.
+ */
+final class OpmlParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    /** One subscribed feed; {@code title} is null if the outline has neither title nor text. */
+    record Outline(String title, String xmlUrl) {}
+
+    private OpmlParser() {}
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    static void parse(InputStream in, Consumer<Outline> sink) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT || !"outline".equals(reader.getLocalName())) continue;
+                String xmlUrl = attribute(reader, "xmlUrl");
+                if (xmlUrl == null || xmlUrl.isBlank()) continue;
+                String title = attribute(reader, "title");
+                if (title == null || title.isBlank()) title = attribute(reader, "text");
+                sink.accept(new Outline(title != null && !title.isBlank() ? title.trim() : null, xmlUrl.trim()));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /** Attribute by name, ignoring case: exporters disagree on {@code xmlUrl} versus {@code xmlurl}. */
+    private static String attribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (reader.getAttributeLocalName(i).equalsIgnoreCase(name)) return reader.getAttributeValue(i);
+        }
+        return null;
+    }
+}
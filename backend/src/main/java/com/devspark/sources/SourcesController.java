@@ -1,26 +1,59 @@
 package com.devspark.sources;
 
+import com.devspark.auth.UserSessions;
 import com.devspark.feed.FeedService;
+import com.devspark.ingestion.CircuitState;
+import com.devspark.ingestion.FetchCacheStats;
+import com.devspark.ingestion.FetchOutcome;
+import com.devspark.ingestion.RefreshStats;
+import com.devspark.ingestion.SourceSchedule;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import javax.xml.stream.XMLStreamException;
 
 @RestController
 @RequestMapping("/api/sources")
 public class SourcesController {
 
     private final FeedService feedService;
+    private final OpmlImportService opmlImportService;
+    private final UserSessions sessions;
 
-    public SourcesController(FeedService feedService) {
+    public SourcesController(FeedService feedService, OpmlImportService opmlImportService, UserSessions sessions) {
         this.feedService = feedService;
+        this.opmlImportService = opmlImportService;
+        this.sessions = sessions;
     }
 
+    /**
+     * Starts importing the feeds of an OPML file in the background. The answer
+     * says how many were queued; follow the job at {@code /import-opml/{jobId}}.
+     */
     @PostMapping("/import-opml")
-    public ResponseEntity<ImportResult> importOpml(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(new ImportResult(1));
+    public ResponseEntity<ImportResult> importOpml(@RequestParam("file") MultipartFile file,
+                                                   @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(opmlImportService.start(sessions.userId(authorization), in));
+        } catch (XMLStreamException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Progress of an OPML import started by {@link #importOpml}. */
+    @GetMapping("/import-opml/{jobId}")
+    public ResponseEntity<ImportProgress> importProgress(@PathVariable String jobId) {
+        return opmlImportService.progress(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /** Validate an RSS feed URL. */
@@ -39,9 +72,10 @@ public class SourcesController {
         }
     }
 
-    /** Add a custom RSS source. */
+    /** Subscribe to an RSS source, registering the feed if nobody reads it yet. */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> addSource(@RequestBody Map<String, String> body) {
+    public ResponseEntity<Map<String, Object>> addSource(@RequestBody Map<String, String> body,
+                                                         @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         String url = body.get("url");
         String name = body.get("name");
 
@@ -49,7 +83,7 @@ public class SourcesController {
             return ResponseEntity.badRequest().body(Map.of("success", false, "error", "URL is required"));
         }
 
-        String sourceName = feedService.addSource(name, url);
+        String sourceName = feedService.addSource(sessions.userId(authorization), name, url);
         if (sourceName != null) {
             return ResponseEntity.ok(Map.of("success", true, "name", sourceName));
         } else {
@@ -57,21 +91,64 @@ public class SourcesController {
         }
     }
 
-    /** Remove a custom source. */
+    /** Unsubscribe from a source. */
     @DeleteMapping
-    public ResponseEntity<Map<String, Object>> removeSource(@RequestBody Map<String, String> body) {
+    public ResponseEntity<Map<String, Object>> removeSource(@RequestBody Map<String, String> body,
+                                                            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         String name = body.get("name");
         if (name == null || name.isBlank()) {
             return ResponseEntity.badRequest().body(Map.of("success", false, "error", "Source name is required"));
         }
 
-        boolean removed = feedService.removeSource(name);
+        boolean removed = feedService.removeSource(sessions.userId(authorization), name);
         return ResponseEntity.ok(Map.of("success", removed));
     }
 
-    /** List custom sources. */
+    /**
+     * Fetches one source now instead of waiting for its next poll. Answers 404
+     * for an unknown source and 409 if it is being fetched already.
+     */
+    @PostMapping("/{name}/refresh")
+    public ResponseEntity<Map<String, Object>> refreshSource(@PathVariable String name) {
+        if (!feedService.getAllSources().containsKey(name)) return ResponseEntity.notFound().build();
+        Optional<FetchOutcome> outcome = feedService.refreshSource(name);
+        if (outcome.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false, "error", "Source is being fetched already"));
+        }
+        return ResponseEntity.ok(Map.of("success", outcome.get() != FetchOutcome.FAILED, "outcome", outcome.get()));
+    }
+
+    /** When each source was last polled, when it will be next, and the rates behind its interval. */
+    @GetMapping("/schedule")
+    public ResponseEntity<List<SourceSchedule>> schedule() {
+        return ResponseEntity.ok(feedService.getPollSchedules());
+    }
+
+    /** Stats of the last full refresh of every source. */
+    @GetMapping("/refresh-stats")
+    public ResponseEntity<RefreshStats> refreshStats() {
+        RefreshStats stats = feedService.getLastRefreshStats();
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.noContent().build();
+    }
+
+    /** Conditional GET hit and miss counts across all feed fetches. */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<FetchCacheStats> cacheStats() {
+        return ResponseEntity.ok(feedService.getFetchCacheStats());
+    }
+
+    /**
+     * Circuit breaker state of every source. An open circuit means the feed
+     * failed too often in a row and is not fetched again before {@code retryAt}.
+     */
+    @GetMapping("/circuits")
+    public ResponseEntity<Map<String, CircuitState>> circuits() {
+        return ResponseEntity.ok(feedService.getSourceCircuits());
+    }
+
+    /** List the sources added on top of the built-in ones. */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> listSources() {
-        return ResponseEntity.ok(Map.of("sources", feedService.listCustomSources()));
+    public ResponseEntity<Map<String, Object>> listSources(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return ResponseEntity.ok(Map.of("sources", feedService.listCustomSources(sessions.userId(authorization))));
     }
 }
@@ -0,0 +1,298 @@
+package com.devspark.storage;
+
+import com.devspark.ingestion.ArticlePins;
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ArticleRepositoryListener;
+import com.devspark.ingestion.ContentEnrichmentQueue;
+import com.devspark.ingestion.EnrichmentStatus;
+import com.devspark.ingestion.FeedFetchState;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.RssFetcher;
+import com.devspark.summary.SummaryPipeline;
+import com.devspark.summary.SummaryResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable, embedded persistence for articles, custom sources, users'
+ * subscriptions, per-feed fetch state, article summaries and pins, backed by
+ * a {@link SegmentLog} on local disk.
+ *
+ * On startup the log is replayed into the repository before anything else
+ * runs, so a restart comes back with every article and only fetches what is
+ * new. Afterwards every repository change, source change and fetch state
+ * change is appended as it happens. Appends are fsynced once a second and the
+ * log is compacted in the background once enough superseded frames pile up.
+ * Articles still waiting for enrichment are queued again; those that do not
+ * fit in the enrichment queue are retried with backoff until they do.
+ */
+@Component
+public class ArticleLogStore implements ArticleRepositoryListener {
+
+    private static final long MIN_COMPACTION_BYTES = 16L << 20;
+    private static final Duration MAX_REQUEUE_DELAY = Duration.ofMinutes(5);
+
+    private final InMemoryArticleRepository repository;
+    private final RssFetcher rssFetcher;
+    private final ContentEnrichmentQueue enrichmentQueue;
+    private final SummaryPipeline summaryPipeline;
+    private final ArticlePins pins;
+    private final SegmentLog log;
+    private final Map<String, String> sources = new LinkedHashMap<>();
+    private final Map<String, Set<String>> subscriptions = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final Duration requeueDelay;
+    private volatile long liveBytesAfterCompaction;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public ArticleLogStore(InMemoryArticleRepository repository,
+                           RssFetcher rssFetcher,
+                           ContentEnrichmentQueue enrichmentQueue,
+                           SummaryPipeline summaryPipeline,
+                           ArticlePins pins,
+                           @Value("${devspark.storage.enabled:true}") boolean enabled,
+                           @Value("${devspark.storage.dir:data}") String dir,
+                           @Value("${devspark.storage.segment-bytes:67108864}") long segmentBytes,
+                           @Value("${devspark.storage.compaction-interval-minutes:10}") long compactionIntervalMinutes) {
+        this(repository, rssFetcher, enrichmentQueue, summaryPipeline, pins, enabled, dir, segmentBytes,
+            compactionIntervalMinutes, Duration.ofSeconds(5));
+    }
+
+    ArticleLogStore(InMemoryArticleRepository repository, RssFetcher rssFetcher, ContentEnrichmentQueue enrichmentQueue,
+                    SummaryPipeline summaryPipeline, ArticlePins pins, boolean enabled, String dir, long segmentBytes,
+                    long compactionIntervalMinutes, Duration requeueDelay) {
+        this.repository = repository;
+        this.rssFetcher = rssFetcher;
+        this.enrichmentQueue = enrichmentQueue;
+        this.requeueDelay = requeueDelay;
+        this.summaryPipeline = summaryPipeline;
+        this.pins = pins;
+        if (!enabled) {
+            this.log = null;
+            this.scheduler = null;
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            this.log = SegmentLog.open(Path.of(dir), segmentBytes, this::replay);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open article log in " + dir, e);
+        }
+        System.out.println("Recovered " + repository.count() + " articles and " + sources.size()
+            + " sources from " + dir + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+        Deque<String> pending = new ArrayDeque<>();
+        for (ArticleRecord record : repository.findAll()) {
+            if (record.enrichment() == EnrichmentStatus.PENDING) pending.add(record.link());
+        }
+
+        repository.addListener(this, false);
+        rssFetcher.setFetchStateListener(this::fetchStateChanged);
+        summaryPipeline.setResultListener(result -> append(LogCodec.SUMMARY, LogCodec.summary(result)));
+        pins.setChangeListener((link, pinned) -> append(LogCodec.PIN, LogCodec.pin(link, pinned)));
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+            .name("article-log").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(this::sync, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::compactIfWorthwhile,
+            compactionIntervalMinutes, compactionIntervalMinutes, TimeUnit.MINUTES);
+
+        // Enrichment that was queued when the process stopped has to be queued again
+        requeuePending(pending, requeueDelay);
+    }
+
+    /** Custom sources (name -> url) as recovered from disk. */
+    public synchronized Map<String, String> recoveredSources() {
+        return Map.copyOf(sources);
+    }
+
+    public synchronized void sourceAdded(String name, String url) {
+        if (log == null) return;
+        sources.put(name, url);
+        append(LogCodec.SOURCE_PUT, LogCodec.source(name, url));
+    }
+
+    public synchronized void sourceRemoved(String name) {
+        if (log == null) return;
+        if (sources.remove(name) != null) {
+            append(LogCodec.SOURCE_REMOVE, LogCodec.sourceRemoval(name));
+        }
+    }
+
+    /** Source names each user subscribes to, as recovered from disk. */
+    public synchronized Map<String, Set<String>> recoveredSubscriptions() {
+        Map<String, Set<String>> copy = new LinkedHashMap<>();
+        subscriptions.forEach((user, names) -> copy.put(user, Set.copyOf(names)));
+        return copy;
+    }
+
+    public synchronized void subscriptionChanged(String user, String source, boolean subscribed) {
+        if (log == null) return;
+        applySubscription(user, source, subscribed);
+        append(LogCodec.SUBSCRIPTION, LogCodec.subscription(user, source, subscribed));
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        append(LogCodec.ARTICLE_PUT, LogCodec.article(record));
+    }
+
+    @Override
+    public void onUpdated(ArticleRecord previous, ArticleRecord current) {
+        append(LogCodec.ARTICLE_PUT, LogCodec.article(current));
+    }
+
+    @Override
+    public void onRemoved(ArticleRecord record) {
+        append(LogCodec.ARTICLE_REMOVE, LogCodec.articleRemoval(record.link()));
+    }
+
+    /** Rewrites the log as a snapshot of the current state and drops every older segment. */
+    public void compact() throws IOException {
+        if (log == null) return;
+        long[] written = new long[1];
+        log.compact(sink -> {
+            for (ArticleRecord record : repository.findAll()) {
+                byte[] payload = LogCodec.article(record);
+                sink.append(LogCodec.ARTICLE_PUT, payload);
+                written[0] += payload.length;
+            }
+            for (Map.Entry<String, String> source : recoveredSources().entrySet()) {
+                sink.append(LogCodec.SOURCE_PUT, LogCodec.source(source.getKey(), source.getValue()));
+            }
+            for (Map.Entry<String, Set<String>> user : recoveredSubscriptions().entrySet()) {
+                // A user who unsubscribed from everything still has a set, recreated by one unsubscription
+                if (user.getValue().isEmpty()) {
+                    sink.append(LogCodec.SUBSCRIPTION, LogCodec.subscription(user.getKey(), "", false));
+                }
+                for (String name : user.getValue()) {
+                    sink.append(LogCodec.SUBSCRIPTION, LogCodec.subscription(user.getKey(), name, true));
+                }
+            }
+            for (Map.Entry<String, FeedFetchState> state : rssFetcher.fetchStates().entrySet()) {
+                sink.append(LogCodec.FETCH_STATE, LogCodec.fetchState(state.getKey(), state.getValue()));
+            }
+            for (SummaryResult result : summaryPipeline.results()) {
+                // Summaries of removed articles are not worth carrying over
+                if (repository.findById(result.articleId()).isEmpty()) continue;
+                sink.append(LogCodec.SUMMARY, LogCodec.summary(result));
+            }
+            for (String link : pins.pinned()) {
+                sink.append(LogCodec.PIN, LogCodec.pin(link, true));
+            }
+        });
+        liveBytesAfterCompaction = written[0];
+    }
+
+    private void replay(byte type, java.nio.ByteBuffer payload) {
+        switch (type) {
+            case LogCodec.ARTICLE_PUT -> repository.save(LogCodec.readArticle(payload));
+            case LogCodec.SOURCE_PUT -> sources.put(LogCodec.readString(payload), LogCodec.readString(payload));
+            case LogCodec.SOURCE_REMOVE -> sources.remove(LogCodec.readString(payload));
+            case LogCodec.FETCH_STATE -> rssFetcher.restoreFetchState(LogCodec.readString(payload),
+                LogCodec.readFetchState(payload));
+            case LogCodec.SUMMARY -> summaryPipeline.restore(LogCodec.readSummary(payload));
+            case LogCodec.ARTICLE_REMOVE -> repository.remove(LogCodec.readString(payload));
+            case LogCodec.PIN -> pins.restore(LogCodec.readString(payload), payload.get() != 0);
+            case LogCodec.FETCH_STATE_REMOVE -> rssFetcher.forgetFetchState(LogCodec.readString(payload));
+            case LogCodec.SUBSCRIPTION -> applySubscription(LogCodec.readString(payload), LogCodec.readString(payload),
+                payload.get() != 0);
+            default -> System.err.println("Skipping unknown article log frame type " + type);
+        }
+    }
+
+    private void applySubscription(String user, String source, boolean subscribed) {
+        Set<String> names = subscriptions.computeIfAbsent(user, u -> new LinkedHashSet<>());
+        if (subscribed) names.add(source); else names.remove(source);
+    }
+
+    private void fetchStateChanged(String feedUrl, FeedFetchState state) {
+        if (state == null) {
+            append(LogCodec.FETCH_STATE_REMOVE, LogCodec.fetchStateRemoval(feedUrl));
+        } else {
+            append(LogCodec.FETCH_STATE, LogCodec.fetchState(feedUrl, state));
+        }
+    }
+
+    private void append(byte type, byte[] payload) {
+        if (log == null) return;
+        try {
+            log.append(type, payload);
+        } catch (IOException e) {
+            System.err.println("Failed to append to article log - " + e.getMessage());
+        }
+    }
+
+    private void sync() {
+        try {
+            log.sync();
+        } catch (IOException e) {
+            System.err.println("Failed to sync article log - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Submits recovered articles that still wait for enrichment until the
+     * queue is full, then tries the rest again after {@code delay}. The delay
+     * doubles while the queue stays full and starts over once some fit.
+     */
+    private void requeuePending(Deque<String> links, Duration delay) {
+        int before = links.size();
+        while (!links.isEmpty()) {
+            // Enriched or removed since recovery: nothing left to do for it
+            ArticleRecord record = repository.findByUrl(links.peekFirst()).orElse(null);
+            if (record != null && record.enrichment() == EnrichmentStatus.PENDING
+                && !enrichmentQueue.submit(record.link(), record.summary())) {
+                break;
+            }
+            links.pollFirst();
+        }
+        if (links.isEmpty()) return;
+        Duration next = links.size() < before ? requeueDelay : delay.multipliedBy(2);
+        if (next.compareTo(MAX_REQUEUE_DELAY) > 0) next = MAX_REQUEUE_DELAY;
+        Duration delayAfter = next;
+        System.out.println("Enrichment queue is full, " + links.size() + " recovered articles wait "
+            + next.toSeconds() + " s");
+        scheduler.schedule(() -> requeuePending(links, delayAfter), next.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Compacts once the frames appended since the last compaction outweigh the live data. */
+    private void compactIfWorthwhile() {
+        if (log.bytesSinceCompaction() < Math.max(MIN_COMPACTION_BYTES, liveBytesAfterCompaction)) return;
+        try {
+            long start = System.nanoTime();
+            compact();
+            System.out.println("Compacted article log in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Article log compaction failed - " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (log == null) return;
+        scheduler.shutdownNow();
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close article log - " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.devspark.storage;
+
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.EnrichmentStatus;
+import com.devspark.ingestion.FeedFetchState;
+import com.devspark.ingestion.MinHash;
+import com.devspark.summary.SummaryResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/** Binary encoding of the frames stored in the article log. */
+final class LogCodec {
+
+    static final byte ARTICLE_PUT = 1;
+    static final byte SOURCE_PUT = 2;
+    static final byte SOURCE_REMOVE = 3;
+    static final byte FETCH_STATE = 4;
+    static final byte SUMMARY = 5;
+    static final byte ARTICLE_REMOVE = 6;
+    static final byte PIN = 7;
+    static final byte SUBSCRIPTION = 8;
+    static final byte FETCH_STATE_REMOVE = 9;
+
+    private LogCodec() {}
+
+    static byte[] article(ArticleRecord record) {
+        return write(out -> {
+            writeString(out, record.title());
+            writeString(out, record.link());
+            writeString(out, record.source());
+            Instant published = record.publishedDate();
+            out.writeBoolean(published != null);
+            if (published != null) {
+                out.writeLong(published.getEpochSecond());
+                out.writeInt(published.getNano());
+            }
+            writeString(out, record.summary());
+            writeString(out, record.content());
+            writeString(out, record.imageUrl());
+            out.writeByte(record.enrichment().code());
+            MinHash signature = record.signature();
+            out.writeByte(signature != null ? MinHash.SIZE : 0);
+            if (signature != null) {
+                for (int i = 0; i < MinHash.SIZE; i++) out.writeInt(signature.slot(i));
+            }
+            writeString(out, record.clusterId());
+        });
+    }
+
+    static ArticleRecord readArticle(ByteBuffer in) {
+        String title = readString(in);
+        String link = readString(in);
+        String source = readString(in);
+        Instant published = in.get() != 0 ? Instant.ofEpochSecond(in.getLong(), in.getInt()) : null;
+        String summary = readString(in);
+        String content = readString(in);
+        String imageUrl = readString(in);
+        EnrichmentStatus enrichment = EnrichmentStatus.ofCode(in.get());
+        // Frames written before duplicate detection end here
+        MinHash signature = null;
+        String clusterId = null;
+        if (in.hasRemaining()) {
+            int[] slots = new int[in.get()];
+            for (int i = 0; i < slots.length; i++) slots[i] = in.getInt();
+            signature = slots.length > 0 ? MinHash.fromSlots(slots) : null;
+            clusterId = readString(in);
+        }
+        return new ArticleRecord(title, link, source, published, summary, content, imageUrl, enrichment,
+            signature, clusterId);
+    }
+
+    static byte[] articleRemoval(String link) {
+        return write(out -> writeString(out, link));
+    }
+
+    static byte[] pin(String link, boolean pinned) {
+        return write(out -> {
+            writeString(out, link);
+            out.writeBoolean(pinned);
+        });
+    }
+
+    static byte[] subscription(String user, String source, boolean subscribed) {
+        return write(out -> {
+            writeString(out, user);
+            writeString(out, source);
+            out.writeBoolean(subscribed);
+        });
+    }
+
+    static byte[] source(String name, String url) {
+        return write(out -> {
+            writeString(out, name);
+            writeString(out, url);
+        });
+    }
+
+    static byte[] sourceRemoval(String name) {
+        return write(out -> writeString(out, name));
+    }
+
+    static byte[] fetchState(String feedUrl, FeedFetchState state) {
+        return write(out -> {
+            writeString(out, feedUrl);
+            writeString(out, state.etag());
+            writeString(out, state.lastModified());
+            writeString(out, state.contentHash());
+            out.writeInt(state.itemGuids().size());
+            for (String guid : state.itemGuids()) writeString(out, guid);
+        });
+    }
+
+    static byte[] fetchStateRemoval(String feedUrl) {
+        return write(out -> writeString(out, feedUrl));
+    }
+
+    static FeedFetchState readFetchState(ByteBuffer in) {
+        String etag = readString(in);
+        String lastModified = readString(in);
+        String contentHash = readString(in);
+        int count = in.getInt();
+        Set<String> guids = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) guids.add(readString(in));
+        return new FeedFetchState(etag, lastModified, contentHash, Set.copyOf(guids));
+    }
+
+    static byte[] summary(SummaryResult result) {
+        return write(out -> {
+            writeString(out, result.articleId());
+            writeString(out, result.contentHash());
+            writeString(out, result.summaryText());
+        });
+    }
+
+    static SummaryResult readSummary(ByteBuffer in) {
+        return new SummaryResult(readString(in), readString(in), readString(in));
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] write(Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
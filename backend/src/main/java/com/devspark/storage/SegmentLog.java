@@ -0,0 +1,277 @@
+package com.devspark.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of typed, checksummed frames split across segment files.
+ *
+ * A frame is {@code [int length][int crc32c][byte type][payload]}, where the
+ * length and checksum cover the type byte and payload. Segments are named
+ * {@code segment-<id>-<part>.log} and replayed in (id, part) order through a
+ * read-only memory map. Replay of a segment stops at the first frame that is
+ * truncated or fails its checksum; for the newest segment that is a torn
+ * write and the tail is cut off.
+ *
+ * Compaction rolls appends over to a fresh segment, writes a snapshot of the
+ * live state into the id just before it, and then deletes everything older.
+ * Replay is last-writer-wins, so a frame that lands both in the snapshot and
+ * in the new segment is harmless.
+ */
+final class SegmentLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)-(\\d+)\\.log");
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    /** Receives each frame during replay; {@code payload} is only valid during the call. */
+    interface FrameHandler {
+        void accept(byte type, ByteBuffer payload);
+    }
+
+    /** Destination for frames written by a snapshot. */
+    interface FrameSink {
+        void append(byte type, byte[] payload) throws IOException;
+    }
+
+    /** Writes the complete live state as frames. */
+    interface Snapshot {
+        void writeTo(FrameSink sink) throws IOException;
+    }
+
+    private record Segment(long id, int part, Path path) {}
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+    private final CRC32C crc = new CRC32C();
+    private FileChannel active;
+    private long activeId;
+    private int activePart;
+    private long activeBytes;
+    private long bytesSinceCompaction;
+
+    private SegmentLog(Path dir, long maxSegmentBytes) {
+        this.dir = dir;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /** Opens the log in {@code dir}, replaying every existing frame into {@code handler}. */
+    static SegmentLog open(Path dir, long maxSegmentBytes, FrameHandler handler) throws IOException {
+        Files.createDirectories(dir);
+        SegmentLog log = new SegmentLog(dir, maxSegmentBytes);
+        log.deleteIncompleteCompactions();
+
+        List<Segment> segments = new ArrayList<>(log.listSegments());
+        // A segment opened just before a shutdown may never have been written to
+        while (!segments.isEmpty() && Files.size(segments.get(segments.size() - 1).path()) == 0) {
+            Files.delete(segments.remove(segments.size() - 1).path());
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            long validBytes = replay(segment.path(), handler);
+            long size = Files.size(segment.path());
+            if (validBytes < size) {
+                if (i == segments.size() - 1) {
+                    try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.WRITE)) {
+                        channel.truncate(validBytes);
+                    }
+                }
+                System.err.println("Discarded " + (size - validBytes) + " corrupt bytes at the end of " + segment.path());
+            }
+        }
+
+        long nextId = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).id() + 1;
+        log.openActive(nextId, 0);
+        return log;
+    }
+
+    synchronized void append(byte type, byte[] payload) throws IOException {
+        int frameBytes = HEADER_BYTES + 1 + payload.length;
+        if (activeBytes > 0 && activeBytes + frameBytes > maxSegmentBytes) {
+            active.close();
+            openActive(activeId, activePart + 1);
+        }
+        ByteBuffer frame = frame(crc, type, payload);
+        while (frame.hasRemaining()) active.write(frame);
+        activeBytes += frameBytes;
+        bytesSinceCompaction += frameBytes;
+    }
+
+    /** Forces appended frames to disk. */
+    synchronized void sync() throws IOException {
+        active.force(false);
+    }
+
+    /** Bytes appended since the log was opened or last compacted. */
+    synchronized long bytesSinceCompaction() {
+        return bytesSinceCompaction;
+    }
+
+    /**
+     * Replaces every existing segment with {@code snapshot}. Appends made while
+     * the snapshot is written go to a new segment that replays after it.
+     */
+    void compact(Snapshot snapshot) throws IOException {
+        long snapshotId;
+        synchronized (this) {
+            active.force(false);
+            active.close();
+            snapshotId = activeId + 1;
+            openActive(activeId + 2, 0);
+            bytesSinceCompaction = 0;
+        }
+
+        List<Segment> obsolete = listSegments().stream().filter(s -> s.id() < snapshotId).toList();
+        List<Path> written = new ArrayList<>();
+        SnapshotWriter writer = new SnapshotWriter(snapshotId, written);
+        try {
+            snapshot.writeTo(writer);
+            writer.finish();
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            for (Path path : written) Files.deleteIfExists(path);
+            throw e;
+        }
+
+        // Only once the whole snapshot is durable do the temporary files become segments
+        for (Path path : written) {
+            String name = path.getFileName().toString();
+            Files.move(path, dir.resolve(name.substring(0, name.length() - COMPACT_SUFFIX.length())),
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+        for (Segment segment : obsolete) Files.deleteIfExists(segment.path());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active.isOpen()) {
+            active.force(false);
+            active.close();
+        }
+    }
+
+    private void openActive(long id, int part) throws IOException {
+        activeId = id;
+        activePart = part;
+        active = FileChannel.open(dir.resolve(segmentName(id, part)),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeBytes = active.size();
+    }
+
+    private static ByteBuffer frame(CRC32C crc, byte type, byte[] payload) {
+        crc.reset();
+        crc.update(type);
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + 1 + payload.length);
+        frame.putInt(1 + payload.length).putInt((int) crc.getValue()).put(type).put(payload).flip();
+        return frame;
+    }
+
+    /** Replays one segment and returns the length of its valid prefix. */
+    private static long replay(Path path, FrameHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) return 0;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 1 || length > buffer.remaining()) return start;
+
+                ByteBuffer body = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) return start;
+
+                byte type = body.get();
+                handler.accept(type, body.slice());
+                buffer.position(buffer.position() + length);
+            }
+            return buffer.position();
+        }
+    }
+
+    private List<Segment> listSegments() throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(path -> {
+                Matcher m = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (m.matches()) segments.add(new Segment(Long.parseLong(m.group(1)), Integer.parseInt(m.group(2)), path));
+            });
+        }
+        segments.sort((a, b) -> a.id() != b.id() ? Long.compare(a.id(), b.id()) : Integer.compare(a.part(), b.part()));
+        return segments;
+    }
+
+    private void deleteIncompleteCompactions() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.filter(p -> p.getFileName().toString().endsWith(COMPACT_SUFFIX)).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static String segmentName(long id, int part) {
+        return String.format("segment-%016d-%04d.log", id, part);
+    }
+
+    /** Writes snapshot frames into temporary part files, rolling at the segment size. */
+    private final class SnapshotWriter implements FrameSink {
+        private final long id;
+        private final List<Path> written;
+        private FileChannel channel;
+        private final CRC32C snapshotCrc = new CRC32C();
+        private long bytes;
+
+        SnapshotWriter(long id, List<Path> written) {
+            this.id = id;
+            this.written = written;
+        }
+
+        @Override
+        public void append(byte type, byte[] payload) throws IOException {
+            int frameBytes = HEADER_BYTES + 1 + payload.length;
+            if (channel == null || (bytes > 0 && bytes + frameBytes > maxSegmentBytes)) nextPart();
+            ByteBuffer frame = frame(snapshotCrc, type, payload);
+            while (frame.hasRemaining()) channel.write(frame);
+            bytes += frameBytes;
+        }
+
+        private void nextPart() throws IOException {
+            finish();
+            Path path = dir.resolve(segmentName(id, written.size()) + COMPACT_SUFFIX);
+            written.add(path);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            bytes = 0;
+        }
+
+        void finish() throws IOException {
+            if (channel != null) {
+                channel.force(true);
+                channel.close();
+                channel = null;
+            }
+        }
+
+        void abort() {
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException ignored) {}
+        }
+    }
+}
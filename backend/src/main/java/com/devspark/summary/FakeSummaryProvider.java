@@ -1,8 +1,40 @@
 package com.devspark.summary;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 class FakeSummaryProvider implements SummaryProvider {
+    private final long latencyMs;
+    final AtomicInteger calls = new AtomicInteger();
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger peakRunning = new AtomicInteger();
+
+    FakeSummaryProvider() {
+        this(0);
+    }
+
+    /** Sleeps {@code latencyMs} per call, the way a remote model would. */
+    FakeSummaryProvider(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
     @Override
     public String summarize(String articleId) {
         return "summary for " + articleId;
     }
+
+    @Override
+    public List<String> summarizeAll(List<String> articleIds) {
+        calls.incrementAndGet();
+        peakRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        } finally {
+            running.decrementAndGet();
+        }
+        return SummaryProvider.super.summarizeAll(articleIds);
+    }
 }
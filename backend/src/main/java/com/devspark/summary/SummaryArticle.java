@@ -4,4 +4,8 @@ public record SummaryArticle(String id, SummaryStatus status, String summaryText
     SummaryArticle withSummary(String summary) {
         return new SummaryArticle(id, SummaryStatus.SUCCEEDED, summary);
     }
+
+    SummaryArticle withFailure() {
+        return new SummaryArticle(id, SummaryStatus.FAILED, summaryText);
+    }
 }
@@ -0,0 +1,31 @@
+package com.devspark.summary;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/summaries")
+public class SummaryController {
+
+    private final SummaryPipeline pipeline;
+
+    public SummaryController(SummaryPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /** Summary state of one article, by article id. */
+    @GetMapping("/{articleId}")
+    public ResponseEntity<SummaryArticle> summary(@PathVariable String articleId) {
+        return pipeline.get(articleId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<SummaryStats> stats() {
+        return ResponseEntity.ok(pipeline.stats());
+    }
+}
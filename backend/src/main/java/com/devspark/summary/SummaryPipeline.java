@@ -0,0 +1,339 @@
+package com.devspark.summary;
+
+import com.devspark.ingestion.ArticleIds;
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ArticleRepositoryListener;
+import com.devspark.ingestion.EnrichmentStatus;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs every stored article through the {@link SummaryProvider}.
+ *
+ * Articles are queued as they are saved (once any full-content enrichment
+ * has finished). A dispatcher thread drains up to {@code batch-size} ready
+ * articles at a time and hands each batch to a virtual thread, with at most
+ * {@code max-concurrency} batches in flight. Summaries are cached by a hash
+ * of the article's title and content: an article whose content was already
+ * summarised, or is being summarised right now, reuses that result instead
+ * of calling the provider again. Failed batches are retried with exponential
+ * backoff up to {@code max-attempts}.
+ *
+ * Without a {@link SummaryProvider} bean the pipeline stays idle.
+ */
+@Component
+public class SummaryPipeline implements ArticleRepositoryListener {
+
+    private final SummaryProvider provider;
+    private final Function<String, String> contentLookup;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final Semaphore batchPermits;
+    private final DelayQueue<Work> queue = new DelayQueue<>();
+    private final Map<String, SummaryArticle> articles = new ConcurrentHashMap<>();
+    private final Map<String, String> hashByArticle = new ConcurrentHashMap<>();
+    private final Map<String, String> summaryByHash = new ConcurrentHashMap<>();
+    /** Content hashes with a provider call in flight, and the work waiting on each. */
+    private final Map<String, List<Work>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder providerCalls = new LongAdder();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile Consumer<SummaryResult> resultListener = result -> {};
+    private Thread dispatcher;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public SummaryPipeline(InMemoryArticleRepository repository,
+                           Optional<SummaryProvider> provider,
+                           @Value("${devspark.summary.batch-size:8}") int batchSize,
+                           @Value("${devspark.summary.max-concurrency:4}") int maxConcurrency,
+                           @Value("${devspark.summary.max-attempts:3}") int maxAttempts,
+                           @Value("${devspark.summary.backoff-ms:2000}") long backoffMs) {
+        this(provider.orElse(null),
+            id -> repository.findById(id).map(SummaryPipeline::summarisedText).orElse(null),
+            batchSize, maxConcurrency, maxAttempts, backoffMs);
+        if (this.provider != null) repository.addListener(this, true);
+    }
+
+    /**
+     * {@code contentLookup} maps an article id to the text the summary is made
+     * from, or null once the article is gone.
+     */
+    SummaryPipeline(SummaryProvider provider, Function<String, String> contentLookup,
+                    int batchSize, int maxConcurrency, int maxAttempts, long backoffMs) {
+        this.provider = provider;
+        this.contentLookup = contentLookup;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        this.batchPermits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Starts dispatching once the application is up, so summaries recovered
+     * from disk are restored before any queued article is looked at.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (provider == null || dispatcher != null) return;
+        dispatcher = Thread.ofPlatform().name("summary-dispatcher").daemon(true).start(this::dispatch);
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        if (record.enrichment() != EnrichmentStatus.PENDING) submit(ArticleIds.of(record.link()));
+    }
+
+    @Override
+    public void onUpdated(ArticleRecord previous, ArticleRecord current) {
+        if (current.enrichment() == EnrichmentStatus.PENDING) return;
+        if (previous.enrichment() == EnrichmentStatus.PENDING
+            || !Objects.equals(summarisedText(previous), summarisedText(current))) {
+            submit(ArticleIds.of(current.link()));
+        }
+    }
+
+    @Override
+    public void onRemoved(ArticleRecord record) {
+        String id = ArticleIds.of(record.link());
+        articles.remove(id);
+        String hash = hashByArticle.remove(id);
+        // Another article with the same content may still want this, but it only costs a provider call
+        if (hash != null) summaryByHash.remove(hash);
+    }
+
+    /** Queues an article for summarising; cheap, the content is only read when it is dispatched. */
+    public void submit(String articleId) {
+        if (provider == null) return;
+        articles.compute(articleId, (id, current) -> current != null && current.status() == SummaryStatus.SUCCEEDED
+            ? current : new SummaryArticle(id, SummaryStatus.PENDING, null));
+        queue.add(new Work(articleId, null, 1, System.nanoTime()));
+    }
+
+    public Optional<SummaryArticle> get(String articleId) {
+        return Optional.ofNullable(articles.get(articleId));
+    }
+
+    public SummaryStats stats() {
+        int pending = 0;
+        int succeeded = 0;
+        int failed = 0;
+        for (SummaryArticle article : articles.values()) {
+            switch (article.status()) {
+                case PENDING -> pending++;
+                case SUCCEEDED -> succeeded++;
+                case FAILED -> failed++;
+            }
+        }
+        return new SummaryStats(pending, succeeded, failed, cacheHits.sum(), providerCalls.sum());
+    }
+
+    /** Seeds a summary recovered from disk; it also serves as a cache entry for its content. */
+    public void restore(SummaryResult result) {
+        summaryByHash.put(result.contentHash(), result.summaryText());
+        hashByArticle.put(result.articleId(), result.contentHash());
+        articles.put(result.articleId(),
+            new SummaryArticle(result.articleId(), SummaryStatus.SUCCEEDED, result.summaryText()));
+    }
+
+    /** Every finished summary, for snapshotting. */
+    public List<SummaryResult> results() {
+        List<SummaryResult> results = new ArrayList<>();
+        articles.forEach((id, article) -> {
+            String hash = hashByArticle.get(id);
+            if (article.status() == SummaryStatus.SUCCEEDED && hash != null) {
+                results.add(new SummaryResult(id, hash, article.summaryText()));
+            }
+        });
+        return results;
+    }
+
+    /** Called with every summary the pipeline finishes. */
+    public void setResultListener(Consumer<SummaryResult> listener) {
+        this.resultListener = listener;
+    }
+
+    private void dispatch() {
+        List<Work> ready = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ready.add(queue.take());
+                queue.drainTo(ready, batchSize - 1);
+
+                List<Work> batch = new ArrayList<>(ready.size());
+                for (Work work : ready) {
+                    Work resolved = resolve(work);
+                    if (resolved != null) batch.add(resolved);
+                }
+                ready.clear();
+                if (batch.isEmpty()) continue;
+
+                batchPermits.acquire();
+                executor.execute(() -> {
+                    try {
+                        run(batch);
+                    } finally {
+                        batchPermits.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hashes the article's content and settles it from the cache if possible.
+     * Returns the work to send to the provider, or null if nothing is left to do.
+     */
+    private Work resolve(Work work) {
+        String text = contentLookup.apply(work.articleId());
+        if (text == null) {
+            articles.remove(work.articleId());
+            hashByArticle.remove(work.articleId());
+            return null;
+        }
+        String hash = work.contentHash() != null ? work.contentHash() : contentHash(text);
+        work = new Work(work.articleId(), hash, work.attempt(), work.readyAtNanos());
+
+        SummaryArticle current = articles.get(work.articleId());
+        if (current != null && current.status() == SummaryStatus.SUCCEEDED && hash.equals(hashByArticle.get(work.articleId()))) {
+            return null;
+        }
+        String cached = summaryByHash.get(hash);
+        if (cached != null) {
+            cacheHits.increment();
+            succeed(work, cached);
+            return null;
+        }
+        // Identical content already on its way to the provider: wait for that result
+        Work claimed = work;
+        boolean[] first = new boolean[1];
+        inFlight.compute(hash, (h, waiting) -> {
+            if (waiting == null) {
+                first[0] = true;
+                return new ArrayList<>();
+            }
+            waiting.add(claimed);
+            return waiting;
+        });
+        return first[0] ? work : null;
+    }
+
+    private void run(List<Work> batch) {
+        List<String> summaries;
+        try {
+            providerCalls.increment();
+            summaries = provider.summarizeAll(batch.stream().map(Work::articleId).toList());
+            if (summaries == null || summaries.size() != batch.size()) {
+                throw new IllegalStateException("provider returned " + (summaries == null ? "null" : summaries.size())
+                    + " summaries for " + batch.size() + " articles");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Summary batch of " + batch.size() + " failed - " + e.getMessage());
+            for (Work work : batch) fail(work);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String summary = summaries.get(i);
+            if (summary != null) {
+                summaryByHash.put(batch.get(i).contentHash(), summary);
+                succeed(batch.get(i), summary);
+                for (Work waiting : releaseWaiting(batch.get(i))) {
+                    cacheHits.increment();
+                    succeed(waiting, summary);
+                }
+            } else {
+                fail(batch.get(i));
+            }
+        }
+    }
+
+    private void succeed(Work work, String summary) {
+        hashByArticle.put(work.articleId(), work.contentHash());
+        articles.compute(work.articleId(), (id, current) ->
+            (current != null ? current : new SummaryArticle(id, SummaryStatus.PENDING, null)).withSummary(summary));
+        resultListener.accept(new SummaryResult(work.articleId(), work.contentHash(), summary));
+    }
+
+    /** Schedules a retry, leaving the article PENDING, or marks it FAILED once attempts run out. */
+    private void fail(Work work) {
+        List<Work> retry = new ArrayList<>(releaseWaiting(work));
+        if (work.attempt() < maxAttempts) {
+            retry.add(new Work(work.articleId(), work.contentHash(), work.attempt() + 1,
+                System.nanoTime() + (baseBackoffNanos << (work.attempt() - 1))));
+        } else {
+            articles.computeIfPresent(work.articleId(), (id, current) -> current.withFailure());
+            System.err.println("Giving up on summary for article " + work.articleId());
+        }
+        // Articles that were waiting on the same content retry on their own schedule
+        for (Work waiting : retry) {
+            queue.add(waiting.articleId().equals(work.articleId()) ? waiting
+                : new Work(waiting.articleId(), waiting.contentHash(), waiting.attempt(),
+                    System.nanoTime() + (baseBackoffNanos << (waiting.attempt() - 1))));
+        }
+    }
+
+    private List<Work> releaseWaiting(Work work) {
+        List<Work> waiting = inFlight.remove(work.contentHash());
+        return waiting != null ? waiting : List.of();
+    }
+
+    private static String summarisedText(ArticleRecord record) {
+        String content = record.content();
+        return record.title() + "\n" + (content != null ? content : record.summary());
+    }
+
+    static String contentHash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (dispatcher != null) dispatcher.interrupt();
+        executor.shutdownNow();
+    }
+
+    /** {@code contentHash} is filled in once the article's content has been read. */
+    private record Work(String articleId, String contentHash, int attempt, long readyAtNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(readyAtNanos, ((Work) other).readyAtNanos);
+        }
+    }
+}
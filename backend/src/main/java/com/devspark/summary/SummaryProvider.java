@@ -1,5 +1,19 @@
 package com.devspark.summary;
 
+import java.util.ArrayList;
+import java.util.List;
+
 interface SummaryProvider {
     String summarize(String articleId);
+
+    /**
+     * Summarises several articles in one call and returns the summaries in
+     * request order. Providers whose backend accepts batches should override
+     * this; the default makes one call per article.
+     */
+    default List<String> summarizeAll(List<String> articleIds) {
+        List<String> summaries = new ArrayList<>(articleIds.size());
+        for (String articleId : articleIds) summaries.add(summarize(articleId));
+        return summaries;
+    }
 }
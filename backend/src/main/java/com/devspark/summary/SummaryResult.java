@@ -0,0 +1,4 @@
+package com.devspark.summary;
+
+/** A finished summary and the hash of the content it was made from. */
+public record SummaryResult(String articleId, String contentHash, String summaryText) {}
@@ -0,0 +1,7 @@
+package com.devspark.summary;
+
+/**
+ * Pipeline counters. {@code cacheHits} counts articles whose content had
+ * already been summarised; {@code providerCalls} counts batches sent.
+ */
+public record SummaryStats(int pending, int succeeded, int failed, long cacheHits, long providerCalls) {}
@@ -0,0 +1,6 @@
+package com.devspark.topics;
+
+import java.time.LocalDate;
+
+/** Number of a topic's articles published on one day (UTC). */
+public record TimelineBucket(LocalDate day, int articles) {}
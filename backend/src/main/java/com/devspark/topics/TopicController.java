@@ -0,0 +1,57 @@
+package com.devspark.topics;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.devspark.feed.ArticleSummary;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.NearDuplicateIndex;
+
+@RestController
+@RequestMapping("/api/topics")
+public class TopicController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final TopicEngine topicEngine;
+    private final InMemoryArticleRepository repository;
+    private final NearDuplicateIndex nearDuplicates;
+
+    public TopicController(TopicEngine topicEngine, InMemoryArticleRepository repository,
+                           NearDuplicateIndex nearDuplicates) {
+        this.topicEngine = topicEngine;
+        this.repository = repository;
+        this.nearDuplicates = nearDuplicates;
+    }
+
+    /** Topics mentioned by at least two stored articles, most written about first. */
+    @GetMapping
+    public ResponseEntity<List<TopicSummary>> topics(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(topicEngine.topics(clamp(limit, 20)));
+    }
+
+    /** Articles per day about a topic over the last {@code days} days, and its newest articles. */
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<TopicTimelineResponse> timeline(@PathVariable String id,
+                                                          @RequestParam(defaultValue = "30") int days,
+                                                          @RequestParam(defaultValue = "10") int limit) {
+        return topicEngine.timeline(id, days, clamp(limit, 10))
+            .map(timeline -> ResponseEntity.ok(new TopicTimelineResponse(timeline.topic(), timeline.buckets(),
+                timeline.links().stream()
+                    .map(repository::findByUrl)
+                    .flatMap(Optional::stream)
+                    .map(record -> ArticleSummary.of(record, nearDuplicates.clusterSize(record.clusterId())))
+                    .toList())))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static int clamp(int limit, int defaultLimit) {
+        return limit > 0 ? Math.min(limit, MAX_LIMIT) : defaultLimit;
+    }
+}
@@ -0,0 +1,218 @@
+package com.devspark.topics;
+
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ArticleRepositoryListener;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Topic spaces: the keywords and named entities articles are about, each
+ * with a timeline of how many articles mention it per day and its newest
+ * articles.
+ *
+ * Topics are taken from an article's title and summary by
+ * {@link TopicExtractor} once, when the repository stores it, and the
+ * article's topics are kept so that removing it, e.g. when it expires,
+ * undoes exactly what adding it did. Every topic keeps its articles in a
+ * newest-first set and its counts in a map of days, and topics with at least
+ * {@value #MIN_ARTICLES} articles are kept in a set ordered by article count.
+ * Each change touches only the article's own topics, and reads walk only what
+ * they return, so neither depends on how many articles are stored.
+ */
+@Component
+public class TopicEngine implements ArticleRepositoryListener {
+
+    /** A topic is listed once this many articles mention it; one mention is mostly noise. */
+    static final int MIN_ARTICLES = 2;
+    static final int MAX_DAYS = 365;
+
+    private static final Comparator<Topic> BY_SIZE = Comparator.comparingInt((Topic topic) -> -topic.count)
+        .thenComparing(topic -> topic.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Topic> topics = new HashMap<>();
+    private final Map<String, Tagged> byLink = new HashMap<>();
+    private final NavigableSet<Topic> ranking = new TreeSet<>(BY_SIZE);
+    private final Clock clock;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public TopicEngine(InMemoryArticleRepository repository) {
+        this(Clock.systemUTC());
+        repository.addListener(this, true);
+    }
+
+    /** Engine that is only fed through the listener callbacks. */
+    TopicEngine(Clock clock) {
+        this.clock = clock;
+    }
+
+    /** An article's place in its topics' article sets: newest first, date-less articles last. */
+    private record Member(long publishedMillis, String link) implements Comparable<Member> {
+        @Override
+        public int compareTo(Member other) {
+            int byDate = Long.compare(other.publishedMillis, publishedMillis);
+            return byDate != 0 ? byDate : link.compareTo(other.link);
+        }
+    }
+
+    /** Sorts before every date-less article and after every dated one. */
+    private static final Member UNDATED = new Member(Long.MIN_VALUE, "");
+
+    /** What adding an article did, so removing it can undo it. */
+    private record Tagged(Member member, List<String> topicIds) {}
+
+    private static final class Topic {
+        final String id;
+        String label;
+        /** Kept equal to {@code articles.size()}; only changed while the topic is out of the ranking. */
+        int count;
+        final NavigableSet<Member> articles = new TreeSet<>();
+        final Map<Long, Integer> days = new HashMap<>();
+
+        Topic(String id, String label) {
+            this.id = id;
+            this.label = label;
+        }
+
+        TopicSummary summary() {
+            Member oldestDated = articles.lower(UNDATED);
+            if (oldestDated == null) return new TopicSummary(id, label, count, null, null);
+            return new TopicSummary(id, label, count, Instant.ofEpochMilli(oldestDated.publishedMillis()),
+                Instant.ofEpochMilli(articles.first().publishedMillis()));
+        }
+    }
+
+    @Override
+    public void onSaved(ArticleRecord record) {
+        Map<String, String> extracted = TopicExtractor.extract(record.title(), record.summary());
+        if (extracted.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            if (!byLink.containsKey(record.link())) add(record, extracted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdated(ArticleRecord previous, ArticleRecord current) {
+        // Only the text topics are taken from, and the date they are filed under, matter
+        if (Objects.equals(previous.title(), current.title())
+            && Objects.equals(previous.summary(), current.summary())
+            && Objects.equals(previous.publishedDate(), current.publishedDate())
+            && previous.link().equals(current.link())) return;
+        Map<String, String> extracted = TopicExtractor.extract(current.title(), current.summary());
+        lock.writeLock().lock();
+        try {
+            remove(previous.link());
+            if (!extracted.isEmpty()) add(current, extracted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemoved(ArticleRecord record) {
+        lock.writeLock().lock();
+        try {
+            remove(record.link());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} topics with at least {@value #MIN_ARTICLES} articles, most articles first. */
+    public List<TopicSummary> topics(int limit) {
+        lock.readLock().lock();
+        try {
+            List<TopicSummary> result = new ArrayList<>(Math.min(limit, ranking.size()));
+            Iterator<Topic> it = ranking.iterator();
+            while (result.size() < limit && it.hasNext()) result.add(it.next().summary());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Daily counts of a topic for the {@code days} days up to and including
+     * today, with a bucket for every day, and the links of its {@code limit}
+     * newest articles. Empty for an unknown topic.
+     */
+    public Optional<TopicTimeline> timeline(String id, int days, int limit) {
+        long today = LocalDate.now(clock.withZone(ZoneOffset.UTC)).toEpochDay();
+        int span = Math.max(1, Math.min(days, MAX_DAYS));
+        lock.readLock().lock();
+        try {
+            Topic topic = topics.get(id);
+            if (topic == null) return Optional.empty();
+            List<TimelineBucket> buckets = new ArrayList<>(span);
+            for (long day = today - span + 1; day <= today; day++) {
+                buckets.add(new TimelineBucket(LocalDate.ofEpochDay(day), topic.days.getOrDefault(day, 0)));
+            }
+            List<String> links = new ArrayList<>(Math.min(limit, topic.count));
+            Iterator<Member> it = topic.articles.iterator();
+            while (links.size() < limit && it.hasNext()) links.add(it.next().link());
+            return Optional.of(new TopicTimeline(topic.summary(), buckets, links));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ArticleRecord record, Map<String, String> extracted) {
+        Instant published = record.publishedDate();
+        Member member = new Member(published != null ? published.toEpochMilli() : Long.MIN_VALUE, record.link());
+        extracted.forEach((id, label) -> {
+            Topic topic = topics.computeIfAbsent(id, key -> new Topic(key, label));
+            // A name written with capitals reads better than the lower-cased keyword
+            if (topic.label.equals(id) && !label.equals(id)) topic.label = label;
+            ranking.remove(topic);
+            topic.articles.add(member);
+            topic.count = topic.articles.size();
+            if (published != null) topic.days.merge(dayOf(published), 1, Integer::sum);
+            if (topic.count >= MIN_ARTICLES) ranking.add(topic);
+        });
+        byLink.put(record.link(), new Tagged(member, List.copyOf(extracted.keySet())));
+    }
+
+    private void remove(String link) {
+        Tagged tagged = byLink.remove(link);
+        if (tagged == null) return;
+        Member member = tagged.member();
+        for (String id : tagged.topicIds()) {
+            Topic topic = topics.get(id);
+            ranking.remove(topic);
+            topic.articles.remove(member);
+            topic.count = topic.articles.size();
+            if (member.publishedMillis() != Long.MIN_VALUE) {
+                topic.days.computeIfPresent(dayOf(Instant.ofEpochMilli(member.publishedMillis())),
+                    (day, count) -> count > 1 ? count - 1 : null);
+            }
+            if (topic.count == 0) {
+                topics.remove(id);
+            } else if (topic.count >= MIN_ARTICLES) {
+                ranking.add(topic);
+            }
+        }
+    }
+
+    private static long dayOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 86_400L);
+    }
+}
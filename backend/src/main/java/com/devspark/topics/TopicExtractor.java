@@ -0,0 +1,122 @@
+package com.devspark.topics;
+
+import com.devspark.ingestion.Tokenizer;
+import org.jsoup.Jsoup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Picks the topics of an article from its title and summary: named entities
+ * first, then the title's keywords.
+ *
+ * Titles are often written in title case, so only single words with a
+ * capital after the first letter (OpenAI, iPhone, GPU) count as entities
+ * there. In the summary, runs of up to {@value #MAX_ENTITY_WORDS} capitalised
+ * words that do not start a sentence count too ("Vision Pro"). Keywords are
+ * the title's terms as {@link Tokenizer} splits them, without stop words,
+ * numbers and Latin terms shorter than three letters.
+ */
+final class TopicExtractor {
+
+    static final int MAX_TOPICS = 8;
+    static final int MAX_ENTITY_WORDS = 3;
+    static final int MAX_LABEL_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "about", "after", "all", "also", "an", "and", "any", "are", "as", "at", "be", "been", "before",
+        "best", "but", "by", "can", "could", "did", "do", "does", "for", "from", "get", "gets", "had", "has",
+        "have", "how", "i", "if", "in", "into", "is", "it", "its", "just", "make", "makes", "more", "most",
+        "new", "not", "now", "of", "on", "one", "or", "our", "out", "over", "says", "should", "so", "some",
+        "than", "that", "the", "their", "them", "then", "there", "these", "they", "this", "those", "to", "top",
+        "two", "up", "use", "using", "via", "vs", "was", "way", "ways", "we", "were", "what", "when", "where",
+        "which", "who", "why", "will", "with", "without", "would", "you", "your", "yours");
+
+    private TopicExtractor() {}
+
+    /** Topic ids of an article mapped to how they were written, at most {@value #MAX_TOPICS}. */
+    static Map<String, String> extract(String title, String summary) {
+        Map<String, String> topics = new LinkedHashMap<>();
+        String summaryText = summary != null && summary.indexOf('<') >= 0 ? Jsoup.parse(summary).text() : summary;
+        entities(title, false, topics);
+        entities(summaryText, true, topics);
+        Tokenizer.tokenize(title, term -> {
+            if (isKeyword(term)) add(topics, term);
+        });
+        return topics;
+    }
+
+    /** Id of a topic: its words lower-cased and joined with dashes. */
+    static String idOf(String label) {
+        return label.toLowerCase(Locale.ROOT).replace(' ', '-');
+    }
+
+    private static void entities(String text, boolean capitalisedRuns, Map<String, String> topics) {
+        if (text == null) return;
+        List<String> run = new ArrayList<>(MAX_ENTITY_WORDS);
+        boolean sentenceStart = true;
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            if (!Character.isLetterOrDigit(cp)) {
+                if (cp == '.' || cp == '!' || cp == '?' || cp == ':' || cp == ';') {
+                    flush(run, topics);
+                    sentenceStart = true;
+                } else if (!Character.isWhitespace(cp)) {
+                    flush(run, topics);
+                }
+                i += Character.charCount(cp);
+                continue;
+            }
+            int end = i;
+            while (end < text.length() && Character.isLetterOrDigit(text.codePointAt(end))) {
+                end += Character.charCount(text.codePointAt(end));
+            }
+            String word = text.substring(i, end);
+            boolean distinctive = hasInnerCapital(word);
+            boolean capitalised = capitalisedRuns && !sentenceStart && Character.isUpperCase(cp)
+                && !STOP_WORDS.contains(word.toLowerCase(Locale.ROOT));
+            if (distinctive || capitalised) {
+                if (run.size() == MAX_ENTITY_WORDS || !capitalisedRuns) flush(run, topics);
+                run.add(word);
+            } else {
+                flush(run, topics);
+            }
+            sentenceStart = false;
+            i = end;
+        }
+        flush(run, topics);
+    }
+
+    private static void flush(List<String> run, Map<String, String> topics) {
+        if (run.isEmpty()) return;
+        String label = String.join(" ", run);
+        run.clear();
+        if (label.length() <= MAX_LABEL_LENGTH) add(topics, label);
+    }
+
+    private static void add(Map<String, String> topics, String label) {
+        if (topics.size() < MAX_TOPICS) topics.putIfAbsent(idOf(label), label);
+    }
+
+    /** True for words like OpenAI, iPhone or GPU, whose capitals mark them as names even in a title. */
+    private static boolean hasInnerCapital(String word) {
+        if (word.length() < 2 || STOP_WORDS.contains(word.toLowerCase(Locale.ROOT))) return false;
+        for (int i = 1; i < word.length(); i++) {
+            if (Character.isUpperCase(word.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isKeyword(String term) {
+        if (STOP_WORDS.contains(term)) return false;
+        boolean digitsOnly = true;
+        for (int i = 0; i < term.length() && digitsOnly; i++) digitsOnly = Character.isDigit(term.charAt(i));
+        if (digitsOnly) return false;
+        return term.length() >= 3 || Character.isIdeographic(term.codePointAt(0));
+    }
+}
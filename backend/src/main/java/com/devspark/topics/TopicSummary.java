@@ -0,0 +1,16 @@
+package com.devspark.topics;
+
+import java.time.Instant;
+
+/**
+ * A topic and how much has been written about it: {@code articleCount} stored
+ * articles, published between {@code firstPublished} and {@code lastPublished}
+ * (null if none of them is dated).
+ */
+public record TopicSummary(
+    String id,
+    String label,
+    int articleCount,
+    Instant firstPublished,
+    Instant lastPublished
+) {}
@@ -0,0 +1,6 @@
+package com.devspark.topics;
+
+import java.util.List;
+
+/** Daily article counts of a topic, oldest day first, and the links of its newest articles. */
+public record TopicTimeline(TopicSummary topic, List<TimelineBucket> buckets, List<String> links) {}
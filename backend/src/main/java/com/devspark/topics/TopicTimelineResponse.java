@@ -0,0 +1,8 @@
+package com.devspark.topics;
+
+import com.devspark.feed.ArticleSummary;
+
+import java.util.List;
+
+/** A topic's daily counts and its newest articles, newest first. */
+public record TopicTimelineResponse(TopicSummary topic, List<TimelineBucket> buckets, List<ArticleSummary> articles) {}
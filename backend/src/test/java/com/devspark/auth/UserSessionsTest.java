@@ -0,0 +1,74 @@
+package com.devspark.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSessionsTest {
+
+    /** A clock the test moves by hand. */
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.parse("2024-06-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+    }
+
+    @Test
+    void tokensExpireAndCanBeSignedOut() {
+        ManualClock clock = new ManualClock();
+        UserSessions sessions = new UserSessions(Duration.ofHours(1), 100, clock);
+        String kept = sessions.signIn("A@example.com ").token();
+        String signedOut = sessions.signIn("a@example.com").token();
+
+        assertThat(sessions.userId("Bearer " + kept)).isEqualTo(sessions.userId(signedOut)).startsWith("user-");
+        assertThat(sessions.signOut("Bearer " + signedOut)).isTrue();
+        assertThat(sessions.signOut(signedOut)).isFalse();
+        assertThat(sessions.userId(signedOut)).isNull();
+
+        clock.advance(Duration.ofMinutes(59));
+        assertThat(sessions.userId(kept)).isNotNull();
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(sessions.userId(kept)).isNull();
+        assertThat(sessions.sessionCount()).isZero();
+    }
+
+    @Test
+    void signsOutTheOldestSessionsWhenFull() {
+        ManualClock clock = new ManualClock();
+        UserSessions sessions = new UserSessions(Duration.ofHours(1), 4, clock);
+        String[] tokens = new String[5];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = sessions.signIn("user" + i + "@example.com").token();
+            clock.advance(Duration.ofMinutes(1));
+        }
+
+        // Full at four: the oldest went to make room for the fifth
+        assertThat(sessions.sessionCount()).isEqualTo(4);
+        assertThat(sessions.userId(tokens[0])).isNull();
+        assertThat(sessions.userId(tokens[1])).isNotNull();
+        assertThat(sessions.userId(tokens[4])).isNotNull();
+    }
+}
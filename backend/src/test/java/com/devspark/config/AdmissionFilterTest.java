@@ -0,0 +1,69 @@
+package com.devspark.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties = {"devspark.admission.requests-per-minute=1", "devspark.admission.burst=2"})
+@AutoConfigureMockMvc
+class AdmissionFilterTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void tokensSignedInFromOneAddressShareItsAllowance() throws Exception {
+        String first = signIn("first@example.com");
+        String second = signIn("second@example.com");
+        // Sign-ins have an allowance of their own, which two used up
+        mockMvc.perform(signInRequest("third@example.com"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        mockMvc.perform(removeSource(first)).andExpect(status().isOk());
+        mockMvc.perform(removeSource(first)).andExpect(status().isOk());
+        // A fresh token from the same address gets no fresh allowance
+        mockMvc.perform(removeSource(second))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        // Another address does
+        mockMvc.perform(removeSource(second).with(request -> {
+                request.setRemoteAddr("192.0.2.7");
+                return request;
+            }))
+            .andExpect(status().isOk());
+    }
+
+    private String signIn(String email) throws Exception {
+        String body = mockMvc.perform(signInRequest(email))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private static MockHttpServletRequestBuilder signInRequest(String email) {
+        return post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"" + email + "\",\"password\":\"x\"}");
+    }
+
+    private static MockHttpServletRequestBuilder removeSource(String token) {
+        return delete("/api/sources")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"No Such Source\"}");
+    }
+}
@@ -0,0 +1,77 @@
+package com.devspark.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsBurstThenOneRequestPerInterval() {
+        RateLimiter limiter = new RateLimiter(2, 3, 100);
+
+        for (int i = 0; i < 3; i++) assertThat(limiter.acquire("alice", 0)).isZero();
+        assertThat(limiter.acquire("alice", 0)).isEqualTo(SECOND / 2);
+        // Other clients have their own allowance
+        assertThat(limiter.acquire("bob", 0)).isZero();
+
+        assertThat(limiter.acquire("alice", SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(limiter.acquire("alice", SECOND / 2)).isZero();
+        assertThat(limiter.acquire("alice", SECOND / 2)).isEqualTo(SECOND / 2);
+        // Idle long enough to refill completely, but never beyond the burst
+        for (int i = 0; i < 3; i++) assertThat(limiter.acquire("alice", 10 * SECOND)).isZero();
+        assertThat(limiter.acquire("alice", 10 * SECOND)).isPositive();
+    }
+
+    @Test
+    void clientMapStaysBoundedAndForgetsRefilledClientsFirst() {
+        RateLimiter limiter = new RateLimiter(1, 1, 100);
+        limiter.acquire("busy", 0);
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire("client-" + i, 0);
+            assertThat(limiter.clientCount()).isLessThanOrEqualTo(100);
+        }
+
+        // Every client has refilled by now, so a new one only clears out the refilled ones
+        limiter = new RateLimiter(1, 1, 10);
+        for (int i = 0; i < 9; i++) limiter.acquire("idle-" + i, 0);
+        limiter.acquire("busy", 5 * SECOND);
+        limiter.acquire("new", 5 * SECOND);
+        assertThat(limiter.clientCount()).isEqualTo(2);
+        assertThat(limiter.acquire("busy", 5 * SECOND)).isPositive();
+    }
+
+    @Test
+    void concurrentRequestsAdmitExactlyTheBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(1, 50, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int admitted = 0;
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.acquire("shared", 0) == 0) admitted++;
+                }
+                return admitted;
+            }));
+        }
+        start.countDown();
+        int admitted = 0;
+        for (Future<Integer> result : results) admitted += result.get();
+        executor.shutdown();
+
+        assertThat(admitted).isEqualTo(50);
+    }
+}
@@ -4,6 +4,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 class DraftExportTest {
     @Test
     void exportReturnsMarkdownWithCitations() {
@@ -14,4 +19,30 @@ class DraftExportTest {
 
         assertThat(response.contentMd()).contains("[source](https://example.com/post-1)");
     }
+
+    @Test
+    void markdownBatchSeparatesDraftsWithRules() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MarkdownDraftRenderer().render(List.of(
+            new Draft("a", "First", "One", "https://example.com/a b"),
+            new Draft("b", "Second\ntitle", null, null)), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "# First\n\nOne\n\n[source](https://example.com/a%20b)\n\n---\n\n# Second title\n\n");
+    }
+
+    @Test
+    void htmlEscapesDraftsAndOnlyLinksWebSources() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new HtmlDraftRenderer().render(List.of(
+            new Draft("a", "<b>Bold</b>", "line one\nline \"two\"\n\nnext & last", "https://example.com/?q=1&r=2"),
+            new Draft("b", "Script", "x", "javascript:alert(1)")), out);
+
+        String html = out.toString(StandardCharsets.UTF_8);
+        assertThat(html).contains("<h1>&lt;b&gt;Bold&lt;/b&gt;</h1>")
+            .contains("<p>line one<br>\nline &quot;two&quot;</p>\n<p>next &amp; last</p>")
+            .contains("<a href=\"https://example.com/?q=1&amp;r=2\">source</a>")
+            .doesNotContain("javascript:")
+            .endsWith("</body>\n</html>\n");
+    }
 }
@@ -0,0 +1,149 @@
+package com.devspark.drafts;
+
+import com.devspark.ingestion.ArticlePins;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DraftStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ArticlePins pins = new ArticlePins();
+    private Path dir;
+
+    @BeforeEach
+    void createDir() throws IOException {
+        dir = Files.createTempDirectory("drafts");
+    }
+
+    @AfterEach
+    void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    private DraftStore open(long millis) {
+        return new DraftStore(objectMapper, pins, dir, Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+    }
+
+    @Test
+    void draftsSurviveRestartInCreationOrder() {
+        Draft first = open(1_000).create("First", "one", "https://a/1");
+        DraftStore store = open(2_000);
+        Draft second = store.create("Second", "two", null);
+        Draft gone = store.create("Gone", "", null);
+
+        assertThat(store.update(new Draft(second.id(), "Second, edited", "two!", null))).isTrue();
+        assertThat(store.update(new Draft("missing", "x", "x", null))).isFalse();
+        assertThat(store.delete(gone.id())).isTrue();
+        assertThat(store.delete(gone.id())).isFalse();
+
+        DraftStore reopened = open(3_000);
+        assertThat(reopened.list()).containsExactly(
+            new DraftSummary(first.id(), "First", "https://a/1"),
+            new DraftSummary(second.id(), "Second, edited", null));
+        assertThat(reopened.find(second.id())).contains(new Draft(second.id(), "Second, edited", "two!", null));
+        assertThat(reopened.find(gone.id())).isEmpty();
+        assertThat(reopened.find("../" + first.id())).isEmpty();
+        assertThat(DraftStore.isValidId("../etc/passwd")).isFalse();
+    }
+
+    @Test
+    void idsAfterARestartFollowTheStoredOnesWhenTheClockIsBehind() {
+        Draft before = open(5_000).create("Before", "kept", null);
+
+        Draft after = open(1_000).create("After", "new", null);
+
+        assertThat(after.id()).isGreaterThan(before.id());
+        assertThat(open(1_000).list().stream().map(DraftSummary::title).toList()).containsExactly("Before", "After");
+    }
+
+    @Test
+    void draftsHoldTheirSourceArticleUntilTheLastOneGoes() {
+        DraftStore store = open(1_000);
+        Draft first = store.create("First", "", "https://a/1");
+        Draft second = store.create("Second", "", "https://a/1");
+        pins.pin("https://a/2");
+        Draft third = store.create("Third", "", "https://a/2");
+
+        store.delete(first.id());
+        assertThat(pins.isKept("https://a/1")).isTrue();
+        store.update(new Draft(second.id(), "Second", "", null));
+        assertThat(pins.isKept("https://a/1")).isFalse();
+        // A starred source stays starred when its draft goes
+        store.delete(third.id());
+        assertThat(pins.isKept("https://a/2")).isTrue();
+
+        store.update(new Draft(second.id(), "Second", "", "https://a/3"));
+        pins = new ArticlePins();
+        open(2_000);
+        assertThat(pins.isKept("https://a/3")).isTrue();
+        assertThat(pins.isPinned("https://a/3")).isFalse();
+    }
+
+    @Test
+    void exportReadsDraftsLazilyAndSkipsOnesDeletedMeanwhile() {
+        DraftStore store = open(1_000);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) ids.add(store.create("Draft " + i, "body " + i, null).id());
+
+        Iterator<Draft> it = store.drafts(null).iterator();
+        assertThat(it.next().title()).isEqualTo("Draft 0");
+        store.delete(ids.get(1));
+        assertThat(it.next().title()).isEqualTo("Draft 2");
+        assertThat(it.hasNext()).isFalse();
+
+        List<String> titles = new ArrayList<>();
+        store.drafts(List.of(ids.get(2), "unknown", ids.get(0))).forEach(draft -> titles.add(draft.title()));
+        assertThat(titles).containsExactly("Draft 2", "Draft 0");
+    }
+
+    @Test
+    void obsidianVaultHasANoteWithFrontMatterPerDraft() throws IOException {
+        DraftStore store = open(1_000);
+        store.create("Rust: async \"traits\"", "Body", "https://a/1");
+        store.create("rust- async -traits-", "Other", null);
+        DraftExportService service = new DraftExportService(store,
+            List.of(new MarkdownDraftRenderer(), new HtmlDraftRenderer(), new ObsidianVaultRenderer()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(service.renderer("obsidian").orElseThrow(), null, out);
+
+        List<String> names = new ArrayList<>();
+        List<String> notes = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8)) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                names.add(entry.getName());
+                notes.add(new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertThat(names).containsExactly("DevSpark Drafts/Rust- async -traits-.md", "DevSpark Drafts/rust- async -traits- 2.md");
+        assertThat(notes.get(0)).startsWith("---\ntitle: \"Rust: async \\\"traits\\\"\"\n")
+            .contains("\nsource: \"https://a/1\"\n")
+            .endsWith("---\n\n# Rust: async \"traits\"\n\nBody\n\n[source](https://a/1)\n");
+        assertThat(notes.get(1)).doesNotContain("source");
+        assertThat(service.formats()).containsExactly("markdown", "html", "obsidian");
+        assertThat(service.renderer("pdf")).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.devspark.feed;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.NearDuplicateIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleEventStreamTest {
+
+    private final InMemoryArticleRepository repository = new InMemoryArticleRepository();
+    private final ArticleEventStream stream = new ArticleEventStream(repository, new NearDuplicateIndex(repository),
+        new ObjectMapper(), 4, 10, 20, 30);
+
+    private void save(int i) {
+        repository.save(new ArticleRecord("Story " + i, "https://example.com/" + i, i % 2 == 0 ? "Wired" : "HN",
+            Instant.parse("2024-06-01T00:00:00Z").plusSeconds(i), "summary " + i, "content " + i, null));
+    }
+
+    @Test
+    void newArticlesAreDeliveredInListForm() throws Exception {
+        save(0);
+        stream.start();
+        long position = stream.resumePosition(null);
+        save(1);
+        save(2);
+
+        ArticleEventStream.Batch batch = stream.await(position, TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(batch.reset()).isFalse();
+        assertThat(batch.events()).hasSize(2);
+        assertThat(batch.events().get(0).json()).contains("\"title\":\"Story 1\"").doesNotContain("content 1");
+        assertThat(batch.events().get(1).source()).isEqualTo("Wired");
+        // Updates are not new articles
+        repository.update("https://example.com/1", record -> record);
+        assertThat(stream.await(batch.lastSeq(), TimeUnit.MILLISECONDS.toNanos(20)).events()).isEmpty();
+    }
+
+    @Test
+    void waitingSubscribersWakeUpWhenAnArticleArrives() throws Exception {
+        stream.start();
+        Thread saver = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            save(7);
+        });
+
+        ArticleEventStream.Batch batch = stream.await(0, TimeUnit.SECONDS.toNanos(5));
+        saver.join();
+
+        assertThat(batch.events()).hasSize(1);
+        assertThat(batch.lastSeq()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribersTooFarBehindOrFromAnotherBootAreReset() throws Exception {
+        stream.start();
+        for (int i = 0; i < 6; i++) save(i);
+
+        // The ring holds 4 events: resuming after event 2 still works, after event 1 does not
+        assertThat(stream.await(2, 0).events()).hasSize(4);
+        assertThat(stream.await(1, 0).reset()).isTrue();
+        assertThat(stream.await(1, 0).lastSeq()).isEqualTo(6);
+        assertThat(stream.resumePosition("someotherboot-3")).isEqualTo(-1);
+        assertThat(stream.resumePosition("garbage")).isEqualTo(-1);
+        assertThat(stream.await(stream.resumePosition("garbage"), 0).reset()).isTrue();
+    }
+}
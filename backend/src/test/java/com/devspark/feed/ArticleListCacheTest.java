@@ -0,0 +1,60 @@
+package com.devspark.feed;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleListCacheTest {
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private ArticleListResponse page(String title) {
+        builds.incrementAndGet();
+        return new ArticleListResponse(List.of(new ArticleSummary("id", "https://example.com/1", title,
+            "summary", "Wired", "2024-06-01T00:00:00Z", null, "NOT_NEEDED", "id", 1)), null);
+    }
+
+    @Test
+    void pagesAreReusedUntilTheVersionMoves() throws Exception {
+        ArticleListCache cache = new ArticleListCache(new ObjectMapper(), 16);
+        ArticleListCache.Key key = new ArticleListCache.Key("Wired", null, 50, false);
+
+        ArticleListCache.Page first = cache.get(key, 1, () -> page("First"));
+        ArticleListCache.Page again = cache.get(key, 1, () -> page("Ignored"));
+        ArticleListCache.Page next = cache.get(key, 2, () -> page("Second"));
+
+        assertThat(again).isSameAs(first);
+        assertThat(builds.get()).isEqualTo(2);
+        assertThat(next.etag()).isNotEqualTo(first.etag());
+        String json = new String(first.json(), StandardCharsets.UTF_8);
+        assertThat(json).contains("\"title\":\"First\"");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedPagesAreEvicted() {
+        ArticleListCache cache = new ArticleListCache(new ObjectMapper(), 2);
+        ArticleListCache.Key a = new ArticleListCache.Key(null, null, 50, false);
+        ArticleListCache.Key b = new ArticleListCache.Key(null, null, 20, false);
+        ArticleListCache.Key c = new ArticleListCache.Key(null, null, 10, false);
+
+        cache.get(a, 1, () -> page("a"));
+        cache.get(b, 1, () -> page("b"));
+        cache.get(a, 1, () -> page("a"));
+        cache.get(c, 1, () -> page("c"));
+        cache.get(a, 1, () -> page("a"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(builds.get()).isEqualTo(3);
+    }
+}
@@ -1,6 +1,7 @@
 package com.devspark.feed;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -22,4 +23,19 @@ class FeedApiTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.items").isArray());
     }
+
+    @Test
+    void listArticlesRevalidatesWithEtagAndCompresses() throws Exception {
+        String etag = mockMvc.perform(get("/api/articles"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/articles").header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/articles").header("Accept-Encoding", "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Encoding", "gzip"))
+            .andExpect(header().string("ETag", etag));
+    }
 }
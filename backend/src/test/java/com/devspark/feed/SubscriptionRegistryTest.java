@@ -0,0 +1,73 @@
+package com.devspark.feed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriptionRegistryTest {
+
+    private static final Map<String, String> BUILT_IN = Map.of("Core", "https://core.example.com/rss");
+
+    @Test
+    void feedSharedByUsersIsRegisteredOnceAndDroppedWithItsLastSubscriber() {
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        registry.load(BUILT_IN, Map.of(), Map.of());
+
+        SubscriptionChange alice = registry.subscribe("alice", "Blog", "https://blog.example.com/rss");
+        assertThat(alice.feedAdded()).isTrue();
+        // Same feed under another name and spelling: no second copy
+        SubscriptionChange bob = registry.subscribe("bob", "My blog", "http://www.blog.example.com/rss/");
+        assertThat(bob.feedAdded()).isFalse();
+        assertThat(bob.source()).isEqualTo("Blog");
+        assertThat(registry.feeds()).containsOnlyKeys("Core", "Blog");
+        assertThat(registry.subscriberCount("Blog")).isEqualTo(2);
+
+        assertThat(registry.unsubscribe("alice", "Blog").feedRemoved()).isFalse();
+        assertThat(registry.unsubscribe("alice", "Blog")).isNull();
+        assertThat(registry.unsubscribe("bob", "Blog").feedRemoved()).isTrue();
+        assertThat(registry.feeds()).containsOnlyKeys("Core");
+        assertThat(registry.sourceFor("https://blog.example.com/rss")).isNull();
+
+        // Another feed taking a used name gets a numbered one
+        registry.subscribe("alice", "Other", "https://other.example.com/rss");
+        assertThat(registry.subscribe("bob", "Other", "https://other2.example.com/rss").source()).isEqualTo("Other (2)");
+    }
+
+    @Test
+    void usersStartWithBuiltInFeedsWhichStayWhenUnsubscribed() {
+        List<String> events = new ArrayList<>();
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        registry.setChangeListener((user, source, subscribed) -> events.add(user + (subscribed ? "+" : "-") + source));
+        registry.load(BUILT_IN, Map.of(), Map.of());
+
+        assertThat(registry.sourcesOf("carol")).containsExactly("Core");
+        registry.subscribe("carol", "Blog", "https://blog.example.com/rss");
+        assertThat(registry.sourcesOf("carol")).containsExactlyInAnyOrder("Core", "Blog");
+
+        SubscriptionChange change = registry.unsubscribe("carol", "Core");
+        assertThat(change.feedRemoved()).isFalse();
+        assertThat(registry.sourcesOf("carol")).containsExactly("Blog");
+        assertThat(registry.sourcesOf("dave")).containsExactly("Core");
+        assertThat(registry.feeds()).containsKey("Core");
+        assertThat(events).containsExactly("carol+Core", "carol+Blog", "carol-Core");
+    }
+
+    @Test
+    void loadGivesUnclaimedAddedFeedsToShared() {
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        registry.load(BUILT_IN,
+            Map.of("Old", "https://old.example.com/rss", "Kept", "https://kept.example.com/rss"),
+            Map.of("erin", Set.of("Kept", "Core", "Gone")));
+
+        assertThat(registry.sourcesOf("erin")).containsExactlyInAnyOrder("Kept", "Core");
+        assertThat(registry.sourcesOf(SubscriptionRegistry.SHARED)).containsExactlyInAnyOrder("Core", "Old");
+        assertThat(registry.subscriberCount("Kept")).isEqualTo(1);
+        assertThat(registry.isBuiltIn("Core")).isTrue();
+        assertThat(registry.isBuiltIn("Old")).isFalse();
+    }
+}
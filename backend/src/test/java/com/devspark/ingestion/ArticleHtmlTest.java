@@ -0,0 +1,68 @@
+package com.devspark.ingestion;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleHtmlTest {
+
+    @Test
+    void analysisMatchesSeparateParses() {
+        String longText = "word ".repeat(100);
+        String[] inputs = {
+            "",
+            "   ",
+            "<p>Short &amp; sweet</p>",
+            "<figure><img src=\"https://cdn.example.com/a.PNG?w=1200\"></figure><p>" + longText + "</p>",
+            "<iframe src=\"https://video.example.com/embed/1\"></iframe><p>No image here</p>",
+            "<p>Unclosed <b>tags <i>everywhere</p>",
+        };
+        ArticleContentFetcher contentFetcher = new ArticleContentFetcher();
+
+        for (String html : inputs) {
+            ArticleHtml.Analysis analysis = ArticleHtml.analyze(html);
+            String text = Jsoup.parse(html).text();
+            assertThat(analysis.text()).isEqualTo(text);
+            assertThat(analysis.summary()).isEqualTo(ArticleHtml.stripToSummary(html));
+            assertThat(analysis.imageUrl()).isEqualTo(ArticleHtml.extractImage(html));
+            assertThat(contentFetcher.needsFullContent(analysis)).isEqualTo(contentFetcher.needsFullContent(html));
+            assertThat(analysis.wordCount()).isEqualTo(text.isBlank() ? 0 : text.split("\\s+").length);
+            assertThat(analysis.summaryText()).isNull();
+        }
+
+        ArticleHtml.Analysis analysis = ArticleHtml.analyze(inputs[3]);
+        assertThat(analysis.summary()).hasSize(300).endsWith("...");
+        assertThat(analysis.imageUrl()).isEqualTo("https://cdn.example.com/a.PNG?w=1200");
+        assertThat(analysis.wordCount()).isEqualTo(100);
+        assertThat(ArticleHtml.analyze(inputs[4]).imageUrl()).isEqualTo("https://video.example.com/embed/1");
+        assertThat(ArticleHtml.analyze(null).summary()).isEmpty();
+    }
+
+    @Test
+    void summaryTextIsTheSummaryParsedAlone() {
+        String[] summaries = {
+            "",
+            "Plain &amp; simple",
+            "<p>Unclosed <b>bold <a href=\"https://example.com\">link",
+            "<div>A</div></div></p></body>Stray closers",
+            "<pre>  kept   spaces",
+            "<!-- unterminated comment",
+            "<table><tr><td>cell",
+            "<script>var a = '<p>';",
+        };
+        String[] contents = {
+            "<p>Body &amp; more</p>",
+            "<table><td>cell</td></table><p>After</p>",
+            "  <h1>Title</h1>\n<p>Two\n   lines</p>",
+        };
+        for (String summary : summaries) {
+            for (String content : contents) {
+                ArticleHtml.Analysis analysis = ArticleHtml.analyze(content, summary);
+                assertThat(analysis.text()).isEqualTo(Jsoup.parse(content).text());
+                assertThat(analysis.summaryText()).isEqualTo(Jsoup.parse(summary).text());
+                assertThat(analysis.summary()).isEqualTo(ArticleHtml.stripToSummary(content));
+            }
+        }
+    }
+}
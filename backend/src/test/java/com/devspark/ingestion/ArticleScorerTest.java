@@ -0,0 +1,169 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ArticleScorerTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final Duration HALF_LIFE = Duration.ofHours(24);
+
+    private static final String STORY = "Apple unveils the M4 chip with a faster neural engine, "
+        + "more GPU cores and better efficiency for the new iPad Pro lineup";
+
+    private static ArticleRecord article(String link, String source, Instant published, int bodyChars) {
+        return new ArticleRecord("T " + link, link, source, published, "s", "x".repeat(bodyChars), null);
+    }
+
+    private static List<String> links(List<ArticleRecord> records) {
+        return records.stream().map(ArticleRecord::link).toList();
+    }
+
+    @Test
+    void scoreGrowsWithDepthWeightAndCrossPostsAndHalvesEveryHalfLife() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        NearDuplicateIndex index = new NearDuplicateIndex(repository);
+        ArticleScorer scorer = new ArticleScorer(repository, index, 10, HALF_LIFE, Map.of("Trusted", 2.0),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+        double shallow = scorer.score(article("https://a/1", "Blog", NOW, 0));
+        assertThat(shallow).isCloseTo(1.0, within(1e-9));
+        assertThat(scorer.score(article("https://a/2", "Blog", NOW, 2000))).isCloseTo(2.0, within(1e-9));
+        assertThat(scorer.score(article("https://a/3", "Trusted", NOW, 0))).isCloseTo(2.0, within(1e-9));
+        assertThat(scorer.score(article("https://a/4", "Blog", NOW.minus(HALF_LIFE), 0))).isCloseTo(0.5, within(1e-9));
+        // A future date is no better than now
+        assertThat(scorer.score(article("https://a/5", "Blog", NOW.plus(HALF_LIFE), 0))).isCloseTo(1.0, within(1e-9));
+
+        MinHash signature = MinHash.of("Apple unveils M4 chip", STORY);
+        for (int i = 0; i < 3; i++) {
+            String link = "https://site" + i + "/m4";
+            repository.save(new ArticleRecord("M4", link, "S" + i, NOW, "", (String) null, null,
+                EnrichmentStatus.NOT_NEEDED, signature, index.assign(link, signature, NOW)));
+        }
+        // Carried by three sources: heat 1 + log2(3)
+        ArticleRecord lead = repository.findByUrl("https://site0/m4").orElseThrow();
+        assertThat(scorer.score(lead)).isCloseTo(1 + Math.log(3) / Math.log(2), within(1e-9));
+    }
+
+    @Test
+    void rankingsKeepTheBestStoriesPerSourceAndOverall() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        NearDuplicateIndex index = new NearDuplicateIndex(repository);
+        ArticleScorer scorer = new ArticleScorer(repository, index, 3, HALF_LIFE, Map.of(),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+        repository.addListener(scorer, true);
+
+        // An older but much deeper article can outrank a fresh stub
+        repository.save(article("https://a/old-deep", "A", NOW.minus(12, ChronoUnit.HOURS), 60_000));
+        repository.save(article("https://a/fresh", "A", NOW, 0));
+        repository.save(article("https://a/stale", "A", NOW.minus(10, ChronoUnit.DAYS), 2000));
+        repository.save(article("https://a/older", "A", NOW.minus(5, ChronoUnit.DAYS), 2000));
+        repository.save(article("https://b/1", "B", NOW.minus(1, ChronoUnit.HOURS), 4000));
+
+        assertThat(links(scorer.top(List.of("A"), 10)))
+            .containsExactly("https://a/old-deep", "https://a/fresh", "https://a/older");
+        assertThat(links(scorer.top(null, 10)))
+            .containsExactly("https://a/old-deep", "https://b/1", "https://a/fresh");
+        assertThat(links(scorer.top(List.of("A", "B", "missing"), 2)))
+            .containsExactly("https://a/old-deep", "https://b/1");
+
+        // Losing a member of a full ranking rebuilds it from the repository
+        repository.remove("https://a/old-deep");
+        assertThat(links(scorer.top(List.of("A"), 10)))
+            .containsExactly("https://a/fresh", "https://a/older", "https://a/stale");
+        assertThat(links(scorer.top(null, 10)))
+            .containsExactly("https://b/1", "https://a/fresh", "https://a/older");
+
+        // A fetched body and a corrected date move the article up
+        repository.update("https://a/older", r -> article(r.link(), "A", NOW.minus(1, ChronoUnit.HOURS), 100_000));
+        assertThat(links(scorer.top(List.of("A"), 1))).containsExactly("https://a/older");
+        assertThat(links(scorer.top(null, 1))).containsExactly("https://a/older");
+    }
+
+    @Test
+    void rescoringARankedArticleOfAFullRankingDoesNotRebuildIt() {
+        AtomicInteger scans = new AtomicInteger();
+        InMemoryArticleRepository repository = new InMemoryArticleRepository() {
+            @Override
+            public NavigableMap<ArticleKey, ArticleRecord> newestFirst(String source) {
+                scans.incrementAndGet();
+                return super.newestFirst(source);
+            }
+        };
+        NearDuplicateIndex index = new NearDuplicateIndex(repository);
+        ArticleScorer scorer = new ArticleScorer(repository, index, 2, HALF_LIFE, Map.of(),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+        repository.addListener(scorer, true);
+        for (int i = 0; i < 4; i++) repository.save(article("https://a/" + i, "A", NOW.minus(i, ChronoUnit.HOURS), 100));
+
+        // A fetched body raises one ranked article and lowers another a little
+        repository.update("https://a/1", r -> article(r.link(), "A", r.publishedDate(), 50_000));
+        repository.update("https://a/0", r -> article(r.link(), "A", r.publishedDate(), 90));
+
+        assertThat(links(scorer.top(List.of("A"), 10))).containsExactly("https://a/1", "https://a/0");
+        assertThat(links(scorer.top(null, 10))).containsExactly("https://a/1", "https://a/0");
+        assertThat(scans.get()).isZero();
+
+        // Falling below an article that was left out does rebuild
+        repository.update("https://a/0", r -> article(r.link(), "A", NOW.minus(30, ChronoUnit.DAYS), 0));
+        assertThat(links(scorer.top(null, 10))).containsExactly("https://a/1", "https://a/2");
+        assertThat(scans.get()).isEqualTo(1);
+    }
+
+    @Test
+    void anEarlierCopyTakesTheStorysPlaceInTheRanking() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        NearDuplicateIndex index = new NearDuplicateIndex(repository);
+        ArticleScorer scorer = new ArticleScorer(repository, index, 10, HALF_LIFE, Map.of(),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+        repository.addListener(scorer, true);
+        MinHash signature = MinHash.of("Apple unveils M4 chip", STORY);
+        for (int i = 0; i < 2; i++) {
+            String link = "https://site" + i + "/m4";
+            repository.save(new ArticleRecord("M4", link, "S" + i, NOW, "s", (String) null, null,
+                EnrichmentStatus.NOT_NEEDED, signature, index.assign(link, signature, NOW)));
+        }
+        // With the first article gone the story is led by its earliest copy
+        repository.remove("https://site0/m4");
+        Instant earlier = NOW.minus(1, ChronoUnit.HOURS);
+        repository.save(new ArticleRecord("M4", "https://site2/m4", "S2", earlier, "s", (String) null, null,
+            EnrichmentStatus.NOT_NEEDED, signature, index.assign("https://site2/m4", signature, earlier)));
+
+        assertThat(links(scorer.top(null, 10))).containsExactly("https://site2/m4");
+    }
+
+    @Test
+    void onlyTheArticleStandingForAStoryIsRanked() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        NearDuplicateIndex index = new NearDuplicateIndex(repository);
+        ArticleScorer scorer = new ArticleScorer(repository, index, 10, HALF_LIFE, Map.of(),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+        repository.addListener(scorer, true);
+        repository.save(article("https://x/solo", "X", NOW, 1000));
+        MinHash signature = MinHash.of("Apple unveils M4 chip", STORY);
+        for (int i = 0; i < 2; i++) {
+            String link = "https://site" + i + "/m4";
+            Instant published = NOW.minus(i, ChronoUnit.MINUTES);
+            repository.save(new ArticleRecord("M4", link, "S" + i, published, "s", (String) null, null,
+                EnrichmentStatus.NOT_NEEDED, signature, index.assign(link, signature, published)));
+        }
+
+        // Both copies together outrank the deeper solo article; the second copy is not listed
+        assertThat(links(scorer.top(null, 10))).containsExactly("https://site0/m4", "https://x/solo");
+
+        repository.remove("https://site0/m4");
+        assertThat(links(scorer.top(null, 10))).containsExactly("https://x/solo", "https://site1/m4");
+    }
+}
@@ -0,0 +1,117 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentEnrichmentQueueTest {
+
+    /** Serves canned pages instead of hitting the network. */
+    static class StubContentFetcher extends ArticleContentFetcher {
+        @Override
+        public String extractFullContent(String articleUrl) throws IOException {
+            if (articleUrl.contains("down")) throw new IOException("connection refused");
+            if (articleUrl.contains("empty")) return null;
+            return "<p>Full article body <img src=\"https://cdn.example.com/lead.png\"></p>";
+        }
+    }
+
+    private static ArticleRecord pending(String link) {
+        return new ArticleRecord("Title", link, "Source", Instant.now(), "short", "short", null,
+            EnrichmentStatus.PENDING);
+    }
+
+    private static ArticleRecord awaitSettled(InMemoryArticleRepository repository, String link) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ArticleRecord record = repository.findAll().stream()
+                .filter(r -> r.link().equals(link)).findFirst().orElseThrow();
+            if (record.enrichment() != EnrichmentStatus.PENDING) return record;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("enrichment did not finish for " + link);
+    }
+
+    @Test
+    void enrichedContentReplacesStoredRecord() throws Exception {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ContentEnrichmentQueue queue = new ContentEnrichmentQueue(repository, new StubContentFetcher(), 10, 2, 1, 0);
+        repository.save(pending("https://example.com/a"));
+
+        assertThat(queue.submit("https://example.com/a", null)).isTrue();
+        ArticleRecord record = awaitSettled(repository, "https://example.com/a");
+
+        assertThat(record.enrichment()).isEqualTo(EnrichmentStatus.ENRICHED);
+        assertThat(record.content()).contains("Full article body");
+        assertThat(record.summary()).isEqualTo("Full article body");
+        assertThat(record.imageUrl()).isEqualTo("https://cdn.example.com/lead.png");
+        assertThat(repository.count()).isEqualTo(1);
+        queue.shutdown();
+    }
+
+    @Test
+    void unreachableOrEmptyPagesAreMarkedFailed() throws Exception {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ContentEnrichmentQueue queue = new ContentEnrichmentQueue(repository, new StubContentFetcher(), 10, 2, 1, 0);
+        repository.save(pending("https://down.example.com/a"));
+        repository.save(pending("https://example.com/empty"));
+
+        queue.submit("https://down.example.com/a", "feed summary");
+        queue.submit("https://example.com/empty", "feed summary");
+
+        assertThat(awaitSettled(repository, "https://down.example.com/a").enrichment()).isEqualTo(EnrichmentStatus.FAILED);
+        ArticleRecord empty = awaitSettled(repository, "https://example.com/empty");
+        assertThat(empty.enrichment()).isEqualTo(EnrichmentStatus.FAILED);
+        assertThat(empty.content()).isEqualTo("short");
+        queue.shutdown();
+    }
+
+    @Test
+    void rejectedFetchesAreRescheduledWithoutUsingAnAttempt() throws Exception {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        AtomicInteger calls = new AtomicInteger();
+        ArticleContentFetcher heldBack = new StubContentFetcher() {
+            @Override
+            public String extractFullContent(String articleUrl) throws IOException {
+                if (calls.incrementAndGet() <= 2) throw new FetchRejectedException("Circuit open", 1_000_000);
+                return super.extractFullContent(articleUrl);
+            }
+        };
+        ContentEnrichmentQueue queue = new ContentEnrichmentQueue(repository, heldBack, 10, 1, 1, 0);
+        repository.save(pending("https://example.com/a"));
+
+        queue.submit("https://example.com/a", null);
+
+        assertThat(awaitSettled(repository, "https://example.com/a").enrichment()).isEqualTo(EnrichmentStatus.ENRICHED);
+        assertThat(calls.get()).isEqualTo(3);
+        queue.shutdown();
+    }
+
+    @Test
+    void submitRejectsWhenQueueIsFull() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        CountDownLatch release = new CountDownLatch(1);
+        ArticleContentFetcher blocking = new ArticleContentFetcher() {
+            @Override
+            public String extractFullContent(String articleUrl) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+        };
+        ContentEnrichmentQueue queue = new ContentEnrichmentQueue(repository, blocking, 1, 1, 1, 0);
+
+        // An article being fetched still counts against the capacity
+        assertThat(queue.submit("https://example.com/1", null)).isTrue();
+        assertThat(queue.submit("https://example.com/2", null)).isFalse();
+        release.countDown();
+        queue.shutdown();
+    }
+}
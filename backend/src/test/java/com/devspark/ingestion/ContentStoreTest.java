@@ -0,0 +1,151 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentStoreTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void createDir() throws IOException {
+        dir = Files.createTempDirectory("content-spill");
+    }
+
+    @AfterEach
+    void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    private static String body(Random random, int words) {
+        StringBuilder html = new StringBuilder("<p>");
+        for (int i = 0; i < words; i++) {
+            html.append(Long.toString(random.nextLong() & Long.MAX_VALUE, 36)).append(i % 12 == 11 ? "</p><p>" : " ");
+        }
+        return html.append("é漢</p>").toString();
+    }
+
+    @Test
+    void bodiesRoundTripCompressedOrInline() {
+        String small = "<p>short</p>";
+        String large = body(new Random(1), 2000);
+
+        ContentBody inline = ContentBody.of(small);
+        ContentBody compressed = ContentBody.of(large);
+
+        assertThat(ContentBody.of(null)).isNull();
+        assertThat(inline.text()).isSameAs(small);
+        assertThat(inline.residentBytes()).isZero();
+        assertThat(compressed.text()).isEqualTo(large);
+        assertThat(compressed.residentBytes()).isPositive().isLessThan(large.length());
+        assertThat(compressed).isEqualTo(ContentBody.of(large));
+        assertThat(compressed.hashCode()).isEqualTo(large.hashCode());
+        assertThat(compressed).isNotEqualTo(ContentBody.of(large + " "));
+
+        ArticleRecord record = new ArticleRecord("T", "https://a/1", new String("Source"), Instant.EPOCH, "s", large, null);
+        assertThat(record.content()).isEqualTo(large);
+        assertThat(record.withEnrichment(EnrichmentStatus.ENRICHED).body()).isSameAs(record.body());
+    }
+
+    @Test
+    void storedArticlesOfASourceShareItsName() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        repository.save(new ArticleRecord("T", "https://a/1", new String("Source"), Instant.EPOCH, "s", "c", null));
+        repository.save(new ArticleRecord("T", "https://a/2", new String("Source"), Instant.EPOCH, "s", "c", null));
+        repository.update("https://a/1", r -> new ArticleRecord("T2", r.link(), new String("Source"), Instant.EPOCH,
+            "s", "c", null));
+
+        String name = repository.findByUrl("https://a/2").orElseThrow().source();
+        assertThat(repository.findByUrl("https://a/1").orElseThrow().source()).isSameAs(name);
+
+        // Once the source has no articles its name is not held on to
+        repository.remove("https://a/1");
+        repository.remove("https://a/2");
+        String other = new String("Source");
+        repository.save(new ArticleRecord("T", "https://a/3", other, Instant.EPOCH, "s", "c", null));
+        assertThat(repository.findByUrl("https://a/3").orElseThrow().source()).isSameAs(other);
+    }
+
+    @Test
+    void spillsOldestBodiesPastBudgetAndReadsThemBack() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ContentStore store = new ContentStore(repository, 64 * 1024, dir.resolve("spill.bin"));
+        Random random = new Random(7);
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String body = body(random, 1000);
+            bodies.add(body);
+            repository.save(new ArticleRecord("Story " + i, "https://a/" + i, "A", Instant.ofEpochSecond(i),
+                "summary", body, null));
+        }
+        store.spillOverBudget();
+
+        assertThat(store.residentBytes()).isLessThanOrEqualTo(64 * 1024);
+        assertThat(store.spilledBodies()).isPositive();
+        // The newest article is the last to go
+        assertThat(repository.findByUrl("https://a/39").orElseThrow().body().residentBytes()).isPositive();
+        assertThat(repository.findByUrl("https://a/0").orElseThrow().body().residentBytes()).isZero();
+        for (int i = 0; i < bodies.size(); i++) {
+            assertThat(repository.findByUrl("https://a/" + i).orElseThrow().content()).isEqualTo(bodies.get(i));
+        }
+
+        repository.update("https://a/0", r -> r.withEnrichedContent("s", bodies.get(39), null));
+        assertThat(repository.findByUrl("https://a/0").orElseThrow().content()).isEqualTo(bodies.get(39));
+        store.shutdown();
+    }
+
+    @Test
+    void compactsTheSpillFileOnceMostOfItIsDead() throws IOException {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ContentStore store = new ContentStore(repository, 16 * 1024, dir.resolve("spill.bin"), 1);
+        Random random = new Random(11);
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String body = body(random, 1000);
+            bodies.add(body);
+            repository.save(new ArticleRecord("Story " + i, "https://a/" + i, "A", Instant.ofEpochSecond(i),
+                "summary", body, null));
+        }
+        store.spillOverBudget();
+        long spilledSize = store.spillFileSize();
+        assertThat(repository.findByUrl("https://a/30").orElseThrow().body().residentBytes()).isZero();
+
+        // Most spilled bodies go away: removed by retention or replaced by a fresh fetch
+        for (int i = 0; i < 30; i++) {
+            if (i % 2 == 0) {
+                repository.remove("https://a/" + i);
+            } else {
+                repository.update("https://a/" + i, r -> r.withEnrichedContent("s", "<p>replaced</p>", null));
+            }
+        }
+        assertThat(store.deadSpilledBytes()).isPositive();
+        store.compactIfWasteful();
+
+        assertThat(store.deadSpilledBytes()).isZero();
+        assertThat(store.spillFileSize()).isPositive().isLessThan(spilledSize / 2);
+        // The spill thread may have compacted too; either way only the file in use is left
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+        for (int i = 30; i < bodies.size(); i++) {
+            assertThat(repository.findByUrl("https://a/" + i).orElseThrow().content()).isEqualTo(bodies.get(i));
+        }
+        assertThat(repository.findByUrl("https://a/1").orElseThrow().content()).isEqualTo("<p>replaced</p>");
+        store.shutdown();
+    }
+}
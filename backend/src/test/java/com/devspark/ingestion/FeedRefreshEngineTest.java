@@ -0,0 +1,76 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedRefreshEngineTest {
+
+    /** Fetcher that sleeps instead of doing network IO and records peak per-host concurrency. */
+    static class SlowFetcher extends RssFetcher {
+        final long delayMs;
+        final Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        final AtomicInteger peakPerHost = new AtomicInteger();
+
+        SlowFetcher(long delayMs) {
+            super(new InMemoryArticleRepository());
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public FetchOutcome fetch(String feedUrl, String sourceName) {
+            AtomicInteger counter = running.computeIfAbsent(FeedRefreshEngine.hostOf(feedUrl), h -> new AtomicInteger());
+            peakPerHost.accumulateAndGet(counter.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMs);
+                return sourceName.startsWith("bad") ? FetchOutcome.FAILED : FetchOutcome.FETCHED;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return FetchOutcome.FAILED;
+            } finally {
+                counter.decrementAndGet();
+            }
+        }
+    }
+
+    @Test
+    void refreshRunsInParallelAndCapsPerHost() {
+        SlowFetcher fetcher = new SlowFetcher(50);
+        FeedRefreshEngine engine = new FeedRefreshEngine(fetcher, 16, 2, 10);
+
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) sources.put("same-" + i, "https://one.example.com/feed" + i);
+        for (int i = 0; i < 10; i++) sources.put("other-" + i, "https://host" + i + ".example.com/rss");
+        sources.put("bad-1", "https://bad.example.com/rss");
+
+        RefreshStats stats = engine.refresh(sources);
+
+        assertThat(stats.total()).isEqualTo(17);
+        assertThat(stats.succeeded()).isEqualTo(16);
+        assertThat(stats.failed()).isEqualTo(1);
+        assertThat(stats.timedOut()).isEqualTo(0);
+        assertThat(fetcher.peakPerHost.get()).isLessThanOrEqualTo(2);
+        // 6 feeds on one host at 2 at a time need 3 rounds; serial would need 17
+        assertThat(stats.elapsed().toMillis()).isLessThan(17 * 50);
+    }
+
+    @Test
+    void refreshTimesOutAtDeadlineAndSkipsFeedsStillInFlight() {
+        SlowFetcher fetcher = new SlowFetcher(60_000);
+        FeedRefreshEngine engine = new FeedRefreshEngine(fetcher, 4, 1, 0);
+        Map<String, String> sources = Map.of("slow", "https://slow.example.com/rss");
+
+        RefreshStats first = engine.refresh(sources);
+        assertThat(first.timedOut()).isEqualTo(1);
+
+        // The cancelled fetch may still be unwinding; either way nothing is double-fetched
+        RefreshStats second = engine.refresh(sources);
+        assertThat(second.skipped() + second.timedOut()).isEqualTo(1);
+        assertThat(engine.getLastStats()).isSameAs(second);
+    }
+}
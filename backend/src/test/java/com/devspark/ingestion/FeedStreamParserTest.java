@@ -0,0 +1,94 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedStreamParserTest {
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parsesRssItemsWithEncodedContent() throws Exception {
+        String xml = """
+            <rss version="2.0" xmlns:content="http://purl.org/rss/1.0/modules/content/">
+                <channel>
+                    <title>Example</title>
+                    <item>
+                        <title>First</title>
+                        <link>https://example.com/1</link>
+                        <guid>urn:1</guid>
+                        <description>Short</description>
+                        <content:encoded><![CDATA[<p>Full <b>body</b></p>]]></content:encoded>
+                        <pubDate>Mon, 01 Jan 2024 12:00:00 GMT</pubDate>
+                    </item>
+                    <item>
+                        <title>Second</title>
+                        <link>https://example.com/2</link>
+                    </item>
+                </channel>
+            </rss>
+            """;
+
+        List<FeedEntry> entries = new ArrayList<>();
+        FeedStreamParser.parse(stream(xml), entries::add);
+
+        assertThat(entries).hasSize(2);
+        FeedEntry first = entries.get(0);
+        assertThat(first.title()).isEqualTo("First");
+        assertThat(first.link()).isEqualTo("https://example.com/1");
+        assertThat(first.guid()).isEqualTo("urn:1");
+        assertThat(first.summary()).isEqualTo("Short");
+        assertThat(first.content()).isEqualTo("<p>Full <b>body</b></p>");
+        assertThat(first.date()).isEqualTo("Mon, 01 Jan 2024 12:00:00 GMT");
+        assertThat(entries.get(1).date()).isNull();
+    }
+
+    @Test
+    void parsesAtomEntriesPreferringAlternateLinkAndFallingBackToUpdated() throws Exception {
+        String xml = """
+            <feed xmlns="http://www.w3.org/2005/Atom">
+                <title>Atom Example</title>
+                <entry>
+                    <title>Post</title>
+                    <id>tag:example.com,2024:1</id>
+                    <link rel="self" href="https://example.com/self"/>
+                    <link rel="alternate" href="https://example.com/post"/>
+                    <summary>Sum</summary>
+                    <updated>2024-01-02T00:00:00Z</updated>
+                </entry>
+            </feed>
+            """;
+
+        List<FeedEntry> entries = new ArrayList<>();
+        FeedStreamParser.parse(stream(xml), entries::add);
+
+        assertThat(entries).hasSize(1);
+        FeedEntry entry = entries.get(0);
+        assertThat(entry.link()).isEqualTo("https://example.com/post");
+        assertThat(entry.guid()).isEqualTo("tag:example.com,2024:1");
+        assertThat(entry.summary()).isEqualTo("Sum");
+        assertThat(entry.content()).isNull();
+        assertThat(entry.date()).isEqualTo("2024-01-02T00:00:00Z");
+    }
+
+    @Test
+    void readTitleStopsAtChannelOrFeedTitle() throws Exception {
+        // Deliberately truncated after the title: validation must not need the rest
+        assertThat(FeedStreamParser.readTitle(stream("<rss><channel><title>My Blog</title><item>")))
+            .isEqualTo("My Blog");
+        assertThat(FeedStreamParser.readTitle(stream("<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>x</id><title>Atom</title>")))
+            .isEqualTo("Atom");
+        assertThat(FeedStreamParser.readTitle(stream("<rss><channel><link>x</link></channel></rss>")))
+            .isEqualTo("RSS Feed");
+        assertThat(FeedStreamParser.readTitle(stream("<html><body/></html>"))).isNull();
+    }
+}
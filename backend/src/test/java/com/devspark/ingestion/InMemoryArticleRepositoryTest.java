@@ -0,0 +1,159 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryArticleRepositoryTest {
+
+    private static ArticleRecord article(String link, String source, long epochSecond) {
+        return new ArticleRecord("T " + link, link, source, Instant.ofEpochSecond(epochSecond), "s", "c", null);
+    }
+
+    @Test
+    void indexesByUrlSourceAndPublishTime() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        repository.save(article("https://a/1", "A", 100));
+        repository.save(article("https://b/1", "B", 300));
+        repository.save(article("https://a/2", "A", 200));
+
+        assertThat(repository.existsByUrl("https://a/2")).isTrue();
+        assertThat(repository.existsByUrl("https://a/3")).isFalse();
+        assertThat(repository.findAll().stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://a/1", "https://b/1", "https://a/2");
+        assertThat(repository.newestFirst().values().stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://b/1", "https://a/2", "https://a/1");
+        assertThat(repository.newestFirst("A").values().stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://a/2", "https://a/1");
+        assertThat(repository.newestFirst("missing").isEmpty()).isTrue();
+    }
+
+    @Test
+    void findPageWalksNewestFirstFromCursorKey() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        for (int i = 1; i <= 5; i++) {
+            repository.save(article("https://a/" + i, i % 2 == 0 ? "Even" : "Odd", i));
+        }
+
+        List<ArticleRecord> first = repository.findPage(null, null, 2);
+        assertThat(first.stream().map(ArticleRecord::link).toList()).containsExactly("https://a/5", "https://a/4");
+
+        List<ArticleRecord> second = repository.findPage(null, ArticleKey.of(first.get(1)), 2);
+        assertThat(second.stream().map(ArticleRecord::link).toList()).containsExactly("https://a/3", "https://a/2");
+
+        List<ArticleRecord> odd = repository.findPage("Odd", ArticleKey.of(repository.findByUrl("https://a/5").orElseThrow()), 10);
+        assertThat(odd.stream().map(ArticleRecord::link).toList()).containsExactly("https://a/3", "https://a/1");
+
+        assertThat(repository.findById(ArticleIds.of("https://a/3")).orElseThrow().link()).isEqualTo("https://a/3");
+    }
+
+    @Test
+    void findPageOfSourcesMergesOnlyTheGivenSources() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        String[] sources = {"A", "B", "C"};
+        for (int i = 1; i <= 9; i++) {
+            repository.save(article("https://x/" + i, sources[i % 3], i));
+        }
+        List<String> sourcesRead = List.of("A", "C", "missing");
+
+        List<ArticleRecord> first = repository.findPageOfSources(sourcesRead, null, 3, record -> true);
+        assertThat(first.stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://x/9", "https://x/8", "https://x/6");
+
+        List<ArticleRecord> rest = repository.findPageOfSources(sourcesRead, ArticleKey.of(first.get(2)), 10,
+            record -> !record.link().endsWith("/3"));
+        assertThat(rest.stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://x/5", "https://x/2");
+
+        assertThat(repository.findPageOfSources(List.of(), null, 10, record -> true)).isEmpty();
+    }
+
+    @Test
+    void updateReplacesRecordInEveryIndex() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        repository.save(article("https://a/1", "A", 100));
+        long before = repository.version();
+
+        boolean updated = repository.update("https://a/1", r -> r.withEnrichment(EnrichmentStatus.ENRICHED));
+
+        assertThat(updated).isTrue();
+        assertThat(repository.version()).isGreaterThan(before);
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.findByUrl("https://a/1").orElseThrow().enrichment()).isEqualTo(EnrichmentStatus.ENRICHED);
+        assertThat(repository.newestFirst("A").firstEntry().getValue().enrichment()).isEqualTo(EnrichmentStatus.ENRICHED);
+        assertThat(repository.update("https://missing", r -> r)).isFalse();
+    }
+
+    @Test
+    void removeDropsRecordFromEveryIndex() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        repository.save(article("https://a/1", "A", 100));
+        repository.save(article("https://b/1", "B", 200));
+        List<ArticleRecord> removed = new ArrayList<>();
+        repository.addListener(new ArticleRepositoryListener() {
+            @Override
+            public void onSaved(ArticleRecord record) {
+            }
+
+            @Override
+            public void onRemoved(ArticleRecord record) {
+                removed.add(record);
+            }
+        }, false);
+        long before = repository.version();
+
+        assertThat(repository.remove("https://a/1", r -> false)).isFalse();
+        assertThat(repository.remove("https://a/1")).isTrue();
+
+        assertThat(repository.version()).isGreaterThan(before);
+        assertThat(repository.existsByUrl("https://a/1")).isFalse();
+        assertThat(repository.findById(ArticleIds.of("https://a/1"))).isEmpty();
+        assertThat(repository.findAll().stream().map(ArticleRecord::link).toList()).containsExactly("https://b/1");
+        assertThat(repository.newestFirst().size()).isEqualTo(1);
+        assertThat(repository.sources()).containsExactly("B");
+        assertThat(removed.stream().map(ArticleRecord::link).toList()).containsExactly("https://a/1");
+        assertThat(repository.remove("https://a/1")).isFalse();
+    }
+
+    @Test
+    void findAllReusesSnapshotUntilNextWrite() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        repository.save(article("https://a/1", "A", 100));
+
+        List<ArticleRecord> first = repository.findAll();
+        assertThat(repository.findAll()).isSameAs(first);
+
+        repository.save(article("https://a/2", "A", 200));
+        assertThat(repository.findAll()).hasSize(2);
+    }
+
+    @Test
+    void concurrentWritersKeepIndexesConsistent() throws Exception {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    repository.save(article("https://x/" + thread + "/" + i, "S" + thread, i));
+                    repository.findAll();
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        assertThat(repository.count()).isEqualTo(4000);
+        assertThat(repository.findAll()).hasSize(4000);
+        assertThat(repository.newestFirst().size()).isEqualTo(4000);
+        assertThat(repository.newestFirst("S3").size()).isEqualTo(500);
+    }
+}
@@ -0,0 +1,90 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionMetricsTest {
+
+    private static final String FEED = """
+        <rss version="2.0">
+            <channel>
+                <item><title>One</title><link>https://example.com/1</link><description>first</description></item>
+                <item><title>Two</title><link>https://example.com/2</link><description>second</description></item>
+            </channel>
+        </rss>
+        """;
+
+    @Test
+    void parsedItemsAreCountedPerSource() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        IngestionMetrics metrics = new IngestionMetrics(repository);
+        RssFetcher fetcher = new RssFetcher(repository, new ArticleContentFetcher(metrics), null,
+            new NearDuplicateIndex(), metrics);
+
+        fetcher.parseAndSave(FEED, "Example \"Blog\"");
+        fetcher.parseAndSave(FEED, "Example \"Blog\"");
+        metrics.source("Example \"Blog\"").recordFetch(200, TimeUnit.MILLISECONDS.toNanos(30), 1234);
+        metrics.source("Example \"Blog\"").recordFetch(304, TimeUnit.MILLISECONDS.toNanos(3), 0);
+        metrics.recordRefresh(new RefreshStats(Instant.now(), Duration.ofSeconds(2), 4, 3, 1, 0, 0));
+
+        String text = metrics.toPrometheusText();
+
+        assertThat(text).contains("devspark_feed_items_seen_total{source=\"Example \\\"Blog\\\"\"} 4\n");
+        assertThat(text).contains("devspark_feed_items_new_total{source=\"Example \\\"Blog\\\"\"} 2\n");
+        assertThat(text).contains("devspark_feed_items_duplicate_total{source=\"Example \\\"Blog\\\"\"} 2\n");
+        assertThat(text).contains("devspark_feed_fetch_responses_total{source=\"Example \\\"Blog\\\"\",code=\"304\"} 1\n");
+        assertThat(text).contains("devspark_feed_bytes_read_total{source=\"Example \\\"Blog\\\"\"} 1234\n");
+        // Buckets are cumulative: the 3 ms fetch is under 5 ms, both are under 50 ms
+        assertThat(text).contains("devspark_feed_fetch_duration_seconds_bucket{source=\"Example \\\"Blog\\\"\",le=\"0.005\"} 1\n");
+        assertThat(text).contains("devspark_feed_fetch_duration_seconds_bucket{source=\"Example \\\"Blog\\\"\",le=\"0.05\"} 2\n");
+        assertThat(text).contains("devspark_feed_fetch_duration_seconds_count{source=\"Example \\\"Blog\\\"\"} 2\n");
+        assertThat(text).contains("devspark_feed_parse_duration_seconds_count{source=\"Example \\\"Blog\\\"\"} 2\n");
+        assertThat(text).contains("devspark_refresh_feeds_total{outcome=\"failed\"} 1\n");
+        assertThat(text).contains("devspark_repository_articles 2\n");
+    }
+
+    @Test
+    void forgottenSourcesAreNoLongerExported() {
+        IngestionMetrics metrics = new IngestionMetrics();
+        metrics.source("Kept").itemSeen();
+        metrics.source("Dropped").itemSeen();
+
+        metrics.forgetSource("Dropped");
+
+        String text = metrics.toPrometheusText();
+        assertThat(text).contains("devspark_feed_items_seen_total{source=\"Kept\"} 1\n");
+        assertThat(text).doesNotContain("source=\"Dropped\"");
+    }
+
+    @Test
+    void recordingDoesNotAllocate() {
+        IngestionMetrics metrics = new IngestionMetrics();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        record(metrics, 10_000);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        record(metrics, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // A single allocation per call would be at least 1.6 MB here
+        assertThat(allocated).isLessThan(4096L);
+    }
+
+    private static void record(IngestionMetrics metrics, int times) {
+        for (int i = 0; i < times; i++) {
+            IngestionMetrics.Source source = metrics.source("Wired");
+            source.recordFetch(200, i * 1000L, 512);
+            source.recordParse(i * 100L);
+            source.itemSeen();
+            source.itemNew();
+            metrics.recordContentFetch(i * 10_000L, false, true);
+        }
+    }
+}
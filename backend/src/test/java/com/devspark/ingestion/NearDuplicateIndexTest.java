@@ -0,0 +1,102 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearDuplicateIndexTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private static final String STORY = "Apple unveils the M4 chip with a faster neural engine, "
+        + "more GPU cores and better efficiency for the new iPad Pro lineup";
+
+    @Test
+    void rewordedStoriesAreSimilarAndUnrelatedOnesAreNot() {
+        MinHash original = MinHash.of("Apple unveils M4 chip", STORY);
+        MinHash rewritten = MinHash.of("Apple announces M4 chip for iPad Pro", "Apple today announced the M4 chip, "
+            + "with a faster neural engine and more GPU cores, debuting in the new iPad Pro lineup");
+        MinHash other = MinHash.of("OpenAI releases new model",
+            "OpenAI today released a new model with better reasoning and lower prices for developers");
+
+        assertThat(original.similarity(rewritten)).isGreaterThan(NearDuplicateIndex.MIN_SIMILARITY);
+        assertThat(original.similarity(other)).isLessThan(NearDuplicateIndex.MIN_SIMILARITY);
+        assertThat(MinHash.of("Hi", "Comments")).isNull();
+    }
+
+    @Test
+    void duplicatesJoinTheFirstArticlesCluster() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+        MinHash signature = MinHash.of("Apple unveils M4 chip", STORY);
+
+        String first = index.assign("https://hn/1", signature, NOW);
+        String second = index.assign("https://verge/1", MinHash.of("Apple's M4 chip debuts in iPad Pro", STORY),
+            NOW.plus(2, ChronoUnit.HOURS));
+        String tooLate = index.assign("https://wired/1", signature, NOW.plus(10, ChronoUnit.DAYS));
+        String unrelated = index.assign("https://tc/1",
+            MinHash.of("Rust 1.80 released", "The Rust team ships lazy cell, exclusive ranges in patterns and more"), NOW);
+
+        assertThat(first).isEqualTo(ArticleIds.of("https://hn/1"));
+        assertThat(second).isEqualTo(first);
+        assertThat(tooLate).isEqualTo(ArticleIds.of("https://wired/1"));
+        assertThat(unrelated).isEqualTo(ArticleIds.of("https://tc/1"));
+        assertThat(index.clusterSize(first)).isEqualTo(2);
+        assertThat(index.assign("https://verge/1", signature, NOW)).isEqualTo(first);
+    }
+
+    @Test
+    void collapsedPagesShowOneArticlePerStory() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        NearDuplicateIndex index = new NearDuplicateIndex(repository);
+        MinHash signature = MinHash.of("Apple unveils M4 chip", STORY);
+        for (int i = 0; i < 3; i++) {
+            String link = "https://site" + i + "/m4";
+            Instant published = NOW.plus(i, ChronoUnit.MINUTES);
+            repository.save(new ArticleRecord("M4", link, "S" + i, published, STORY, STORY, null,
+                EnrichmentStatus.NOT_NEEDED, signature, index.assign(link, signature, published)));
+        }
+        repository.save(new ArticleRecord("Other", "https://other/1", "S0", NOW, "x", "x", null));
+
+        assertThat(repository.findPage(null, null, 10)).hasSize(4);
+        assertThat(repository.findPage(null, null, 10, ArticleRecord::isClusterRepresentative)
+            .stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://other/1", "https://site0/m4");
+
+        // A restarted process rebuilds the buckets from the stored records
+        NearDuplicateIndex recovered = new NearDuplicateIndex(repository);
+        assertThat(recovered.clusterSize(ArticleIds.of("https://site0/m4"))).isEqualTo(3);
+        assertThat(recovered.assign("https://site9/m4", signature, NOW)).isEqualTo(ArticleIds.of("https://site0/m4"));
+    }
+
+    @Test
+    void removingTheFirstArticleHandsTheClusterToTheEarliestRemaining() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        NearDuplicateIndex index = new NearDuplicateIndex(repository);
+        MinHash signature = MinHash.of("Apple unveils M4 chip", STORY);
+        for (int i = 0; i < 3; i++) {
+            String link = "https://site" + i + "/m4";
+            Instant published = NOW.plus(i, ChronoUnit.MINUTES);
+            repository.save(new ArticleRecord("M4", link, "S" + i, published, STORY, STORY, null,
+                EnrichmentStatus.NOT_NEEDED, signature, index.assign(link, signature, published)));
+        }
+        String clusterId = ArticleIds.of("https://site0/m4");
+
+        repository.remove("https://site0/m4");
+
+        assertThat(index.clusterSize(clusterId)).isEqualTo(2);
+        assertThat(repository.findPage(null, null, 10, index::leadsCluster).stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://site1/m4");
+        // The same lead is chosen when the index is rebuilt from the remaining records
+        NearDuplicateIndex recovered = new NearDuplicateIndex(repository);
+        assertThat(repository.findPage(null, null, 10, recovered::leadsCluster).stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://site1/m4");
+
+        repository.remove("https://site1/m4");
+        repository.remove("https://site2/m4");
+        assertThat(index.clusterSize(clusterId)).isEqualTo(1);
+        assertThat(index.assign("https://new/m4", signature, NOW)).isEqualTo(ArticleIds.of("https://new/m4"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.devspark.ingestion;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboundFetcherTest {
+
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) server.stop(0);
+    }
+
+    private String serve(String path, int... statuses) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.start();
+        }
+        AtomicInteger calls = new AtomicInteger();
+        server.createContext(path, exchange -> {
+            int status = statuses[Math.min(calls.getAndIncrement(), statuses.length - 1)];
+            if (status == 503) exchange.getResponseHeaders().add("Retry-After", "1");
+            byte[] body = ("call " + calls.get()).getBytes();
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).build();
+    }
+
+    @Test
+    void tokenBucketAllowsABurstThenSpacesRequests() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isEqualTo(second / 2);
+        assertThat(bucket.reserve(0)).isEqualTo(second);
+        assertThat(bucket.reserve(3 * second)).isZero();
+    }
+
+    @Test
+    void circuitOpensAfterFailuresInARowAndClosesAfterATrialSucceeds() {
+        long minute = TimeUnit.MINUTES.toNanos(1);
+        CircuitBreaker breaker = new CircuitBreaker(3, minute, 10 * minute);
+        for (int i = 0; i < 3; i++) {
+            assertThat(breaker.tryAcquire(0)).isTrue();
+            breaker.onFailure(0);
+        }
+        assertThat(breaker.tryAcquire(minute - 1)).isFalse();
+        assertThat(breaker.snapshot(0).state()).isEqualTo("OPEN");
+
+        // One trial after the wait; its failure doubles the wait
+        assertThat(breaker.tryAcquire(minute)).isTrue();
+        assertThat(breaker.tryAcquire(minute)).isFalse();
+        breaker.onFailure(minute);
+        assertThat(breaker.tryAcquire(3 * minute - 1)).isFalse();
+        assertThat(breaker.tryAcquire(3 * minute)).isTrue();
+        breaker.onSuccess();
+
+        assertThat(breaker.snapshot(3 * minute)).isEqualTo(CircuitState.CLOSED);
+        assertThat(breaker.tryAcquire(3 * minute)).isTrue();
+    }
+
+    @Test
+    void readsRetryAfterAsSecondsOrDate() {
+        assertThat(OutboundFetcher.retryAfterNanos(headers("120"))).isEqualTo(TimeUnit.SECONDS.toNanos(120));
+        assertThat(OutboundFetcher.retryAfterNanos(headers("Wed, 21 Oct 2015 07:28:00 GMT"))).isZero();
+        assertThat(OutboundFetcher.retryAfterNanos(headers("soon"))).isEqualTo(-1);
+        assertThat(OutboundFetcher.retryAfterNanos(HttpHeaders.of(Map.of(), (k, v) -> true))).isEqualTo(-1);
+    }
+
+    private static HttpHeaders headers(String retryAfter) {
+        return HttpHeaders.of(Map.of("Retry-After", List.of(retryAfter)), (k, v) -> true);
+    }
+
+    @Test
+    void waitsOutRetryAfterAndRetries() throws Exception {
+        String url = serve("/busy", 503, 200);
+        OutboundFetcher fetcher = new OutboundFetcher(100, 10, 2, 1, 5, 5, 3, 60, 60);
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = fetcher.send("Busy", get(url), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("call 2");
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+        assertThat(fetcher.circuitState("Busy")).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    void openCircuitRejectsWithoutSending() throws Exception {
+        String url = serve("/gone", 404);
+        OutboundFetcher fetcher = new OutboundFetcher(100, 10, 0, 1, 5, 5, 2, 60, 60);
+
+        assertThat(fetcher.send("Gone", get(url), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(404);
+        assertThat(fetcher.send("Gone", get(url), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(404);
+
+        CircuitState state = fetcher.circuitState("Gone");
+        assertThat(state.state()).isEqualTo("OPEN");
+        assertThat(state.consecutiveFailures()).isEqualTo(2);
+        assertThat(state.retryAt()).isNotNull();
+        IOException rejected = null;
+        try {
+            fetcher.send("Gone", get(url), HttpResponse.BodyHandlers.ofString());
+        } catch (FetchRejectedException e) {
+            rejected = e;
+        }
+        assertThat(rejected).isNotNull();
+        assertThat(((FetchRejectedException) rejected).retryAfterNanos()).isGreaterThan(0);
+        // Requests outside the circuit still go out
+        assertThat(fetcher.send(null, get(url), HttpResponse.BodyHandlers.ofString()).body()).isEqualTo("call 3");
+    }
+
+    @Test
+    void waitingOutAHostDoesNotCountAgainstTheCircuit() throws Exception {
+        String busy = serve("/busy", 503);
+        String page = serve("/page", 200);
+        // No Retry-After may be waited out, so a host that gives one turns requests away until it passes
+        OutboundFetcher fetcher = new OutboundFetcher(100, 10, 0, 1, 5, 0, 2, 60, 60);
+        assertThat(fetcher.send(null, get(busy), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(503);
+
+        for (int i = 0; i < 3; i++) {
+            FetchRejectedException rejected = null;
+            try {
+                fetcher.send("Page", get(page), HttpResponse.BodyHandlers.ofString());
+            } catch (FetchRejectedException e) {
+                rejected = e;
+            }
+            assertThat(rejected).isNotNull();
+        }
+
+        assertThat(fetcher.circuitState("Page")).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    void forgetsHostsAndCircuitsThatAreIdle() throws Exception {
+        String ok = serve("/ok", 200);
+        String gone = serve("/gone", 404);
+        OutboundFetcher fetcher = new OutboundFetcher(100, 10, 0, 1, 5, 5, 1, 60, 60);
+        fetcher.send("Ok", get(ok), HttpResponse.BodyHandlers.ofString());
+        fetcher.send("Gone", get(gone), HttpResponse.BodyHandlers.ofString());
+        // One bucket for the shared host and one breaker per circuit
+        assertThat(fetcher.trackedCount()).isEqualTo(3);
+
+        fetcher.dropIdle(System.nanoTime() + TimeUnit.MINUTES.toNanos(2));
+
+        // Only the open circuit is remembered
+        assertThat(fetcher.trackedCount()).isEqualTo(1);
+        assertThat(fetcher.circuitState("Gone").state()).isEqualTo("OPEN");
+    }
+}
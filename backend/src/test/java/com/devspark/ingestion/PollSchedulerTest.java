@@ -0,0 +1,204 @@
+package com.devspark.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PollSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+    private static final Duration MIN = Duration.ofMinutes(2);
+    private static final Duration MAX = Duration.ofHours(6);
+
+    /** A clock the test moves by hand. */
+    private static final class ManualClock extends Clock {
+        private volatile Instant now = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        void set(Instant instant) {
+            now = instant;
+        }
+    }
+
+    /**
+     * Fetcher that counts fetches per source and, for sources named "fast",
+     * stores a new article published at {@code clock}'s time every time.
+     */
+    static class CountingFetcher extends RssFetcher {
+        final InMemoryArticleRepository repository;
+        final Map<String, AtomicInteger> fetches = new ConcurrentHashMap<>();
+        volatile CountDownLatch blocked;
+        volatile CountDownLatch fetched = new CountDownLatch(0);
+        Clock clock = Clock.systemUTC();
+
+        CountingFetcher(InMemoryArticleRepository repository) {
+            super(repository);
+            this.repository = repository;
+        }
+
+        @Override
+        public FetchOutcome fetch(String feedUrl, String sourceName) {
+            int n = fetches.computeIfAbsent(sourceName, s -> new AtomicInteger()).incrementAndGet();
+            fetched.countDown();
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (!sourceName.startsWith("fast")) return FetchOutcome.NOT_MODIFIED;
+            repository.save(new ArticleRecord("T" + n, feedUrl + "/" + n, sourceName, clock.instant(), "s", "c", null));
+            return FetchOutcome.FETCHED;
+        }
+
+        int count(String source) {
+            AtomicInteger count = fetches.get(source);
+            return count != null ? count.get() : 0;
+        }
+    }
+
+    @Test
+    void intervalFollowsPublishGapAndBacksOffWhenNothingIsNew() {
+        // Posts monthly: polled at the maximum interval
+        assertThat(PollScheduler.nextInterval(Duration.ofMinutes(5), Duration.ofDays(30), 0.5, FetchOutcome.FETCHED, MIN, MAX))
+            .isEqualTo(MAX);
+        // Posts every ten minutes: polled every five
+        assertThat(PollScheduler.nextInterval(Duration.ofHours(1), Duration.ofMinutes(10), 0.5, FetchOutcome.FETCHED, MIN, MAX))
+            .isEqualTo(Duration.ofMinutes(5));
+        // Every poll mostly new: we are falling behind, so poll sooner
+        assertThat(PollScheduler.nextInterval(Duration.ofHours(1), Duration.ofMinutes(20), 0.9, FetchOutcome.FETCHED, MIN, MAX))
+            .isEqualTo(Duration.ofMinutes(6));
+        // No publish history and nothing new: back off from the previous interval
+        assertThat(PollScheduler.nextInterval(Duration.ofMinutes(10), null, 0.0, FetchOutcome.NOT_MODIFIED, MIN, MAX))
+            .isEqualTo(Duration.ofMinutes(15));
+        assertThat(PollScheduler.nextInterval(Duration.ofMinutes(10), Duration.ofMinutes(10), 0.0, FetchOutcome.FAILED, MIN, MAX))
+            .isEqualTo(Duration.ofMinutes(20));
+        assertThat(PollScheduler.nextInterval(Duration.ofMinutes(10), Duration.ofSeconds(30), 1.0, FetchOutcome.FETCHED, MIN, MAX))
+            .isEqualTo(MIN);
+    }
+
+    @Test
+    void publishHistoryComesFromStoredArticles() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        for (int i = 1; i <= 30; i++) {
+            // One post an hour, the newest an hour ago; only the newest 20 count
+            Instant published = NOW.minus(Duration.ofHours(i));
+            repository.save(new ArticleRecord("T" + i, "https://blog/" + i, "Blog", published, "s", "c", null));
+        }
+        CountingFetcher fetcher = new CountingFetcher(repository);
+        PollScheduler scheduler = new PollScheduler(new FeedRefreshEngine(fetcher, 4, 2, 10), fetcher, repository,
+            false, MIN, MAX, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        scheduler.track("Blog", "https://blog/rss");
+
+        assertThat(scheduler.refreshNow("Blog")).contains(FetchOutcome.NOT_MODIFIED);
+
+        SourceSchedule schedule = scheduler.schedules().get(0);
+        assertThat(schedule.source()).isEqualTo("Blog");
+        assertThat(schedule.publishGap()).isEqualTo(Duration.ofHours(1));
+        assertThat(schedule.lastPolledAt()).isEqualTo(NOW);
+        // Half the gap at the starting new-item ratio
+        assertThat(schedule.interval()).isEqualTo(Duration.ofMinutes(30));
+        assertThat(schedule.nextPollAt()).isEqualTo(NOW.plus(Duration.ofMinutes(30)));
+        assertThat(fetcher.count("Blog")).isEqualTo(1);
+    }
+
+    @Test
+    void refreshNowSkipsUnknownAndInFlightSources() throws Exception {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        CountingFetcher fetcher = new CountingFetcher(repository);
+        PollScheduler scheduler = new PollScheduler(new FeedRefreshEngine(fetcher, 4, 2, 10), fetcher, repository,
+            false, MIN, MAX, Duration.ofMinutes(5), Clock.systemUTC());
+        scheduler.track("Feed", "https://feed/rss");
+
+        assertThat(scheduler.refreshNow("Unknown")).isEmpty();
+
+        fetcher.blocked = new CountDownLatch(1);
+        Thread first = Thread.ofVirtual().start(() -> scheduler.refreshNow("Feed"));
+        while (fetcher.count("Feed") == 0) Thread.sleep(5);
+        assertThat(scheduler.refreshNow("Feed")).isEmpty();
+        fetcher.blocked.countDown();
+        first.join();
+        assertThat(fetcher.count("Feed")).isEqualTo(1);
+
+        scheduler.untrack("Feed");
+        assertThat(scheduler.refreshNow("Feed")).isEmpty();
+        assertThat(scheduler.schedules()).isEmpty();
+    }
+
+    @Test
+    void busySourcesArePolledMoreOftenThanQuietOnes() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ManualClock clock = new ManualClock();
+        CountingFetcher fetcher = new CountingFetcher(repository);
+        fetcher.clock = clock;
+        PollScheduler scheduler = new PollScheduler(new FeedRefreshEngine(fetcher, 4, 2, 10), fetcher, repository,
+            false, MIN, MAX, Duration.ofMinutes(5), clock);
+        scheduler.track("fast", "https://fast.example.com/rss");
+        scheduler.track("quiet", "https://quiet.example.com/rss");
+
+        // Play a day of polls: move the clock to whichever source is due next and poll it
+        Instant end = NOW.plus(Duration.ofDays(1));
+        while (true) {
+            SourceSchedule due = scheduler.schedules().get(0);
+            if (due.nextPollAt().isAfter(end)) break;
+            clock.set(due.nextPollAt());
+            assertThat(scheduler.refreshNow(due.source())).isPresent();
+        }
+
+        Map<String, SourceSchedule> schedules = new ConcurrentHashMap<>();
+        scheduler.schedules().forEach(schedule -> schedules.put(schedule.source(), schedule));
+        // A new article every poll pulls the fast source down to the minimum interval
+        assertThat(schedules.get("fast").interval()).isEqualTo(MIN);
+        // Nothing new: the quiet one backs off further each poll, up to 1.5x as its share of new items decays
+        assertThat(schedules.get("quiet").interval()).isEqualTo(MAX);
+        assertThat(fetcher.count("quiet")).isEqualTo(15);
+        assertThat(fetcher.count("fast")).isGreaterThan(600);
+    }
+
+    @Test
+    void startPollsEveryTrackedSource() throws Exception {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        CountingFetcher fetcher = new CountingFetcher(repository);
+        PollScheduler scheduler = new PollScheduler(new FeedRefreshEngine(fetcher, 4, 2, 10), fetcher, repository,
+            true, MIN, MAX, Duration.ofMinutes(5), Clock.systemUTC());
+        scheduler.track("fast", "https://fast.example.com/rss");
+        scheduler.track("quiet", "https://quiet.example.com/rss");
+        fetcher.fetched = new CountDownLatch(2);
+        try {
+            scheduler.start();
+            assertThat(fetcher.fetched.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            scheduler.shutdown();
+        }
+
+        assertThat(fetcher.count("fast")).isEqualTo(1);
+        assertThat(fetcher.count("quiet")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.devspark.ingestion;
+
+import com.devspark.drafts.DraftStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetentionSweeperTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+
+    private static ArticleRecord article(String source, int i, Duration age) {
+        return new ArticleRecord("T" + i, "https://" + source + "/" + i, source, NOW.minus(age), "s", "c", null);
+    }
+
+    private static RetentionSweeper sweeper(InMemoryArticleRepository repository, ArticlePins pins,
+                                            RetentionSweeper.Policy defaults, String overrides, long maxBytes) {
+        return new RetentionSweeper(repository, pins, defaults, overrides, maxBytes, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void expiresOldArticlesAndTrimsEachSourceToItsCount() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ArticlePins pins = new ArticlePins();
+        for (int i = 0; i < 10; i++) {
+            repository.save(article("a", i, Duration.ofDays(i)));
+            repository.save(article("b", i, Duration.ofDays(i)));
+        }
+        repository.save(new ArticleRecord("Undated", "https://a/undated", "a", null, "s", "c", null));
+        pins.pin("https://a/9");
+        RetentionSweeper sweeper = sweeper(repository, pins, new RetentionSweeper.Policy(Duration.ofDays(5), 0),
+            "b:max-age-days=0,max-count=3", 0);
+
+        assertThat(sweeper.sweep()).isEqualTo(4 + 7);
+
+        // a: 5 days and older are gone except the pinned one; the undated article has no age
+        assertThat(repository.newestFirst("a").values().stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://a/0", "https://a/1", "https://a/2", "https://a/3", "https://a/4",
+                "https://a/9", "https://a/undated");
+        // b: no age limit, newest three kept
+        assertThat(repository.newestFirst("b").values().stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://b/0", "https://b/1", "https://b/2");
+        assertThat(sweeper.sweep()).isZero();
+    }
+
+    @Test
+    void keepsTheSourceOfADraftPastTheMaximumAge() throws IOException {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ArticlePins pins = new ArticlePins();
+        repository.save(article("a", 1, Duration.ofDays(30)));
+        repository.save(article("a", 2, Duration.ofDays(30)));
+        Path dir = Files.createTempDirectory("drafts");
+        try {
+            DraftStore drafts = new DraftStore(new ObjectMapper(), pins, dir.toString());
+            drafts.create("Notes", "", "https://a/1");
+            RetentionSweeper sweeper = sweeper(repository, pins, new RetentionSweeper.Policy(Duration.ofDays(7), 0), "", 0);
+
+            assertThat(sweeper.sweep()).isEqualTo(1);
+            assertThat(repository.findAll().stream().map(ArticleRecord::link).toList()).containsExactly("https://a/1");
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void trimsOldestArticlesOfAnySourceToTheByteBudget() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        for (int i = 0; i < 10; i++) {
+            repository.save(article(i % 2 == 0 ? "a" : "b", i, Duration.ofHours(i)));
+        }
+        long perArticle = RetentionSweeper.estimatedBytes(article("a", 0, Duration.ZERO));
+        RetentionSweeper sweeper = sweeper(repository, new ArticlePins(), new RetentionSweeper.Policy(null, 0), "",
+            perArticle * 4);
+        assertThat(sweeper.totalBytes()).isEqualTo(perArticle * 10);
+
+        sweeper.sweep();
+
+        assertThat(repository.count()).isEqualTo(4);
+        assertThat(repository.findAll().stream().map(ArticleRecord::link).toList())
+            .containsExactly("https://a/0", "https://b/1", "https://a/2", "https://b/3");
+        assertThat(sweeper.totalBytes()).isEqualTo(perArticle * 4);
+    }
+
+    @Test
+    void parsesPerSourceOverrides() {
+        RetentionSweeper.Policy defaults = new RetentionSweeper.Policy(Duration.ofDays(90), 2000);
+
+        Map<String, RetentionSweeper.Policy> policies = RetentionSweeper.parsePolicies(
+            "Hacker News:max-age-days=7, max-count=500; Re: Code:max-count=0", defaults);
+
+        assertThat(policies.get("Hacker News")).isEqualTo(new RetentionSweeper.Policy(Duration.ofDays(7), 500));
+        assertThat(policies.get("Re: Code")).isEqualTo(new RetentionSweeper.Policy(Duration.ofDays(90), 0));
+        assertThat(RetentionSweeper.parsePolicies(" ", defaults)).isEmpty();
+    }
+}
@@ -1,11 +1,57 @@
 package com.devspark.ingestion;
 
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class RssFetcherTest {
 
+    private static final String LAST_MODIFIED = "Mon, 01 Jan 2024 12:00:00 GMT";
+
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) server.stop(0);
+    }
+
+    /**
+     * Serves a one-item feed at /feed, recording the validators of every request.
+     * With {@code validators} the feed has an ETag and Last-Modified and answers
+     * 304 when they come back; without them it sends the same body every time.
+     */
+    private String serveFeed(boolean validators, List<String> requests) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        byte[] body = ("<rss version=\"2.0\"><channel><item><title>Post</title>"
+            + "<link>" + base + "/post-1</link><guid>urn:post-1</guid>"
+            + "<description>Summary</description></item></channel></rss>").getBytes(StandardCharsets.UTF_8);
+        server.createContext("/feed", exchange -> {
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            requests.add(etag + " | " + exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+            if (validators) {
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+            }
+            if (validators && "\"v1\"".equals(etag)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        return base + "/feed";
+    }
+
     @Test
     void shouldParseRssFeed() {
         InMemoryArticleRepository repository = new InMemoryArticleRepository();
@@ -36,4 +82,68 @@ class RssFetcherTest {
         assertThat(record.source()).isEqualTo("Test Source");
         assertThat(record.summary()).isEqualTo("This is a summary");
     }
+
+    @Test
+    void shouldSkipItemsWhoseGuidWasSeenInThePreviousFetch() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        RssFetcher fetcher = new RssFetcher(repository);
+
+        String feedXml = """
+            <rss version="2.0">
+                <channel>
+                    <item>
+                        <title>Old</title>
+                        <link>https://example.com/old</link>
+                        <guid>urn:old</guid>
+                        <description>Seen last time</description>
+                    </item>
+                    <item>
+                        <title>New</title>
+                        <link>https://example.com/new</link>
+                        <guid>urn:new</guid>
+                        <description>Fresh</description>
+                    </item>
+                </channel>
+            </rss>
+            """;
+
+        Set<String> guids = fetcher.parseAndSave(feedXml.getBytes(StandardCharsets.UTF_8), "Test Source", Set.of("urn:old"));
+
+        assertThat(guids).containsExactlyInAnyOrder("urn:old", "urn:new");
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.findAll().get(0).title()).isEqualTo("New");
+    }
+
+    @Test
+    void secondFetchSendsTheValidatorsAndA304SkipsParsing() throws IOException {
+        List<String> requests = new ArrayList<>();
+        String url = serveFeed(true, requests);
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        RssFetcher fetcher = new RssFetcher(repository);
+
+        assertThat(fetcher.fetch(url, "Local")).isEqualTo(FetchOutcome.FETCHED);
+        assertThat(fetcher.getFetchState(url).etag()).isEqualTo("\"v1\"");
+        assertThat(fetcher.fetch(url, "Local")).isEqualTo(FetchOutcome.NOT_MODIFIED);
+
+        assertThat(requests).containsExactly("null | null", "\"v1\" | " + LAST_MODIFIED);
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(fetcher.cacheStats().notModified()).isEqualTo(1);
+    }
+
+    @Test
+    void anUnchangedBodyIsNotParsedAgain() throws IOException {
+        List<String> requests = new ArrayList<>();
+        String url = serveFeed(false, requests);
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        RssFetcher fetcher = new RssFetcher(repository);
+
+        assertThat(fetcher.fetch(url, "Local")).isEqualTo(FetchOutcome.FETCHED);
+        assertThat(fetcher.fetch(url, "Local")).isEqualTo(FetchOutcome.UNCHANGED);
+
+        assertThat(requests).containsExactly("null | null", "null | null");
+        assertThat(repository.count()).isEqualTo(1);
+        // Only the first body was parsed
+        assertThat(fetcher.cacheStats().misses()).isEqualTo(1);
+        assertThat(fetcher.cacheStats().unchanged()).isEqualTo(1);
+    }
 }
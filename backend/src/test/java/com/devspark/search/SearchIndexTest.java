@@ -0,0 +1,82 @@
+package com.devspark.search;
+
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private static ArticleRecord article(String link, String title, String content, String source, String date) {
+        return new ArticleRecord(title, link, source, Instant.parse(date), null, content, null);
+    }
+
+    private static List<String> links(SearchResults results) {
+        return results.hits().stream().map(SearchHit::link).toList();
+    }
+
+    @Test
+    void tokenizerSplitsWordsAndCjkBigrams() {
+        List<String> terms = new ArrayList<>();
+        Tokenizer.tokenize("Java 21 虚拟线程, GC!", terms::add);
+        assertThat(terms).containsExactly("java", "21", "虚拟", "拟线", "线程", "gc");
+
+        terms.clear();
+        Tokenizer.tokenize("云 native", terms::add);
+        assertThat(terms).containsExactly("云", "native");
+    }
+
+    @Test
+    void ranksTitleMatchesAndRareTermsHigher() {
+        SearchIndex index = new SearchIndex();
+        index.index(List.of(
+            article("https://a/1", "Rust borrow checker", "<p>Ownership in <b>Rust</b>.</p>", "A", "2024-01-01T00:00:00Z"),
+            article("https://a/2", "Weekly links", "<p>Some notes mentioning rust once among many other words here</p>", "A", "2024-01-02T00:00:00Z"),
+            article("https://a/3", "Gardening", "<p>Tomatoes and peppers</p>", "B", "2024-01-03T00:00:00Z")
+        ));
+
+        SearchResults results = index.search("rust", null, null, null, 10);
+        assertThat(results.total()).isEqualTo(2);
+        assertThat(links(results)).containsExactly("https://a/1", "https://a/2");
+        assertThat(index.search("<b>", null, null, null, 10).total()).isEqualTo(0);
+    }
+
+    @Test
+    void findsChineseTextAndAppliesSourceAndDateFilters() {
+        SearchIndex index = new SearchIndex();
+        index.index(List.of(
+            article("https://cn/1", "深入理解虚拟线程", "<p>Java 21 的虚拟线程</p>", "掘金", "2024-03-01T00:00:00Z"),
+            article("https://cn/2", "虚拟线程实战", "<p>实战经验</p>", "InfoQ", "2024-05-01T00:00:00Z")
+        ));
+
+        assertThat(index.search("虚拟线程", null, null, null, 10).total()).isEqualTo(2);
+        assertThat(links(index.search("虚拟线程", "InfoQ", null, null, 10))).containsExactly("https://cn/2");
+        assertThat(links(index.search("虚拟线程", null, Instant.parse("2024-01-01T00:00:00Z"),
+            Instant.parse("2024-04-01T00:00:00Z"), 10))).containsExactly("https://cn/1");
+        assertThat(index.search("虚拟线程", "Nobody", null, null, 10).total()).isEqualTo(0);
+    }
+
+    @Test
+    void reindexingAnArticleReplacesItsTerms() {
+        SearchIndex index = new SearchIndex();
+        index.index(List.of(article("https://a/1", "Draft", "<p>old words</p>", "A", "2024-01-01T00:00:00Z")));
+        index.index(List.of(article("https://a/1", "Draft", "<p>new words</p>", "A", "2024-01-01T00:00:00Z")));
+
+        assertThat(index.search("old", null, null, null, 10).total()).isEqualTo(0);
+        assertThat(links(index.search("new", null, null, null, 10))).containsExactly("https://a/1");
+        assertThat(index.size()).isEqualTo(1);
+
+        // Enough churn to trigger tombstone compaction; results must survive renumbering
+        for (int i = 0; i < 3000; i++) {
+            index.index(List.of(article("https://a/" + (i % 600), "Item " + i, "<p>churn</p>", "A", "2024-01-01T00:00:00Z")));
+        }
+        assertThat(index.size()).isEqualTo(600);
+        assertThat(index.search("churn", null, null, null, 1000).total()).isEqualTo(600);
+        assertThat(links(index.search("2999", null, null, null, 10))).containsExactly("https://a/599");
+    }
+}
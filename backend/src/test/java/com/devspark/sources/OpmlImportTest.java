@@ -1,5 +1,6 @@
 package com.devspark.sources;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -40,4 +41,42 @@ class OpmlImportTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.count").value(1));
     }
+
+    @Test
+    void importOpmlSkipsSubscribedFeedsAndReportsProgress() throws Exception {
+        String opml = """
+            <opml version="2.0">
+              <body>
+                <outline text="HN again" xmlUrl="http://news.ycombinator.com/rss/" />
+                <outline text="Twice" xmlUrl="https://twice.example.com/feed" />
+                <outline text="Twice" xmlUrl="https://www.twice.example.com/feed/" />
+              </body>
+            </opml>
+            """;
+        MockMultipartFile file = new MockMultipartFile("file", "subscriptions.opml", MediaType.TEXT_XML_VALUE,
+            opml.getBytes());
+
+        String response = mockMvc.perform(multipart("/api/sources/import-opml").file(file))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(1))
+            .andExpect(jsonPath("$.duplicates").value(2))
+            .andReturn().getResponse().getContentAsString();
+        String jobId = response.replaceAll(".*\"jobId\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/sources/import-opml/" + jobId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(1))
+            .andExpect(jsonPath("$.duplicates").value(2));
+        mockMvc.perform(get("/api/sources/import-opml/unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void malformedOpmlIsRejected() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "broken.opml", MediaType.TEXT_XML_VALUE,
+            "<opml><body><outline".getBytes());
+
+        mockMvc.perform(multipart("/api/sources/import-opml").file(file))
+            .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,51 @@
+package com.devspark.sources;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.devspark.feed.FeedUrls;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpmlParserTest {
+
+    @Test
+    void readsFeedsFromNestedOutlines() throws Exception {
+        String opml = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <opml version="2.0">
+              <head><title>Subscriptions</title></head>
+              <body>
+                <outline text="Tech">
+                  <outline text="Example" title="Example Blog" type="rss" xmlUrl="https://example.com/rss.xml"/>
+                  <outline text="Lowercase exporter" xmlurl="http://www.example.org/feed/"/>
+                  <outline text="Not a feed" htmlUrl="https://example.net/"/>
+                </outline>
+                <outline xmlUrl="https://untitled.example.com/atom"/>
+              </body>
+            </opml>
+            """;
+        List<OpmlParser.Outline> outlines = new ArrayList<>();
+
+        OpmlParser.parse(new ByteArrayInputStream(opml.getBytes(StandardCharsets.UTF_8)), outlines::add);
+
+        assertThat(outlines).containsExactly(
+            new OpmlParser.Outline("Example Blog", "https://example.com/rss.xml"),
+            new OpmlParser.Outline("Lowercase exporter", "http://www.example.org/feed/"),
+            new OpmlParser.Outline(null, "https://untitled.example.com/atom"));
+    }
+
+    @Test
+    void equivalentFeedUrlsNormalizeAlike() {
+        assertThat(FeedUrls.normalize("https://www.Example.org/feed/"))
+            .isEqualTo(FeedUrls.normalize("http://example.org:80/feed#top"));
+        assertThat(FeedUrls.normalize("https://example.org/feed?format=atom"))
+            .isNotEqualTo(FeedUrls.normalize("https://example.org/feed"));
+        assertThat(FeedUrls.normalize("https://example.org:8443/feed"))
+            .isNotEqualTo(FeedUrls.normalize("https://example.org/feed"));
+    }
+}
@@ -0,0 +1,270 @@
+package com.devspark.storage;
+
+import com.devspark.ingestion.ArticleContentFetcher;
+import com.devspark.ingestion.ArticlePins;
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.ContentEnrichmentQueue;
+import com.devspark.ingestion.EnrichmentStatus;
+import com.devspark.ingestion.FeedFetchState;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import com.devspark.ingestion.IngestionMetrics;
+import com.devspark.ingestion.NearDuplicateIndex;
+import com.devspark.ingestion.RssFetcher;
+import com.devspark.summary.SummaryPipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleLogStoreTest {
+
+    private Path dir;
+    private final List<ArticleLogStore> opened = new ArrayList<>();
+
+    @BeforeEach
+    void createDir() throws IOException {
+        dir = Files.createTempDirectory("article-log");
+    }
+
+    @AfterEach
+    void deleteDir() throws IOException {
+        opened.forEach(ArticleLogStore::close);
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    private record Opened(ArticleLogStore store, InMemoryArticleRepository repository, RssFetcher fetcher, ArticlePins pins) {}
+
+    private Opened open() {
+        return open((repository, contentFetcher) -> new ContentEnrichmentQueue(repository, contentFetcher, 10, 1, 1, 0));
+    }
+
+    private Opened open(BiFunction<InMemoryArticleRepository, ArticleContentFetcher, ContentEnrichmentQueue> queues) {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        ArticleContentFetcher contentFetcher = new ArticleContentFetcher();
+        RssFetcher fetcher = new RssFetcher(repository, contentFetcher, null, new NearDuplicateIndex(repository),
+            new IngestionMetrics(repository));
+        ContentEnrichmentQueue queue = queues.apply(repository, contentFetcher);
+        SummaryPipeline summaries = new SummaryPipeline(repository, Optional.empty(), 8, 1, 1, 0);
+        ArticlePins pins = new ArticlePins();
+        ArticleLogStore store = new ArticleLogStore(repository, fetcher, queue, summaries, pins, true, dir.toString(),
+            1 << 20, 60, Duration.ofMillis(10));
+        opened.add(store);
+        return new Opened(store, repository, fetcher, pins);
+    }
+
+    private static ArticleRecord article(String link, String title) {
+        return new ArticleRecord(title, link, "Source", Instant.parse("2024-01-01T00:00:00Z"),
+            "summary", "<p>content</p>", null);
+    }
+
+    @Test
+    void restartRecoversArticlesAndSources() {
+        Opened first = open();
+        first.repository().save(article("https://example.com/1", "One"));
+        first.repository().save(article("https://example.com/2", "Two"));
+        first.repository().update("https://example.com/1", r -> new ArticleRecord("One v2", r.link(), r.source(),
+            r.publishedDate(), r.summary(), r.content(), r.imageUrl(), EnrichmentStatus.ENRICHED));
+        first.store().sourceAdded("Blog", "https://blog.example.com/rss");
+        first.store().sourceAdded("Gone", "https://gone.example.com/rss");
+        first.store().sourceRemoved("Gone");
+        first.store().close();
+
+        Opened second = open();
+        assertThat(second.repository().count()).isEqualTo(2);
+        assertThat(second.repository().findByUrl("https://example.com/1").map(ArticleRecord::title))
+            .containsExactly("One v2");
+        assertThat(second.store().recoveredSources()).containsEntry("Blog", "https://blog.example.com/rss");
+        assertThat(second.store().recoveredSources().size()).isEqualTo(1);
+    }
+
+    @Test
+    void tornTailIsDiscardedAndLaterAppendsSurvive() throws IOException {
+        Opened first = open();
+        first.repository().save(article("https://example.com/1", "One"));
+        first.repository().save(article("https://example.com/2", "Two"));
+        first.store().close();
+
+        // Simulate a crash in the middle of writing the last frame
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(p -> Files.isRegularFile(p)).max(Comparator.naturalOrder()).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        Opened second = open();
+        assertThat(second.repository().count()).isEqualTo(1);
+        second.repository().save(article("https://example.com/3", "Three"));
+        second.store().close();
+
+        Opened third = open();
+        assertThat(third.repository().count()).isEqualTo(2);
+        assertThat(third.repository().existsByUrl("https://example.com/3")).isTrue();
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveStateAndAppendsAfterIt() throws IOException {
+        Opened first = open();
+        for (int i = 0; i < 50; i++) {
+            first.repository().save(article("https://example.com/1", "One v" + i));
+        }
+        first.store().sourceAdded("Blog", "https://blog.example.com/rss");
+        first.store().compact();
+        first.repository().save(article("https://example.com/2", "Two"));
+        first.store().close();
+
+        Opened second = open();
+        assertThat(second.repository().count()).isEqualTo(2);
+        assertThat(second.repository().findByUrl("https://example.com/1").map(ArticleRecord::title))
+            .containsExactly("One v49");
+        assertThat(second.store().recoveredSources()).containsEntry("Blog", "https://blog.example.com/rss");
+    }
+
+    @Test
+    void removalsAndPinsSurviveRestartAndCompaction() throws IOException {
+        Opened first = open();
+        first.repository().save(article("https://example.com/1", "One"));
+        first.repository().save(article("https://example.com/2", "Two"));
+        first.repository().save(article("https://example.com/3", "Three"));
+        first.repository().remove("https://example.com/2");
+        first.pins().pin("https://example.com/1");
+        first.pins().pin("https://example.com/3");
+        first.pins().unpin("https://example.com/3");
+        first.store().close();
+
+        Opened second = open();
+        assertThat(second.repository().count()).isEqualTo(2);
+        assertThat(second.repository().existsByUrl("https://example.com/2")).isFalse();
+        assertThat(second.pins().pinned()).containsExactly("https://example.com/1");
+        second.repository().remove("https://example.com/3");
+        second.store().compact();
+        second.store().close();
+
+        Opened third = open();
+        assertThat(third.repository().count()).isEqualTo(1);
+        assertThat(third.pins().pinned()).containsExactly("https://example.com/1");
+    }
+
+    @Test
+    void fetchStateOfARemovedFeedStaysGoneAfterRestart() throws IOException {
+        FeedFetchState state = new FeedFetchState("\"v1\"", null, "hash", Set.of("urn:1"));
+        Opened first = open();
+        first.fetcher().restoreFetchState("https://kept.example.com/rss", state);
+        first.fetcher().restoreFetchState("https://gone.example.com/rss", state);
+        first.store().compact();
+        first.fetcher().forgetFetchState("https://gone.example.com/rss");
+        first.store().close();
+
+        Opened second = open();
+        assertThat(second.fetcher().getFetchState("https://kept.example.com/rss")).isEqualTo(state);
+        assertThat(second.fetcher().getFetchState("https://gone.example.com/rss")).isNull();
+        second.store().compact();
+        second.store().close();
+
+        assertThat(open().fetcher().fetchStates()).containsOnlyKeys("https://kept.example.com/rss");
+    }
+
+    @Test
+    void enrichmentStatusIsStoredByItsCode() {
+        // Existing logs hold these codes; they must never change
+        assertThat(Stream.of(EnrichmentStatus.values()).map(EnrichmentStatus::code).toList())
+            .containsExactly(0, 1, 2, 3);
+        for (EnrichmentStatus status : EnrichmentStatus.values()) {
+            ArticleRecord record = new ArticleRecord("T", "https://example.com/" + status, "Source", null,
+                "s", "c", null, status);
+            assertThat(LogCodec.readArticle(ByteBuffer.wrap(LogCodec.article(record))).enrichment()).isEqualTo(status);
+        }
+    }
+
+    @Test
+    void subscriptionsSurviveRestartAndCompaction() throws IOException {
+        Opened first = open();
+        first.store().subscriptionChanged("alice", "Blog", true);
+        first.store().subscriptionChanged("alice", "Core", true);
+        first.store().subscriptionChanged("bob", "Core", true);
+        first.store().subscriptionChanged("bob", "Core", false);
+        first.store().close();
+
+        Opened second = open();
+        assertThat(second.store().recoveredSubscriptions()).containsOnlyKeys("alice", "bob");
+        assertThat(second.store().recoveredSubscriptions().get("alice")).containsExactlyInAnyOrder("Blog", "Core");
+        assertThat(second.store().recoveredSubscriptions().get("bob")).isEmpty();
+        second.store().compact();
+        second.store().close();
+
+        // Bob unsubscribed from everything, which is not the same as never having chosen
+        Opened third = open();
+        assertThat(third.store().recoveredSubscriptions().get("alice")).containsExactlyInAnyOrder("Blog", "Core");
+        assertThat(third.store().recoveredSubscriptions()).containsKey("bob");
+        assertThat(third.store().recoveredSubscriptions().get("bob")).isEmpty();
+    }
+
+    /** Takes submissions without working on them, and only as many as it has room for. */
+    private static final class FillingQueue extends ContentEnrichmentQueue {
+
+        private final List<String> submitted = new ArrayList<>();
+        private int room;
+
+        FillingQueue(InMemoryArticleRepository repository, ArticleContentFetcher contentFetcher, int room) {
+            super(repository, contentFetcher, 10, 1, 1, 0);
+            this.room = room;
+        }
+
+        @Override
+        public synchronized boolean submit(String link, String feedSummary) {
+            if (submitted.size() >= room) return false;
+            submitted.add(link);
+            return true;
+        }
+
+        synchronized void makeRoom(int more) {
+            room += more;
+        }
+
+        synchronized List<String> submitted() {
+            return List.copyOf(submitted);
+        }
+    }
+
+    @Test
+    void pendingArticlesThatDoNotFitTheQueueAreQueuedOnceThereIsRoom() throws InterruptedException {
+        Opened first = open();
+        for (int i = 0; i < 5; i++) {
+            first.repository().save(new ArticleRecord("T", "https://example.com/" + i, "Source", null,
+                "s", "c", null, EnrichmentStatus.PENDING));
+        }
+        first.repository().save(new ArticleRecord("T", "https://example.com/done", "Source", null,
+            "s", "c", null, EnrichmentStatus.ENRICHED));
+        first.store().close();
+
+        FillingQueue[] queue = new FillingQueue[1];
+        open((repository, contentFetcher) -> queue[0] = new FillingQueue(repository, contentFetcher, 2));
+        assertThat(queue[0].submitted()).containsExactly("https://example.com/0", "https://example.com/1");
+
+        queue[0].makeRoom(3);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (queue[0].submitted().size() < 5 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertThat(queue[0].submitted()).containsExactly("https://example.com/0", "https://example.com/1",
+            "https://example.com/2", "https://example.com/3", "https://example.com/4");
+    }
+}
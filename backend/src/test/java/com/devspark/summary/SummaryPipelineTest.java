@@ -0,0 +1,109 @@
+package com.devspark.summary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SummaryPipelineTest {
+    private final Map<String, String> contents = new ConcurrentHashMap<>();
+    private SummaryPipeline pipeline;
+
+    private SummaryPipeline start(SummaryProvider provider, int batchSize, int maxConcurrency, int maxAttempts) {
+        pipeline = new SummaryPipeline(provider, contents::get, batchSize, maxConcurrency, maxAttempts, 10);
+        pipeline.start();
+        return pipeline;
+    }
+
+    @AfterEach
+    void stop() {
+        if (pipeline != null) pipeline.shutdown();
+    }
+
+    private void awaitSettled(int articles) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            SummaryStats stats = pipeline.stats();
+            if (stats.pending() == 0 && stats.succeeded() + stats.failed() == articles) return;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("pipeline did not settle: " + pipeline.stats());
+    }
+
+    @Test
+    void batchesArticlesWithBoundedConcurrency() throws Exception {
+        FakeSummaryProvider provider = new FakeSummaryProvider(50);
+        start(provider, 4, 2, 1);
+        for (int i = 0; i < 24; i++) {
+            contents.put("a" + i, "content " + i);
+            pipeline.submit("a" + i);
+        }
+
+        awaitSettled(24);
+
+        assertThat(pipeline.stats().succeeded()).isEqualTo(24);
+        assertThat(pipeline.get("a7").orElseThrow().summaryText()).isEqualTo("summary for a7");
+        // 24 articles in batches of at most 4 means at least 6 calls, never more than 2 at once
+        assertThat(provider.calls.get()).isBetween(6, 24);
+        assertThat(provider.peakRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void duplicateContentIsSummarisedOnce() throws Exception {
+        FakeSummaryProvider provider = new FakeSummaryProvider(20);
+        start(provider, 1, 4, 1);
+        List<String> copies = List.of("hn", "verge", "wired");
+        for (String id : copies) {
+            contents.put(id, "the same story");
+            pipeline.submit(id);
+        }
+
+        awaitSettled(3);
+        pipeline.submit("hn");
+        Thread.sleep(50);
+
+        assertThat(provider.calls.get()).isEqualTo(1);
+        assertThat(pipeline.stats().cacheHits()).isEqualTo(2);
+        assertThat(pipeline.get("wired").orElseThrow().summaryText()).isEqualTo("summary for hn");
+    }
+
+    @Test
+    void failedBatchesAreRetriedWithBackoffUntilTheyGiveUp() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        SummaryProvider flaky = id -> {
+            if (id.startsWith("broken") || calls.incrementAndGet() < 3) throw new IllegalStateException("model overloaded");
+            return "ok " + id;
+        };
+        start(flaky, 1, 1, 3);
+        contents.put("flaky", "text");
+        contents.put("broken", "other text");
+        pipeline.submit("flaky");
+        pipeline.submit("broken");
+
+        awaitSettled(2);
+
+        assertThat(pipeline.get("flaky").orElseThrow().status()).isEqualTo(SummaryStatus.SUCCEEDED);
+        assertThat(pipeline.get("flaky").orElseThrow().summaryText()).isEqualTo("ok flaky");
+        assertThat(pipeline.get("broken").orElseThrow().status()).isEqualTo(SummaryStatus.FAILED);
+        assertThat(pipeline.stats().providerCalls()).isEqualTo(6);
+    }
+
+    @Test
+    void restoredSummariesAreNotRequested() throws Exception {
+        FakeSummaryProvider provider = new FakeSummaryProvider();
+        start(provider, 8, 1, 1);
+        contents.put("a1", "kept");
+        pipeline.restore(new SummaryResult("a1", SummaryPipeline.contentHash("kept"), "from disk"));
+        pipeline.submit("a1");
+        Thread.sleep(50);
+
+        assertThat(provider.calls.get()).isEqualTo(0);
+        assertThat(pipeline.get("a1").orElseThrow().summaryText()).isEqualTo("from disk");
+        assertThat(pipeline.results()).containsExactly(
+            new SummaryResult("a1", SummaryPipeline.contentHash("kept"), "from disk"));
+    }
+}
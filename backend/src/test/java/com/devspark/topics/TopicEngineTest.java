@@ -0,0 +1,86 @@
+package com.devspark.topics;
+
+import com.devspark.ingestion.ArticleRecord;
+import com.devspark.ingestion.InMemoryArticleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicEngineTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-10T12:00:00Z");
+
+    private static ArticleRecord article(String link, String title, String summary, String published) {
+        return new ArticleRecord(title, link, "Source", published != null ? Instant.parse(published) : null,
+            summary, "c", null);
+    }
+
+    @Test
+    void extractsEntitiesBeforeTitleKeywords() {
+        Map<String, String> topics = TopicExtractor.extract("OpenAI Ships a New GPU Scheduler for Kubernetes",
+            "<p>The release follows talks with Microsoft Azure. Engineers at Google said it was fast.</p>");
+
+        assertThat(topics.keySet()).containsExactly(
+            "openai", "gpu", "microsoft-azure", "google", "ships", "scheduler", "kubernetes");
+        assertThat(topics.get("microsoft-azure")).isEqualTo("Microsoft Azure");
+        // "Engineers" starts a sentence and "The" is a stop word
+        assertThat(topics).doesNotContainKey("engineers");
+        assertThat(TopicExtractor.extract("全文检索", null).keySet()).containsExactly("全文", "文检", "检索");
+    }
+
+    @Test
+    void topicsAreRankedByArticleCountAndFollowRemovals() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        TopicEngine engine = new TopicEngine(Clock.fixed(NOW, ZoneOffset.UTC));
+        repository.addListener(engine, true);
+
+        repository.save(article("https://a/1", "Rust compiler speedups", null, "2024-06-10T08:00:00Z"));
+        repository.save(article("https://a/2", "Rust async traits", null, "2024-06-08T08:00:00Z"));
+        repository.save(article("https://a/3", "Rust and Kubernetes", null, "2024-06-09T08:00:00Z"));
+        repository.save(article("https://a/4", "Kubernetes operators", null, null));
+        repository.save(article("https://a/5", "Compiler internals", null, "2024-06-01T08:00:00Z"));
+
+        assertThat(engine.topics(10).stream().map(TopicSummary::id).toList()).containsExactly("rust", "compiler", "kubernetes");
+        TopicSummary rust = engine.topics(1).get(0);
+        assertThat(rust.articleCount()).isEqualTo(3);
+        assertThat(rust.firstPublished()).isEqualTo(Instant.parse("2024-06-08T08:00:00Z"));
+        assertThat(rust.lastPublished()).isEqualTo(Instant.parse("2024-06-10T08:00:00Z"));
+
+        repository.remove("https://a/1");
+        repository.remove("https://a/5");
+        assertThat(engine.topics(10).stream().map(TopicSummary::id).toList()).containsExactly("kubernetes", "rust");
+        assertThat(engine.timeline("compiler", 7, 10)).isEmpty();
+        assertThat(engine.timeline("speedups", 7, 10)).isEmpty();
+    }
+
+    @Test
+    void timelineCountsArticlesPerDayAndListsTheNewest() {
+        InMemoryArticleRepository repository = new InMemoryArticleRepository();
+        TopicEngine engine = new TopicEngine(Clock.fixed(NOW, ZoneOffset.UTC));
+        repository.addListener(engine, true);
+        repository.save(article("https://a/1", "Postgres vacuum", null, "2024-06-10T01:00:00Z"));
+        repository.save(article("https://a/2", "Postgres indexes", null, "2024-06-10T02:00:00Z"));
+        repository.save(article("https://a/3", "Postgres replication", null, "2024-06-08T02:00:00Z"));
+        repository.save(article("https://a/4", "Postgres in 2019", null, "2019-01-01T00:00:00Z"));
+
+        TopicTimeline timeline = engine.timeline("postgres", 3, 2).orElseThrow();
+        assertThat(timeline.buckets()).containsExactly(
+            new TimelineBucket(LocalDate.parse("2024-06-08"), 1),
+            new TimelineBucket(LocalDate.parse("2024-06-09"), 0),
+            new TimelineBucket(LocalDate.parse("2024-06-10"), 2));
+        assertThat(timeline.links()).containsExactly("https://a/2", "https://a/1");
+        assertThat(timeline.topic().articleCount()).isEqualTo(4);
+
+        // A changed title moves the article to its new topics
+        repository.update("https://a/2", r -> article("https://a/2", "MySQL indexes", null, "2024-06-10T02:00:00Z"));
+        timeline = engine.timeline("postgres", 1, 10).orElseThrow();
+        assertThat(timeline.buckets()).containsExactly(new TimelineBucket(LocalDate.parse("2024-06-10"), 1));
+        assertThat(engine.timeline("mysql", 1, 10).orElseThrow().links()).containsExactly("https://a/2");
+    }
+}
@@ -7,7 +7,7 @@ import FeedCard from "../../src/features/feed/FeedCard";
 import { useArticles, type Article } from "../../src/hooks/useArticles";
 
 export default function FeedPage() {
-  const { articles, loading, error, refresh } = useArticles();
+  const { articles, loading, error, hasMore, loadingMore, loadMore, refresh } = useArticles();
   const [selectedSource, setSelectedSource] = useState<string | null>(null);
   const [searchQuery, setSearchQuery] = useState("");
 
@@ -129,6 +129,16 @@ export default function FeedPage() {
               ))
             )}
           </div>
+          {hasMore && (
+            <button
+              className="button button--ghost"
+              type="button"
+              onClick={loadMore}
+              disabled={loadingMore}
+            >
+              {loadingMore ? "Loading..." : "Load older articles"}
+            </button>
+          )}
         </>
       }
       detail={
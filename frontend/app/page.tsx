@@ -10,10 +10,10 @@ import { useLayout } from '../src/hooks/useLayout';
 import { usePanelSizes } from '../src/hooks/useResizable';
 import ResizeHandle from '../src/components/ResizeHandle';
 import AddSourceDialog from '../src/components/AddSourceDialog';
-import { importOpml } from '../src/lib/api';
+import { fetchImportProgress, importOpml, setArticlePinned } from '../src/lib/api';
 
 export default function HomePage() {
-    const { articles, loading, error, setArticles, refresh } = useArticles();
+    const { articles, loading, error, hasMore, loadingMore, loadMore, setArticles, refresh } = useArticles();
     const [selectedArticle, setSelectedArticle] = useState<Article | null>(null);
     const [activeNav, setActiveNav] = useState('today');
     const [searchQuery, setSearchQuery] = useState('');
@@ -90,6 +90,8 @@ export default function HomePage() {
     }, [setArticles, filteredArticles]);
 
     const handleToggleStar = useCallback((article: Article) => {
+        // Starred articles are kept when the server drops old ones
+        setArticlePinned(article.id, !article.starred).catch(() => {});
         setArticles(prev =>
             prev.map(a => (a.id === article.id ? { ...a, starred: !a.starred } : a))
         );
@@ -197,7 +199,16 @@ export default function HomePage() {
 
         try {
             const result = await importOpml(file);
-            setImportStatus(`Imported ${result.imported} sources`);
+            // The feeds are imported in the background; follow the job until it finishes
+            let progress = await fetchImportProgress(result.jobId);
+            while (!progress.finishedAt) {
+                setImportStatus(`Importing ${progress.imported + progress.failed}/${progress.total} sources...`);
+                await new Promise((resolve) => setTimeout(resolve, 1000));
+                progress = await fetchImportProgress(result.jobId);
+            }
+            setImportStatus(progress.failed > 0
+                ? `Imported ${progress.imported} sources, ${progress.failed} failed`
+                : `Imported ${progress.imported} sources`);
             setTimeout(() => setImportStatus(null), 3000);
             refresh();
         } catch (err) {
@@ -251,6 +262,9 @@ export default function HomePage() {
                     onSelect={handleSelectArticle}
                     loading={loading}
                     title={listTitle}
+                    hasMore={hasMore}
+                    loadingMore={loadingMore}
+                    onLoadMore={loadMore}
                 />
             </div>
 
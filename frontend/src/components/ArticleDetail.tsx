@@ -1,11 +1,12 @@
 'use client';
 
-import React, { useMemo } from 'react';
+import React, { useEffect, useMemo, useState } from 'react';
 import DOMPurify from 'dompurify';
 import ReactMarkdown from 'react-markdown';
 import remarkGfm from 'remark-gfm';
 import rehypeRaw from 'rehype-raw';
 import type { Article } from './ArticleList';
+import { fetchArticleContent } from '../lib/api';
 
 interface ArticleDetailProps {
     article: Article | null;
@@ -61,9 +62,26 @@ const purifyConfig = {
 };
 
 export default function ArticleDetail({ article, onToggleStar, onBack }: ArticleDetailProps) {
+    // Article bodies are not part of the list response; fetch the body when an article is opened
+    const [loadedContent, setLoadedContent] = useState<{ id: string; content: string } | null>(null);
+    useEffect(() => {
+        if (!article || article.content) return;
+        let cancelled = false;
+        fetchArticleContent(article.id)
+            .then((content) => {
+                if (!cancelled) setLoadedContent({ id: article.id, content });
+            })
+            .catch((e) => console.error('Failed to load article content:', e));
+        return () => {
+            cancelled = true;
+        };
+    }, [article?.id, article?.content]);
+
+    const content = article?.content || (loadedContent?.id === article?.id ? loadedContent?.content : '') || '';
+
     // Determine content to render and whether it's HTML
     const { renderedHtml, isMarkdown } = useMemo(() => {
-        const rawContent = article?.content || article?.summary || '';
+        const rawContent = content || article?.summary || '';
         if (!rawContent) return { renderedHtml: '', isMarkdown: false };
 
         const htmlDetected = isHtmlContent(rawContent);
@@ -90,7 +108,7 @@ export default function ArticleDetail({ article, onToggleStar, onBack }: Article
 
         // Not HTML — treat as markdown
         return { renderedHtml: rawContent, isMarkdown: true };
-    }, [article?.content, article?.summary]);
+    }, [content, article?.summary]);
 
     if (!article) {
         return (
@@ -216,7 +234,7 @@ export default function ArticleDetail({ article, onToggleStar, onBack }: Article
                     </div>
                     <div className="reader__footer">
                         <a
-                            href={article.id}
+                            href={article.link || article.id}
                             target="_blank"
                             rel="noopener noreferrer"
                             className="reader__original-link"
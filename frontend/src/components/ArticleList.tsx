@@ -4,6 +4,7 @@ import React from 'react';
 
 export interface Article {
     id: string;
+    link?: string;
     title: string;
     summary: string;
     source: string;
@@ -20,6 +21,10 @@ interface ArticleListProps {
     onSelect: (article: Article) => void;
     loading: boolean;
     title: string;
+    // Older articles are on the server; offer to fetch them
+    hasMore?: boolean;
+    loadingMore?: boolean;
+    onLoadMore?: () => void;
 }
 
 function formatTime(dateStr: string): string {
@@ -47,6 +52,9 @@ export default function ArticleList({
     onSelect,
     loading,
     title,
+    hasMore = false,
+    loadingMore = false,
+    onLoadMore,
 }: ArticleListProps) {
     if (loading) {
         return (
@@ -76,7 +84,7 @@ export default function ArticleList({
         <div className="feed-list">
             <div className="feed-list__header">
                 <span className="feed-list__title">{title}</span>
-                <span className="feed-list__count">{articles.length}</span>
+                <span className="feed-list__count">{articles.length}{hasMore ? '+' : ''}</span>
             </div>
             <div className="feed-list__scroll">
                 {articles.length === 0 ? (
@@ -125,6 +133,15 @@ export default function ArticleList({
                         </div>
                     ))
                 )}
+                {hasMore && onLoadMore && (
+                    <button
+                        className="feed-list__more"
+                        onClick={onLoadMore}
+                        disabled={loadingMore}
+                    >
+                        {loadingMore ? 'Loading...' : 'Load older articles'}
+                    </button>
+                )}
             </div>
         </div>
     );
@@ -1,13 +1,16 @@
 'use client';
 
 import { useState, useEffect, useCallback } from 'react';
-import { fetchArticles as apiFetchArticles, type Article, ApiError } from '../lib/api';
+import { fetchArticles as apiFetchArticles, openArticleStream, type Article, ApiError } from '../lib/api';
 
 interface UseArticlesResult {
     articles: Article[];
     loading: boolean;
     error: string | null;
+    hasMore: boolean;
+    loadingMore: boolean;
     refresh: () => Promise<void>;
+    loadMore: () => Promise<void>;
     setArticles: React.Dispatch<React.SetStateAction<Article[]>>;
 }
 
@@ -15,14 +18,18 @@ export function useArticles(sourceId?: string): UseArticlesResult {
     const [articles, setArticles] = useState<Article[]>([]);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState<string | null>(null);
+    // Articles come a page at a time; this is where the next page starts
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     const refresh = useCallback(async () => {
         setLoading(true);
         setError(null);
 
         try {
-            const data = await apiFetchArticles(sourceId);
-            setArticles(data);
+            const page = await apiFetchArticles(sourceId);
+            setArticles(page.articles);
+            setNextCursor(page.nextCursor);
         } catch (e) {
             if (e instanceof ApiError) {
                 setError(`Error ${e.status}: ${e.message}`);
@@ -37,11 +44,43 @@ export function useArticles(sourceId?: string): UseArticlesResult {
         }
     }, [sourceId]);
 
+    const loadMore = useCallback(async () => {
+        if (!nextCursor || loadingMore) return;
+        setLoadingMore(true);
+        try {
+            const page = await apiFetchArticles(sourceId, nextCursor);
+            // Streamed articles may already be in the list
+            setArticles((prev) => {
+                const seen = new Set(prev.map((a) => a.id));
+                return [...prev, ...page.articles.filter((a) => !seen.has(a.id))];
+            });
+            setNextCursor(page.nextCursor);
+        } catch (e) {
+            console.error('Failed to fetch more articles:', e);
+        } finally {
+            setLoadingMore(false);
+        }
+    }, [sourceId, nextCursor, loadingMore]);
+
     useEffect(() => {
         refresh();
     }, [refresh]);
 
-    return { articles, loading, error, refresh, setArticles };
+    // New articles arrive over SSE instead of re-requesting the whole list
+    useEffect(() => {
+        if (typeof EventSource === 'undefined') return;
+        const stream = openArticleStream(
+            sourceId,
+            (article) => setArticles((prev) => {
+                if (prev.some((a) => a.id === article.id)) return prev;
+                return [article, ...prev].sort((a, b) => b.publishTime.localeCompare(a.publishTime));
+            }),
+            () => { refresh(); }
+        );
+        return () => stream.close();
+    }, [sourceId, refresh]);
+
+    return { articles, loading, error, hasMore: nextCursor !== null, loadingMore, refresh, loadMore, setArticles };
 }
 
 // Re-export Article type for convenience
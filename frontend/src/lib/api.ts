@@ -2,6 +2,7 @@ const API_BASE = process.env.NEXT_PUBLIC_API_BASE || 'http://127.0.0.1:8080';
 
 export interface Article {
     id: string;
+    link: string;
     title: string;
     summary: string;
     source: string;
@@ -21,9 +22,20 @@ export interface AuthResponse {
 }
 
 export interface ImportResult {
+    jobId: string;
+    count: number;
+    duplicates: number;
+}
+
+export interface ImportProgress {
+    jobId: string;
+    total: number;
     imported: number;
     failed: number;
-    sources: string[];
+    pending: number;
+    duplicates: number;
+    startedAt: string;
+    finishedAt: string | null;
 }
 
 export class ApiError extends Error {
@@ -61,15 +73,28 @@ async function fetchWithAuth(url: string, options: RequestInit = {}): Promise<Re
     return response;
 }
 
-export async function fetchArticles(sourceId?: string): Promise<Article[]> {
-    const url = sourceId ? `/api/articles?sourceId=${encodeURIComponent(sourceId)}` : '/api/articles';
-    const response = await fetchWithAuth(url);
+export interface ArticlePage {
+    articles: Article[];
+    // Pass back as `cursor` for the next page; null on the last one
+    nextCursor: string | null;
+}
+
+export async function fetchArticles(sourceId?: string, cursor?: string): Promise<ArticlePage> {
+    const params = new URLSearchParams({ limit: '200' });
+    if (sourceId) params.set('sourceId', sourceId);
+    if (cursor) params.set('cursor', cursor);
+    const response = await fetchWithAuth(`/api/articles?${params}`);
     const data = await response.json();
 
-    // Map backend response to frontend Article interface
     const items = data.items || data || [];
-    return items.map((a: Record<string, unknown>, idx: number) => ({
+    return { articles: items.map(toArticle), nextCursor: data.nextCursor || null };
+}
+
+// Map a backend list item to the frontend Article interface
+function toArticle(a: Record<string, unknown>, idx: number): Article {
+    return {
         id: (a.id as string) || `article-${idx}`,
+        link: (a.link as string) || '',
         title: (a.title as string) || 'Untitled',
         summary: (a.summary as string) || '',
         source: (a.source as string) || 'Unknown',
@@ -78,7 +103,44 @@ export async function fetchArticles(sourceId?: string): Promise<Article[]> {
         imageUrl: (a.imageUrl as string) || '',
         starred: false,
         read: false,
-    }));
+    };
+}
+
+/**
+ * Subscribes to articles as the backend ingests them. The browser reconnects on
+ * its own and resumes where it left off; `onReset` means events were missed and
+ * the list should be fetched again. Call `close()` on the result to stop.
+ */
+export function openArticleStream(
+    sourceId: string | undefined,
+    onArticle: (article: Article) => void,
+    onReset: () => void
+): EventSource {
+    const params = new URLSearchParams();
+    if (sourceId) params.set('sourceId', sourceId);
+    // EventSource cannot send headers, so the token goes in the query
+    const token = typeof window !== 'undefined' ? localStorage.getItem('devspark-auth-token') : null;
+    if (token) params.set('token', token);
+    const events = new EventSource(`${API_BASE}/api/articles/stream?${params}`);
+    events.addEventListener('article', (e) => {
+        onArticle(toArticle(JSON.parse((e as MessageEvent).data), 0));
+    });
+    events.addEventListener('reset', () => onReset());
+    return events;
+}
+
+// The list endpoint omits article bodies; load one on demand when it is opened.
+export async function fetchArticleContent(id: string): Promise<string> {
+    const response = await fetchWithAuth(`/api/articles/${encodeURIComponent(id)}`);
+    const data = await response.json();
+    return (data.content as string) || (data.summary as string) || '';
+}
+
+// Pinned articles are exempt from retention on the server.
+export async function setArticlePinned(id: string, pinned: boolean): Promise<void> {
+    await fetchWithAuth(`/api/articles/${encodeURIComponent(id)}/pin`, {
+        method: pinned ? 'PUT' : 'DELETE',
+    });
 }
 
 export async function registerUser(email: string, password: string): Promise<AuthResponse> {
@@ -97,6 +159,11 @@ export async function loginUser(email: string, password: string): Promise<AuthRe
     return response.json();
 }
 
+// Ends the current token's session on the server.
+export async function logoutUser(): Promise<void> {
+    await fetchWithAuth('/api/auth/logout', { method: 'POST' });
+}
+
 export async function importOpml(file: File): Promise<ImportResult> {
     const formData = new FormData();
     formData.append('file', file);
@@ -122,6 +189,12 @@ export async function importOpml(file: File): Promise<ImportResult> {
     return response.json();
 }
 
+// Imports run in the background; poll until finishedAt is set.
+export async function fetchImportProgress(jobId: string): Promise<ImportProgress> {
+    const response = await fetchWithAuth(`/api/sources/import-opml/${encodeURIComponent(jobId)}`);
+    return response.json();
+}
+
 export async function fetchSources(): Promise<string[]> {
     const response = await fetchWithAuth('/api/sources');
     const data = await response.json();
@@ -163,3 +236,16 @@ export async function removeSource(name: string): Promise<{ success: boolean }>
     });
     return response.json();
 }
+
+export interface RefreshSourceResult {
+    success: boolean;
+    outcome?: 'FETCHED' | 'NOT_MODIFIED' | 'UNCHANGED' | 'FAILED';
+    error?: string;
+}
+
+export async function refreshSource(name: string): Promise<RefreshSourceResult> {
+    const response = await fetchWithAuth(`/api/sources/${encodeURIComponent(name)}/refresh`, {
+        method: 'POST',
+    });
+    return response.json();
+}
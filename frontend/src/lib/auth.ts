@@ -1,3 +1,5 @@
+import { logoutUser } from './api';
+
 const AUTH_TOKEN_KEY = 'devspark-auth-token';
 const AUTH_USER_KEY = 'devspark-auth-user';
 
@@ -62,6 +64,8 @@ export function isAuthenticated(): boolean {
 
 // Logout
 export function logout(): void {
+    // The request picks up the token before it is cleared; a failure just leaves it to expire
+    logoutUser().catch(() => {});
     clearAuth();
     // Redirect to login page
     if (typeof window !== 'undefined') {